@@ -0,0 +1,90 @@
+package com.siopa.siopa_stores.benchmark;
+
+import com.siopa.siopa_stores.helpers.DistanceHelper;
+import com.siopa.siopa_stores.helpers.GeoPoints;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the distance calculations in {@link DistanceHelper}: one query point against a whole catalog,
+ * store by store with the scalar haversine and in one pass with each of the batch methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DistanceHelperBenchmark {
+
+    private static final double RADIUS_MILES = 10;
+
+    @Param({"1000", "100000", "1000000", "5000000"})
+    private int catalogSize;
+
+    private final DistanceHelper distanceHelper = new DistanceHelper();
+    private double[] latitudes;
+    private double[] longitudes;
+    private GeoPoints points;
+    private double[] distances;
+    private long[] matchBits;
+    private int[] matches;
+    private SplittableRandom queryRandom;
+    private double queryLatitude;
+    private double queryLongitude;
+
+    /**
+     * Generates the catalog and the output buffers once per parameter set.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(catalogSize, 42);
+        latitudes = new double[catalogSize];
+        longitudes = new double[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            latitudes[i] = catalog.latitude(i);
+            longitudes[i] = catalog.longitude(i);
+        }
+        points = catalog.points();
+        distances = new double[catalogSize];
+        matchBits = new long[(catalogSize + 63) / 64];
+        matches = new int[catalogSize];
+        queryRandom = new SplittableRandom(7);
+    }
+
+    /**
+     * Moves the query point to another store before each iteration, so no iteration is specialised for one location.
+     */
+    @Setup(Level.Iteration)
+    public void nextQuery() {
+        int store = queryRandom.nextInt(catalogSize);
+        queryLatitude = latitudes[store];
+        queryLongitude = longitudes[store];
+    }
+
+    @Benchmark
+    public void scalarHaversine(Blackhole blackhole) {
+        for (int i = 0; i < catalogSize; i++) {
+            blackhole.consume(distanceHelper.distanceCalculation(latitudes[i], queryLatitude, longitudes[i], queryLongitude));
+        }
+    }
+
+    @Benchmark
+    public double[] batchHaversine() {
+        distanceHelper.distanceCalculation(queryLatitude, queryLongitude, points, distances);
+        return distances;
+    }
+
+    @Benchmark
+    public int withinRadius() {
+        return distanceHelper.withinRadius(queryLatitude, queryLongitude, RADIUS_MILES, points, matchBits);
+    }
+
+    @Benchmark
+    public int withinRadiusFast() {
+        return distanceHelper.withinRadiusFast(queryLatitude, queryLongitude, RADIUS_MILES, points, matches, distances);
+    }
+}
@@ -0,0 +1,55 @@
+package com.siopa.siopa_stores.benchmark;
+
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link StoreRepository} stub backed by a {@link SyntheticCatalog}, so benchmarks measure the service and
+ * not a database. Only the lookups the nearby search makes are supported; any other call fails.
+ */
+final class InMemoryStoreRepository implements InvocationHandler {
+
+    private final SyntheticCatalog catalog;
+
+    private InMemoryStoreRepository(SyntheticCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * Creates a repository serving the stores of the given catalog.
+     */
+    static StoreRepository of(SyntheticCatalog catalog) {
+        return (StoreRepository) Proxy.newProxyInstance(StoreRepository.class.getClassLoader(),
+                new Class<?>[]{StoreRepository.class}, new InMemoryStoreRepository(catalog));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "findAllById", "findAllByStoreIdIn" -> findAllById((Iterable<?>) args[0]);
+            case "streamAllLocations" -> catalog.locations().stream();
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "InMemoryStoreRepository[" + catalog.size() + " stores]";
+            default -> throw new UnsupportedOperationException(method.getName() + " is not supported by the benchmark stub");
+        };
+    }
+
+    private List<Store> findAllById(Iterable<?> storeIds) {
+        List<Store> stores = new ArrayList<>();
+        for (Object storeId : storeIds) {
+            Store store = catalog.store((UUID) storeId);
+            if (store != null) {
+                stores.add(store);
+            }
+        }
+        return stores;
+    }
+}
@@ -0,0 +1,80 @@
+package com.siopa.siopa_stores.benchmark;
+
+import com.siopa.siopa_stores.helpers.DistanceHelper;
+import com.siopa.siopa_stores.index.GeoHit;
+import com.siopa.siopa_stores.index.StoreGeoIndex;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+import com.siopa.siopa_stores.requests.LocationRequest;
+import com.siopa.siopa_stores.responses.NearbyStore;
+import com.siopa.siopa_stores.service.StoreService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the nearby search: the geo index on its own, and the full
+ * {@link StoreService#findStoresByLatLng} path with the matches loaded from an in-memory repository.
+ * Each invocation searches around a different store of the catalog, so searches follow its clustering.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NearbySearchBenchmark {
+
+    /** Number of distinct query points cycled through. */
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"1000", "100000", "1000000", "5000000"})
+    private int catalogSize;
+
+    @Param({"10"})
+    private double radiusMiles;
+
+    private StoreGeoIndex storeGeoIndex;
+    private StoreService storeService;
+    private LocationRequest[] queries;
+    private int next;
+
+    /**
+     * Generates the catalog and loads it into the geo index once per parameter set.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(catalogSize, 42);
+        StoreRepository storeRepository = InMemoryStoreRepository.of(catalog);
+        DistanceHelper distanceHelper = new DistanceHelper();
+        storeGeoIndex = new StoreGeoIndex(storeRepository, distanceHelper, 0.1);
+        storeGeoIndex.rebuild(catalog.locations());
+        // The nearby search does not touch the outbox, cache or owner index.
+        storeService = new StoreService(storeRepository, null, distanceHelper, storeGeoIndex, null, null);
+
+        SplittableRandom random = new SplittableRandom(7);
+        queries = new LocationRequest[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            int store = random.nextInt(catalogSize);
+            queries[i] = new LocationRequest(catalog.latitude(store), catalog.longitude(store));
+            queries[i].radius = radiusMiles;
+        }
+    }
+
+    private LocationRequest nextQuery() {
+        return queries[next++ & (QUERY_COUNT - 1)];
+    }
+
+    @Benchmark
+    public List<GeoHit> geoIndexFindNearest() {
+        LocationRequest query = nextQuery();
+        return storeGeoIndex.findNearest(query.latitude, query.longitude, radiusMiles, null);
+    }
+
+    @Benchmark
+    public List<NearbyStore<Store>> findStoresByLatLng() {
+        return storeService.findStoresByLatLng(nextQuery());
+    }
+}
@@ -0,0 +1,109 @@
+package com.siopa.siopa_stores.benchmark;
+
+import com.siopa.siopa_stores.helpers.GeoPoints;
+import com.siopa.siopa_stores.helpers.StoreCatalogGenerator;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.models.StoreLocation;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reproducible catalog of stores for benchmarks, placed by {@link StoreCatalogGenerator}.
+ * Only coordinates are held; stores are built on demand from their position in the catalog,
+ * so even the largest catalogs fit in a modest heap. Store IDs encode that position.
+ */
+final class SyntheticCatalog {
+
+    private static final long ID_PREFIX = 0x5109a0000000L;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    /**
+     * Generates a catalog.
+     *
+     * @param size the number of stores.
+     * @param seed the random seed; the same seed always gives the same catalog.
+     */
+    SyntheticCatalog(int size, long seed) {
+        StoreCatalogGenerator generator = new StoreCatalogGenerator(seed, size);
+        latitudes = new double[size];
+        longitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            Store store = generator.next();
+            latitudes[i] = store.getLatitude();
+            longitudes[i] = store.getLongitude();
+        }
+    }
+
+    int size() {
+        return latitudes.length;
+    }
+
+    double latitude(int index) {
+        return latitudes[index];
+    }
+
+    double longitude(int index) {
+        return longitudes[index];
+    }
+
+    /**
+     * Returns the locations of every store, in catalog order, without copying them up front.
+     */
+    List<StoreLocation> locations() {
+        return new AbstractList<>() {
+            @Override
+            public StoreLocation get(int index) {
+                return new StoreLocation(storeId(index), latitudes[index], longitudes[index]);
+            }
+
+            @Override
+            public int size() {
+                return latitudes.length;
+            }
+        };
+    }
+
+    /**
+     * Returns the coordinates of every store as one block, in catalog order.
+     */
+    GeoPoints points() {
+        GeoPoints points = new GeoPoints(latitudes.length);
+        for (int i = 0; i < latitudes.length; i++) {
+            points.set(i, latitudes[i], longitudes[i]);
+        }
+        return points;
+    }
+
+    /**
+     * Builds the store with the given ID, or returns null if the ID is not from this catalog.
+     */
+    Store store(UUID storeId) {
+        long index = storeId.getLeastSignificantBits();
+        if (storeId.getMostSignificantBits() != ID_PREFIX || index < 0 || index >= latitudes.length) {
+            return null;
+        }
+        int i = (int) index;
+        return Store.builder()
+                .storeId(storeId)
+                .name("Store " + i)
+                .address(i + " High Street")
+                .isActive(true)
+                .email("store" + i + "@siopa.test")
+                .ownerIds(Set.of(new UUID(ID_PREFIX + 1, i)))
+                .latitude(latitudes[i])
+                .longitude(longitudes[i])
+                .rating(i % 5 + 1)
+                .deliveryFee(BigDecimal.valueOf(i % 500, 2))
+                .build();
+    }
+
+    static UUID storeId(int index) {
+        return new UUID(ID_PREFIX, index);
+    }
+}
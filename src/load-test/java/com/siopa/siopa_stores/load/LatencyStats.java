@@ -0,0 +1,70 @@
+package com.siopa.siopa_stores.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors of one endpoint during a load test run. Safe to record from many threads at once.
+ */
+final class LatencyStats {
+
+    /** Highest latency tracked exactly; slower requests are recorded at this value. */
+    private static final long MAX_TRACKED_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Recorder recorder = new Recorder(MAX_TRACKED_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+    private Histogram histogram = new Histogram(MAX_TRACKED_NANOS, 3);
+
+    /**
+     * Records a completed request.
+     *
+     * @param nanos   the request's latency in nanoseconds.
+     * @param success whether the response was the expected one.
+     */
+    void record(long nanos, boolean success) {
+        recorder.recordValue(Math.min(nanos, MAX_TRACKED_NANOS));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Discards everything recorded so far, at the end of the warm-up.
+     */
+    void reset() {
+        recorder.reset();
+        errors.reset();
+        histogram = new Histogram(MAX_TRACKED_NANOS, 3);
+    }
+
+    /**
+     * Collects what has been recorded since the last reset. Call once recording has stopped.
+     */
+    void complete() {
+        histogram = recorder.getIntervalHistogram();
+    }
+
+    long requests() {
+        return histogram.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    double errorRate() {
+        return requests() == 0 ? 0 : (double) errors() / requests();
+    }
+
+    Duration percentile(double percentile) {
+        return Duration.ofNanos(histogram.getValueAtPercentile(percentile));
+    }
+
+    Duration max() {
+        return Duration.ofNanos(histogram.getMaxValue());
+    }
+}
@@ -0,0 +1,345 @@
+package com.siopa.siopa_stores.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.siopa_stores.helpers.StoreCatalogGenerator;
+import com.siopa.siopa_stores.kafka.KafkaProducerService;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+import com.siopa.siopa_stores.requests.LocationRequest;
+import com.siopa.siopa_stores.responses.ImportResult;
+import com.siopa.siopa_stores.service.StoreImportService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * End-to-end load test of the store API. Boots the application on a random port against PostgreSQL, with
+ * Kafka mocked out, seeds a synthetic catalog and drives a weighted mix of requests at a fixed arrival rate.
+ * Latency percentiles and throughput are reported per endpoint, and the run fails if any endpoint misses
+ * its latency objectives or error budget.
+ * <p>
+ * Each request is timed from when it was scheduled to start rather than when it was sent, so a slow response
+ * that holds up the requests behind it counts against them too, instead of hiding in the percentiles.
+ * <p>
+ * PostgreSQL is started in a throwaway container, with the schema created and dropped by the run, unless
+ * {@code stores.load-test.jdbc-url} points at a local database. A local database keeps its schema, which is only
+ * created or extended, and the run refuses to seed it unless it holds no stores.
+ * Every setting under {@code stores.load-test} can be overridden on the command line, for example
+ * {@code mvn -Pload-test test -Dstores.load-test.duration=5m -Dstores.load-test.slo.nearby.p99=80ms}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "stores.kafka.create-topics=false",
+        "stores.kafka.role-changes.auto-startup=false",
+        "stores.kafka.store-changes.auto-startup=false"
+})
+class StoreLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreLoadTest.class);
+
+    /** Number of catalog stores kept as request targets. */
+    private static final int SAMPLE_SIZE = 10_000;
+
+    private static PostgreSQLContainer<?> postgres;
+
+    /**
+     * The endpoints exercised, with their default share of the traffic and latency objectives.
+     */
+    enum Endpoint {
+        GET("get", 50, Duration.ofMillis(25), Duration.ofMillis(100)),
+        NEARBY("nearby", 30, Duration.ofMillis(50), Duration.ofMillis(200)),
+        OWNER("owner", 15, Duration.ofMillis(50), Duration.ofMillis(200)),
+        // An owner change is two requests, an add and a remove, timed together.
+        OWNER_CHANGE("owner-change", 5, Duration.ofMillis(200), Duration.ofMillis(800));
+
+        private final String key;
+        private final int weight;
+        private final Duration p99;
+        private final Duration p999;
+
+        Endpoint(String key, int weight, Duration p99, Duration p999) {
+            this.key = key;
+            this.weight = weight;
+            this.p99 = p99;
+            this.p999 = p999;
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private StoreImportService storeImportService;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    @MockBean
+    private KafkaProducerService kafkaProducerService;
+
+    @Value("${stores.load-test.catalog-size:200000}")
+    private long catalogSize;
+
+    @Value("${stores.load-test.seed:42}")
+    private long seed;
+
+    @Value("${stores.load-test.concurrency:32}")
+    private int concurrency;
+
+    @Value("${stores.load-test.rate:1000}")
+    private double rate;
+
+    @Value("${stores.load-test.warmup:15s}")
+    private Duration warmup;
+
+    @Value("${stores.load-test.duration:60s}")
+    private Duration duration;
+
+    @Value("${stores.load-test.max-error-rate:0.001}")
+    private double maxErrorRate;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final List<Store> targets = new ArrayList<>(SAMPLE_SIZE);
+    private final Map<Endpoint, LatencyStats> stats = new EnumMap<>(Endpoint.class);
+
+    /**
+     * Points the application at a local PostgreSQL when one is configured, or at a container otherwise.
+     * Only the container's schema is dropped at the end of the run.
+     */
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        String jdbcUrl = System.getProperty("stores.load-test.jdbc-url");
+        if (jdbcUrl != null) {
+            registry.add("spring.datasource.url", () -> jdbcUrl);
+            registry.add("spring.datasource.username", () -> System.getProperty("stores.load-test.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("stores.load-test.password", "postgres"));
+            registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+            return;
+        }
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    @Test
+    void storeApi_ShouldMeetLatencyObjectives() throws Exception {
+        when(kafkaProducerService.send(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        seedCatalog();
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new LatencyStats());
+        }
+
+        logger.info("Warming up for {} at {} requests/s from {} clients", warmup, rate, concurrency);
+        drive(warmup);
+        stats.values().forEach(LatencyStats::reset);
+
+        logger.info("Measuring for {} at {} requests/s from {} clients", duration, rate, concurrency);
+        long started = System.nanoTime();
+        drive(duration);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        stats.values().forEach(LatencyStats::complete);
+
+        List<String> violations = report(seconds);
+        assertTrue(violations.isEmpty(), "Service level objectives missed:\n" + String.join("\n", violations));
+    }
+
+    /**
+     * Imports the synthetic catalog and keeps an even sample of its stores as request targets.
+     */
+    private void seedCatalog() throws Exception {
+        assertEquals(0, storeRepository.count(),
+                "The load test seeds its own catalog and only runs against a database with no stores");
+        logger.info("Seeding {} stores", catalogSize);
+        ImportResult result = storeImportService.importStores(new StoreCatalogGenerator(seed, catalogSize));
+        logger.info("Seeded {} stores with {} owner links", result.getImported(), result.getOwners());
+
+        long step = Math.max(1, catalogSize / SAMPLE_SIZE);
+        StoreCatalogGenerator generator = new StoreCatalogGenerator(seed, catalogSize);
+        for (long i = 0; generator.hasNext(); i++) {
+            Store store = generator.next();
+            if (i % step == 0 && targets.size() < SAMPLE_SIZE) {
+                targets.add(store);
+            }
+        }
+    }
+
+    /**
+     * Runs the request mix at the configured rate until the period has elapsed. Each client follows its own
+     * schedule, spread evenly over the rate; a client that falls behind sends at once rather than skipping,
+     * and its requests are still timed from their scheduled start.
+     */
+    private void drive(Duration period) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + period.toNanos();
+        long interval = Math.round(concurrency * 1e9 / rate);
+        Endpoint[] mix = mix();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int client = 0; client < concurrency; client++) {
+            long offset = client * interval / concurrency;
+            clients.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (long scheduled = start + offset; scheduled < deadline; scheduled += interval) {
+                    long wait = scheduled - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    Store target = targets.get(random.nextInt(targets.size()));
+                    send(mix[random.nextInt(mix.length)], target, scheduled);
+                }
+            });
+        }
+        clients.shutdown();
+        if (!clients.awaitTermination(period.toSeconds() + 60, TimeUnit.SECONDS)) {
+            clients.shutdownNow();
+        }
+    }
+
+    /**
+     * Expands the configured weights into a table an endpoint can be drawn from uniformly.
+     */
+    private Endpoint[] mix() {
+        List<Endpoint> mix = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            int weight = environment.getProperty("stores.load-test.mix." + endpoint.key, Integer.class, endpoint.weight);
+            for (int i = 0; i < weight; i++) {
+                mix.add(endpoint);
+            }
+        }
+        return mix.toArray(Endpoint[]::new);
+    }
+
+    /**
+     * Sends one request of the mix, timed from its scheduled start. An owner change is an add followed by
+     * a remove, recorded as one operation from the same scheduled start, so a client falling behind delays
+     * it like every other request; it succeeds only if both requests do.
+     */
+    private void send(Endpoint endpoint, Store target, long scheduled) {
+        String stores = "http://localhost:" + port + "/api/stores";
+        switch (endpoint) {
+            case GET -> timed(endpoint, HttpRequest.newBuilder(URI.create(stores + "/" + target.getStoreId())).GET(),
+                    scheduled);
+            case NEARBY -> timed(endpoint, HttpRequest.newBuilder(URI.create(stores + "/nearby"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(nearbyBody(target))), scheduled);
+            case OWNER -> timed(endpoint, HttpRequest.newBuilder(
+                    URI.create(stores + "/owner/" + target.getOwnerIds().iterator().next())).GET(), scheduled);
+            case OWNER_CHANGE -> {
+                UUID ownerId = UUID.randomUUID();
+                String store = stores + "/" + target.getStoreId();
+                boolean added = call(endpoint, HttpRequest.newBuilder(URI.create(store + "/addOwner/" + ownerId))
+                        .PUT(HttpRequest.BodyPublishers.noBody()));
+                boolean removed = call(endpoint, HttpRequest.newBuilder(URI.create(store + "/removeOwner/" + ownerId))
+                        .PUT(HttpRequest.BodyPublishers.noBody()));
+                stats.get(endpoint).record(System.nanoTime() - scheduled, added && removed);
+            }
+        }
+    }
+
+    private String nearbyBody(Store target) {
+        try {
+            return objectMapper.writeValueAsString(new LocationRequest(target.getLatitude(), target.getLongitude()));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void timed(Endpoint endpoint, HttpRequest.Builder request, long scheduled) {
+        boolean success = call(endpoint, request);
+        stats.get(endpoint).record(System.nanoTime() - scheduled, success);
+    }
+
+    private boolean call(Endpoint endpoint, HttpRequest.Builder request) {
+        boolean success;
+        try {
+            HttpResponse<Void> response = httpClient.send(request.timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            success = response.statusCode() == 200;
+            if (!success) {
+                logger.debug("{} request failed with status {}", endpoint.key, response.statusCode());
+            }
+        } catch (Exception e) {
+            logger.debug("{} request failed", endpoint.key, e);
+            success = false;
+        }
+        return success;
+    }
+
+    /**
+     * Logs a line per endpoint and returns a description of every objective missed.
+     */
+    private List<String> report(double seconds) {
+        StringBuilder table = new StringBuilder(String.format("%n%-14s %10s %8s %10s %10s %10s %10s %10s",
+                "endpoint", "requests", "errors", "req/s", "p50", "p99", "p99.9", "max"));
+        List<String> violations = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            LatencyStats endpointStats = stats.get(endpoint);
+            table.append(String.format("%n%-14s %10d %8d %10.1f %10s %10s %10s %10s", endpoint.key,
+                    endpointStats.requests(), endpointStats.errors(), endpointStats.requests() / seconds,
+                    millis(endpointStats.percentile(50)), millis(endpointStats.percentile(99)),
+                    millis(endpointStats.percentile(99.9)), millis(endpointStats.max())));
+            if (endpointStats.requests() == 0) {
+                continue;
+            }
+
+            Duration p99 = objective(endpoint, "p99", endpoint.p99);
+            Duration p999 = objective(endpoint, "p999", endpoint.p999);
+            if (endpointStats.percentile(99).compareTo(p99) > 0) {
+                violations.add(endpoint.key + ": p99 " + millis(endpointStats.percentile(99)) + " exceeds " + millis(p99));
+            }
+            if (endpointStats.percentile(99.9).compareTo(p999) > 0) {
+                violations.add(endpoint.key + ": p99.9 " + millis(endpointStats.percentile(99.9)) + " exceeds " + millis(p999));
+            }
+            if (endpointStats.errorRate() > maxErrorRate) {
+                violations.add(String.format("%s: error rate %.3f%% exceeds %.3f%%", endpoint.key,
+                        endpointStats.errorRate() * 100, maxErrorRate * 100));
+            }
+        }
+        logger.info("Load test results over {} stores, {} requests/s from {} clients, {}s:{}", catalogSize, rate,
+                concurrency, Math.round(seconds), table);
+        return violations;
+    }
+
+    private Duration objective(Endpoint endpoint, String percentile, Duration defaultValue) {
+        return environment.getProperty("stores.load-test.slo." + endpoint.key + "." + percentile, Duration.class,
+                defaultValue);
+    }
+
+    private static String millis(Duration duration) {
+        return String.format("%.2fms", duration.toNanos() / 1e6);
+    }
+}
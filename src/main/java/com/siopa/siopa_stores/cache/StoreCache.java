@@ -0,0 +1,122 @@
+package com.siopa.siopa_stores.cache;
+
+import com.siopa.siopa_stores.config.CacheConfig;
+import com.siopa.siopa_stores.models.Store;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Reads and invalidates the cached store lookups behind {@link com.siopa.siopa_stores.service.StoreService}.
+ * Inside a transaction, entries are evicted once it commits, so a lookup running inside the transaction does not
+ * outlive it in the cache. A lookup that read the store before the commit can still cache the old state after
+ * that eviction; such an entry is evicted again when the change comes back from the {@code store-changes} topic,
+ * and otherwise expires with the cache TTL.
+ */
+@Component
+@RequiredArgsConstructor
+public class StoreCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreCache.class);
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Returns the cached stores among the given IDs.
+     *
+     * @param storeIds the unique identifiers of the stores.
+     * @return the cached stores by ID; IDs that are not cached are absent.
+     */
+    public Map<UUID, Store> getAll(Collection<UUID> storeIds) {
+        Cache byId = cache(CacheConfig.STORES_BY_ID);
+        Map<UUID, Store> cached = new HashMap<>();
+        for (UUID storeId : storeIds) {
+            Store store = byId.get(storeId, Store.class);
+            if (store != null) {
+                cached.put(storeId, store);
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Caches stores by ID, as a single lookup would, unless they are cached already.
+     * The stores must have their owner IDs loaded.
+     *
+     * @param stores the stores to cache.
+     */
+    public void putAll(Collection<Store> stores) {
+        Cache byId = cache(CacheConfig.STORES_BY_ID);
+        stores.forEach(store -> byId.putIfAbsent(store.getStoreId(), store));
+    }
+
+    /**
+     * Evicts a store from the ID cache and every given email from the email cache.
+     *
+     * @param storeId the unique identifier of the store.
+     * @param emails  the store's email addresses, old and new; nulls are ignored.
+     */
+    public void evict(UUID storeId, String... emails) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(storeId, emails);
+                }
+            });
+        } else {
+            evictNow(storeId, emails);
+        }
+    }
+
+    /**
+     * Evicts stores from the ID cache and from the email cache under any email they were cached by,
+     * for changes made on another instance, whose previous emails are not known here.
+     * The email cache is scanned once, however many stores are given.
+     *
+     * @param storeIds the unique identifiers of the stores.
+     */
+    public void evictStores(Set<UUID> storeIds) {
+        if (storeIds.isEmpty()) {
+            return;
+        }
+        logger.debug("Evicting cached lookups for {} changed stores", storeIds.size());
+        Cache byId = cache(CacheConfig.STORES_BY_ID);
+        storeIds.forEach(byId::evict);
+        Cache byEmail = cache(CacheConfig.STORES_BY_EMAIL);
+        if (byEmail.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> emails) {
+            emails.asMap().values().removeIf(value -> value instanceof Store store
+                    && storeIds.contains(store.getStoreId()));
+        } else {
+            byEmail.clear();
+        }
+    }
+
+    /**
+     * Evicts every cached store lookup, for writes that bypass the service layer.
+     */
+    public void evictAll() {
+        logger.info("Evicting all cached store lookups");
+        cache(CacheConfig.STORES_BY_ID).clear();
+        cache(CacheConfig.STORES_BY_EMAIL).clear();
+    }
+
+    private void evictNow(UUID storeId, String... emails) {
+        logger.debug("Evicting cached lookups for store ID {}", storeId);
+        cache(CacheConfig.STORES_BY_ID).evict(storeId);
+        Cache byEmail = cache(CacheConfig.STORES_BY_EMAIL);
+        Stream.of(emails).filter(Objects::nonNull).distinct().forEach(byEmail::evict);
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), () -> "Cache " + name + " is not configured");
+    }
+}
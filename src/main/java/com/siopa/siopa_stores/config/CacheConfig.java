@@ -0,0 +1,46 @@
+package com.siopa.siopa_stores.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cache configuration for store lookups.
+ * Both caches are bounded in size and entries expire after a fixed time; hit, miss and eviction
+ * statistics are recorded and published by actuator under the {@code cache.*} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Cache of stores keyed by store ID. */
+    public static final String STORES_BY_ID = "storesById";
+
+    /** Cache of stores keyed by email address. */
+    public static final String STORES_BY_EMAIL = "storesByEmail";
+
+    /**
+     * Creates the Caffeine-backed cache manager holding the store caches.
+     *
+     * @param maximumSize the maximum number of entries held by each cache.
+     * @param ttl         how long an entry is kept after it is written.
+     * @return A configured {@link CacheManager}.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${stores.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${stores.cache.ttl:10m}") Duration ttl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(STORES_BY_ID, STORES_BY_EMAIL);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
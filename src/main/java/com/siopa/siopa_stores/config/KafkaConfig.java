@@ -1,53 +1,231 @@
 package com.siopa.siopa_stores.config;
 
+import com.siopa.siopa_stores.exceptions.InvalidRequestException;
 import com.siopa.siopa_stores.kafka.OwnerRoleUpdateEvent;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.CommonLoggingErrorHandler;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.ExponentialBackOff;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
- * Kafka configuration for consuming messages related to owner role updates.
- * This class sets up the Kafka consumer factory and listener container.
+ * Kafka configuration for consuming messages related to owner role updates and producing store events.
+ * This class sets up the Kafka consumer factories and listener containers, for role updates and for store changes
+ * made on other instances, and the topics this service publishes to.
+ * Events are produced through Spring Boot's auto-configured producer factory and template, tuned with the
+ * {@code spring.kafka.producer.*} properties; every client connects to {@code spring.kafka.bootstrap-servers}.
  */
 @Configuration
 public class KafkaConfig {
 
+    /** Suffix of the dead-letter topic a listened topic's rejected messages are published to. */
+    public static final String DEAD_LETTER_SUFFIX = ".DLT";
+
     /**
      * Creates and configures a Kafka consumer factory for handling messages of type {@link OwnerRoleUpdateEvent}.
-     * The consumer is set up to deserialize messages from JSON format.
+     * The consumer is set up to deserialize messages from JSON format. Messages that cannot be deserialized are
+     * handed to the listener as null values instead of failing the whole poll, so they can be dead-lettered.
      *
+     * @param kafkaProperties the {@code spring.kafka.*} settings, giving the brokers to connect to.
+     * @param sslBundles      the SSL bundles the Kafka settings may refer to.
+     * @param groupId         the consumer group of this service.
+     * @param maxPollRecords  the maximum number of records returned by one poll, and so the largest batch.
      * @return A configured {@link ConsumerFactory} instance for consuming {@link OwnerRoleUpdateEvent} messages.
      */
     @Bean
-    public ConsumerFactory<String, OwnerRoleUpdateEvent> consumerFactory() {
-        Map<String, Object> config = new HashMap<>();
-        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:29092");
-        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class.getName());
-        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*"); // Allows deserialization of OwnerRoleUpdateEvent class
+    public ConsumerFactory<String, OwnerRoleUpdateEvent> consumerFactory(
+            KafkaProperties kafkaProperties, SslBundles sslBundles,
+            @Value("${stores.kafka.consumer.group-id:siopa-stores}") String groupId,
+            @Value("${stores.kafka.consumer.max-poll-records:500}") int maxPollRecords) {
+        Map<String, Object> config = new HashMap<>(kafkaProperties.buildConsumerProperties(sslBundles));
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
 
+        // The deserializers are configured by setters only: JsonDeserializer rejects a mix of setters and
+        // configuration properties. Type headers from the producing service name its own classes, so they are
+        // ignored and every value is read as the target type, which needs no trusted packages.
+        JsonDeserializer<OwnerRoleUpdateEvent> valueDeserializer = new JsonDeserializer<>(OwnerRoleUpdateEvent.class)
+                .ignoreTypeHeaders();
         return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
-                new JsonDeserializer<>(OwnerRoleUpdateEvent.class));
+                new ErrorHandlingDeserializer<>(valueDeserializer));
+    }
+
+    /**
+     * Creates the admin client that declares the topics this service publishes to.
+     *
+     * @param kafkaProperties the {@code spring.kafka.*} settings, giving the brokers to connect to.
+     * @param sslBundles      the SSL bundles the Kafka settings may refer to.
+     * @param createTopics    whether missing topics are created on startup.
+     * @return A configured {@link KafkaAdmin}.
+     */
+    @Bean
+    public KafkaAdmin kafkaAdmin(KafkaProperties kafkaProperties, SslBundles sslBundles,
+                                 @Value("${stores.kafka.create-topics:true}") boolean createTopics) {
+        KafkaAdmin admin = new KafkaAdmin(kafkaProperties.buildAdminProperties(sslBundles));
+        admin.setAutoCreate(createTopics);
+        return admin;
+    }
+
+    /**
+     * Declares the compacted topic store changes are published to. Compaction keeps at least the latest event
+     * of every store, so a new consumer can rebuild a full replica from the topic alone.
+     *
+     * @param partitions the number of partitions.
+     * @param replicas   the replication factor.
+     * @return the topic definition.
+     */
+    @Bean
+    public NewTopic storeChangesTopic(@Value("${stores.kafka.store-changes.partitions:6}") int partitions,
+                                      @Value("${stores.kafka.store-changes.replicas:1}") short replicas) {
+        return TopicBuilder.name(StoreChangedEvent.TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                .build();
+    }
+
+    /**
+     * Declares the dead-letter topic that rejected role change messages are published to.
+     *
+     * @param topic    the role changes topic.
+     * @param replicas the replication factor.
+     * @return the topic definition.
+     */
+    @Bean
+    public NewTopic roleChangesDeadLetterTopic(@Value("${stores.kafka.role-changes.topic:user-role-changes}") String topic,
+                                               @Value("${stores.kafka.store-changes.replicas:1}") short replicas) {
+        return TopicBuilder.name(topic + DEAD_LETTER_SUFFIX)
+                .partitions(1)
+                .replicas(replicas)
+                .build();
     }
 
     /**
      * Creates and configures a Kafka listener container factory for handling messages of type {@link OwnerRoleUpdateEvent}.
-     * This factory is used by Kafka listeners to consume and process messages.
+     * This factory is used by Kafka listeners to consume and process messages, a whole poll at a time.
+     * Failures are handled by {@link #roleChangesErrorHandler}: a message that can never succeed is published to
+     * {@code <topic>.DLT} and the rest of its batch is redelivered, and any other failure is retried until it succeeds.
      *
+     * @param consumerFactory  the consumer factory.
+     * @param producerFactory  the producer factory dead letters are published through.
+     * @param kafkaTemplate    the template dead letters with a readable value are published through.
+     * @param concurrency      the number of consumers, each handling its share of the partitions.
+     * @param retryInterval    the time before the first retry of a failed batch.
+     * @param maxRetryInterval the longest time between retries, reached as the interval doubles.
      * @return A configured {@link ConcurrentKafkaListenerContainerFactory} for consuming {@link OwnerRoleUpdateEvent} messages.
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, OwnerRoleUpdateEvent> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, OwnerRoleUpdateEvent> kafkaListenerContainerFactory(
+            ConsumerFactory<String, OwnerRoleUpdateEvent> consumerFactory,
+            ProducerFactory<String, Object> producerFactory,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${stores.kafka.consumer.concurrency:3}") int concurrency,
+            @Value("${stores.kafka.consumer.retry-interval:1s}") Duration retryInterval,
+            @Value("${stores.kafka.consumer.max-retry-interval:1m}") Duration maxRetryInterval) {
+        // Messages that could not be deserialized are dead-lettered as their original bytes.
+        KafkaTemplate<String, Object> bytesTemplate = new KafkaTemplate<>(producerFactory.copyWithConfigurationOverride(
+                Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class)));
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        templates.put(byte[].class, bytesTemplate);
+        templates.put(Object.class, kafkaTemplate);
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(templates,
+                (record, e) -> new TopicPartition(record.topic() + DEAD_LETTER_SUFFIX, -1));
+
         ConcurrentKafkaListenerContainerFactory<String, OwnerRoleUpdateEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.setCommonErrorHandler(roleChangesErrorHandler(recoverer, retryInterval, maxRetryInterval));
+        return factory;
+    }
+
+    /**
+     * Creates the error handler of the role change listener.
+     * A message that can never succeed, because it cannot be deserialized or the listener rejects it as invalid,
+     * is recovered straight away. Any other failure, such as the database being unavailable while owners are revoked,
+     * is retried with exponential back-off and no limit on the number of attempts, so a batch of valid role changes
+     * is applied once the outage ends instead of being dead-lettered.
+     *
+     * @param recoverer        publishes the messages that can never succeed.
+     * @param retryInterval    the time before the first retry.
+     * @param maxRetryInterval the longest time between retries.
+     * @return the error handler.
+     */
+    static DefaultErrorHandler roleChangesErrorHandler(ConsumerRecordRecoverer recoverer, Duration retryInterval,
+                                                       Duration maxRetryInterval) {
+        ExponentialBackOff backOff = new ExponentialBackOff(retryInterval.toMillis(), 2);
+        backOff.setMaxInterval(maxRetryInterval.toMillis());
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
+        errorHandler.addNotRetryableExceptions(InvalidRequestException.class);
+        return errorHandler;
+    }
+
+    /**
+     * Creates the consumer factory reading the {@code store-changes} topic back, to keep this instance's in-memory
+     * indexes in step with changes made on other instances. Each instance joins a consumer group of its own, which
+     * keeps its name across restarts, so every instance reads every change and a restart resumes from the committed
+     * offsets. A group reading for the first time starts from the latest offset, since the indexes load earlier
+     * changes from the database. Tombstones and unreadable values are handed to the listener as null values.
+     *
+     * @param kafkaProperties the {@code spring.kafka.*} settings, giving the brokers to connect to.
+     * @param sslBundles      the SSL bundles the Kafka settings may refer to.
+     * @return A configured {@link ConsumerFactory} instance for consuming {@link StoreChangedEvent} messages.
+     */
+    @Bean
+    public ConsumerFactory<String, StoreChangedEvent> storeChangesConsumerFactory(KafkaProperties kafkaProperties,
+                                                                                  SslBundles sslBundles) {
+        Map<String, Object> config = new HashMap<>(kafkaProperties.buildConsumerProperties(sslBundles));
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        JsonDeserializer<StoreChangedEvent> valueDeserializer = new JsonDeserializer<>(StoreChangedEvent.class)
+                .ignoreTypeHeaders();
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(valueDeserializer));
+    }
+
+    /**
+     * Creates the listener container factory for the {@code store-changes} topic, delivering a whole poll at a time
+     * to a single consumer. A batch that fails is logged and skipped rather than retried: the indexes it feeds
+     * are reloaded from the database periodically, which repairs any change they missed.
+     *
+     * @param storeChangesConsumerFactory the consumer factory.
+     * @return A configured {@link ConcurrentKafkaListenerContainerFactory} for consuming {@link StoreChangedEvent} messages.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, StoreChangedEvent> storeChangesListenerContainerFactory(
+            ConsumerFactory<String, StoreChangedEvent> storeChangesConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, StoreChangedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(storeChangesConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(new CommonLoggingErrorHandler());
         return factory;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package com.siopa.siopa_stores.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Configuration for the reactive store endpoints.
+ */
+@Configuration
+public class ReactiveConfig {
+
+    /**
+     * Creates the scheduler that the blocking database work of the reactive endpoints runs on.
+     * Its threads are capped to match the connection pool, and work beyond the queue is rejected,
+     * so a burst of requests waits here, holding neither request threads nor connections.
+     *
+     * @param threads   the maximum number of threads, normally the connection pool size.
+     * @param queueSize the maximum number of lookups waiting for a thread.
+     * @return A bounded elastic {@link Scheduler}.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler storeLookupScheduler(@Value("${stores.reactive.threads:10}") int threads,
+                                          @Value("${stores.reactive.queue-size:10000}") int queueSize) {
+        return Schedulers.newBoundedElastic(threads, queueSize, "store-lookup");
+    }
+}
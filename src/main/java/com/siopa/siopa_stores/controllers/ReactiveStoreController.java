@@ -0,0 +1,93 @@
+package com.siopa.siopa_stores.controllers;
+
+import com.siopa.siopa_stores.exceptions.InvalidRequestException;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.requests.LocationRequest;
+import com.siopa.siopa_stores.responses.NearbyStore;
+import com.siopa.siopa_stores.service.ReactiveStoreService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Controller class serving the read-only store lookups as a thread-pool offload: the request thread is released
+ * while a lookup runs, but the lookup itself is the same blocking JPA query as on {@link StoreController}, run on
+ * the capped {@code storeLookupScheduler} pool. At most {@code stores.reactive.threads} lookups run at once, and
+ * when {@code stores.reactive.queue-size} more are already waiting, requests are refused with
+ * 503 Service Unavailable.
+ * Responses are written when the lookup completes; list endpoints stream newline-delimited JSON instead of
+ * a JSON array when the client accepts {@code application/x-ndjson}.
+ */
+@RestController
+@RequestMapping("/api/reactive/stores")
+@RequiredArgsConstructor
+public class ReactiveStoreController {
+
+    private final ReactiveStoreService reactiveStoreService;
+
+    /**
+     * Retrieves a store by its unique identifier.
+     *
+     * @param id the unique identifier of the store.
+     * @return a Mono of a ResponseEntity containing the store if found, otherwise a 404 Not Found response.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Store>> getStoreById(@PathVariable UUID id) {
+        return reactiveStoreService.getStoreById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retrieves the stores owned by a specific owner.
+     *
+     * @param ownerId the unique identifier of the owner.
+     * @return a Flux of the owner's stores.
+     */
+    @GetMapping("/owner/{ownerId}")
+    public Flux<Store> getStoresByOwner(@PathVariable UUID ownerId) {
+        return reactiveStoreService.getStoresByOwner(ownerId);
+    }
+
+    /**
+     * Finds stores near a location, nearest first.
+     * Unlike {@link StoreController#getNearbyStores}, which answers 404 Not Found, an area without stores is
+     * answered with 200 OK and an empty list or stream, as the response may be streamed.
+     *
+     * @param locationRequest the location, and optionally the radius and limit, of the search.
+     * @return a Flux of the stores with their distances; empty if there are no stores in the area.
+     */
+    @PostMapping("/nearby")
+    public Flux<NearbyStore<Store>> getNearbyStores(@RequestBody LocationRequest locationRequest) {
+        return reactiveStoreService.findStoresByLatLng(locationRequest);
+    }
+
+    /**
+     * Handles invalid requests. Other exceptions, including other {@link IllegalArgumentException}s,
+     * are left to the default handling, without their messages.
+     *
+     * @param e the exception describing what is wrong with the request.
+     * @return a 400 Bad Request response with the exception message.
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<String> handleInvalidRequest(InvalidRequestException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /**
+     * Handles lookups refused because the lookup queue is full.
+     *
+     * @param e the exception raised by the scheduler.
+     * @return a 503 Service Unavailable response.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejectedExecution(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Too many lookups in progress, please retry");
+    }
+}
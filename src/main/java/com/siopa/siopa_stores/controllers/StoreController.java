@@ -1,13 +1,27 @@
 package com.siopa.siopa_stores.controllers;
 
+import com.siopa.siopa_stores.exceptions.InvalidRequestException;
 import com.siopa.siopa_stores.models.Store;
 import com.siopa.siopa_stores.requests.LocationRequest;
+import com.siopa.siopa_stores.responses.BatchItemResult;
+import com.siopa.siopa_stores.responses.ImportResult;
+import com.siopa.siopa_stores.responses.NearbyStore;
+import com.siopa.siopa_stores.responses.StoreLookup;
+import com.siopa.siopa_stores.responses.StorePage;
+import com.siopa.siopa_stores.service.StoreBatchService;
+import com.siopa.siopa_stores.service.StoreExportService;
+import com.siopa.siopa_stores.service.StoreImportService;
 import com.siopa.siopa_stores.service.StoreService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,15 +34,122 @@ import java.util.UUID;
 public class StoreController {
 
     private final StoreService storeService;
+    private final StoreExportService storeExportService;
+    private final StoreBatchService storeBatchService;
+    private final StoreImportService storeImportService;
+
+    /** Response header carrying the cursor of the next page of a store listing. */
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /** View returning full stores. */
+    private static final String VIEW_FULL = "full";
+
+    /** View returning store summaries. */
+    private static final String VIEW_SUMMARY = "summary";
 
     /**
-     * Retrieves all stores.
+     * Retrieves a page of stores, ordered by store ID.
+     * When more stores follow, the response carries their cursor in the {@code X-Next-Cursor} header,
+     * to be passed back as {@code after}.
      *
-     * @return a ResponseEntity containing a list of all stores.
+     * @param after the cursor of the page to retrieve, or absent for the first page.
+     * @param limit the maximum number of stores to return.
+     * @param view  {@code full} (the default) for full stores, or {@code summary} for store summaries.
+     * @return a ResponseEntity containing the page of stores.
      */
     @GetMapping
-    public ResponseEntity<List<Store>> getAllStores() {
-        return ResponseEntity.ok(storeService.getAllStores());
+    public ResponseEntity<? extends List<?>> getAllStores(@RequestParam(required = false) UUID after,
+                                                          @RequestParam(defaultValue = "100") int limit,
+                                                          @RequestParam(defaultValue = VIEW_FULL) String view) {
+        return isSummaryView(view)
+                ? toResponse(storeService.getAllStoreSummaries(after, limit))
+                : toResponse(storeService.getAllStores(after, limit));
+    }
+
+    /**
+     * Retrieves many stores by their unique identifiers in one request, e.g. {@code ?ids=a,b,c}.
+     *
+     * @param ids the unique identifiers of the stores.
+     * @return a ResponseEntity containing one lookup per ID, in request order, marking IDs with no store.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<StoreLookup>> getStoresByIds(@RequestParam List<UUID> ids) {
+        return ResponseEntity.ok(storeService.getStoresByIds(ids));
+    }
+
+    /**
+     * Retrieves many stores by their unique identifiers, given in the request body.
+     * Equivalent to {@code GET /api/stores?ids=...}, for lists too long for a URL.
+     *
+     * @param ids the unique identifiers of the stores.
+     * @return a ResponseEntity containing one lookup per ID, in request order, marking IDs with no store.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<List<StoreLookup>> lookupStores(@RequestBody List<UUID> ids) {
+        return ResponseEntity.ok(storeService.getStoresByIds(ids));
+    }
+
+    /**
+     * Retrieves a page of active stores, ordered by store ID.
+     * When more stores follow, the response carries their cursor in the {@code X-Next-Cursor} header,
+     * to be passed back as {@code after}.
+     *
+     * @param after the cursor of the page to retrieve, or absent for the first page.
+     * @param limit the maximum number of stores to return.
+     * @param view  {@code full} (the default) for full stores, or {@code summary} for store summaries.
+     * @return a ResponseEntity containing the page of active stores.
+     */
+    @GetMapping("/active")
+    public ResponseEntity<? extends List<?>> getActiveStores(@RequestParam(required = false) UUID after,
+                                                             @RequestParam(defaultValue = "100") int limit,
+                                                             @RequestParam(defaultValue = VIEW_FULL) String view) {
+        return isSummaryView(view)
+                ? toResponse(storeService.getActiveStoreSummaries(after, limit))
+                : toResponse(storeService.getActiveStores(after, limit));
+    }
+
+    /**
+     * Streams the whole store catalog, one store per line, as newline-delimited JSON or CSV.
+     * Stores are written as they are read from the database, so the first bytes are sent immediately.
+     *
+     * @param format {@code ndjson} (the default) or {@code csv}.
+     * @return a ResponseEntity streaming the catalog.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStores(@RequestParam(defaultValue = "ndjson") String format) {
+        if ("csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv"))
+                    .body(storeExportService::exportCsv);
+        }
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(storeExportService::exportNdjson);
+        }
+        throw new InvalidRequestException("Unsupported export format: " + format);
+    }
+
+    /**
+     * Imports a store catalog from the request body, as CSV or newline-delimited JSON in the export layout.
+     * Intended for initial loads: stores are copied straight into the database, and the import either
+     * completes or imports nothing.
+     *
+     * @param format {@code ndjson} (the default) or {@code csv}.
+     * @param body   the catalog to import.
+     * @return a ResponseEntity containing the number of stores imported and skipped.
+     * @throws IOException if reading the request body fails.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ImportResult> importStores(@RequestParam(defaultValue = "ndjson") String format,
+                                                     InputStream body) throws IOException {
+        if ("csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok(storeImportService.importCsv(body));
+        }
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok(storeImportService.importNdjson(body));
+        }
+        throw new InvalidRequestException("Unsupported import format: " + format);
     }
 
     /**
@@ -68,8 +189,33 @@ public class StoreController {
         return ResponseEntity.ok(storeService.createStore(store));
     }
 
+    /**
+     * Creates many stores in one request. Every store is validated first; valid stores are saved in chunks.
+     *
+     * @param stores the stores to be created.
+     * @return a ResponseEntity containing one result per store, in request order.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> createStores(@RequestBody List<Store> stores) {
+        return ResponseEntity.ok(storeBatchService.createStores(stores));
+    }
+
+    /**
+     * Updates many existing stores in one request, each identified by its store ID.
+     * Every store is validated first; valid stores are saved in chunks.
+     *
+     * @param stores the stores containing updated information.
+     * @return a ResponseEntity containing one result per store, in request order.
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> updateStores(@RequestBody List<Store> stores) {
+        return ResponseEntity.ok(storeBatchService.updateStores(stores));
+    }
+
     /**
      * Updates an existing store with the given identifier.
+     * If the store carries the version it was read with, an update based on an older version is rejected with
+     * 409 Conflict; without a version the update is applied to the current store.
      *
      * @param id the unique identifier of the store to be updated.
      * @param updatedStore the store object containing updated information.
@@ -120,22 +266,31 @@ public class StoreController {
      * Retrieves stores associated with a specific owner.
      *
      * @param ownerId the unique identifier of the owner.
+     * @param view    {@code full} (the default) for full stores, or {@code summary} for store summaries.
      * @return a ResponseEntity containing a list of stores owned by the specified owner.
      */
     @GetMapping("/owner/{ownerId}")
-    public ResponseEntity<List<Store>> getStoresByOwner(@PathVariable UUID ownerId) {
-        return ResponseEntity.ok(storeService.getStoresByOwner(ownerId));
+    public ResponseEntity<? extends List<?>> getStoresByOwner(@PathVariable UUID ownerId,
+                                                              @RequestParam(defaultValue = VIEW_FULL) String view) {
+        return isSummaryView(view)
+                ? ResponseEntity.ok(storeService.getStoreSummariesByOwner(ownerId))
+                : ResponseEntity.ok(storeService.getStoresByOwner(ownerId));
     }
 
     /**
-     * Finds stores near a given location.
+     * Finds stores near a given location, nearest first.
      *
-     * @param locationRequest the location request object containing latitude and longitude.
-     * @return a ResponseEntity containing a list of nearby stores if found, otherwise a 404 Not Found response with a message.
+     * @param locationRequest the location request object containing latitude, longitude and optional radius and limit.
+     * @param view            {@code full} (the default) for full stores, or {@code summary} for store summaries.
+     * @return a ResponseEntity containing a list of nearby stores with their distances if found,
+     * otherwise a 404 Not Found response with a message.
      */
     @PostMapping("/nearby")
-    public ResponseEntity<?> getNearbyStores(@RequestBody LocationRequest locationRequest) {
-        List<Store> stores = storeService.findStoresByLatLng(locationRequest);
+    public ResponseEntity<?> getNearbyStores(@RequestBody LocationRequest locationRequest,
+                                             @RequestParam(defaultValue = VIEW_FULL) String view) {
+        List<? extends NearbyStore<?>> stores = isSummaryView(view)
+                ? storeService.findStoreSummariesByLatLng(locationRequest)
+                : storeService.findStoresByLatLng(locationRequest);
 
         if (stores.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Sorry, there are no stores in your area.");
@@ -143,4 +298,65 @@ public class StoreController {
 
         return ResponseEntity.ok(stores);
     }
+
+    /**
+     * Finds stores near each of many locations in one request, nearest first for each location.
+     * Locations without a limit return at most 50 stores, and the limits together may not exceed 50,000 stores.
+     *
+     * @param locationRequests the locations, each with its optional radius and limit.
+     * @param view             {@code full} (the default) for full stores, or {@code summary} for store summaries.
+     * @return a ResponseEntity containing one result per location, in request order;
+     * locations without nearby stores have an empty list.
+     */
+    @PostMapping("/nearby/batch")
+    public ResponseEntity<? extends List<?>> getNearbyStoresBatch(@RequestBody List<LocationRequest> locationRequests,
+                                                                  @RequestParam(defaultValue = VIEW_FULL) String view) {
+        return isSummaryView(view)
+                ? ResponseEntity.ok(storeService.findStoreSummariesByLatLngBatch(locationRequests))
+                : ResponseEntity.ok(storeService.findStoresByLatLngBatch(locationRequests));
+    }
+
+    private <T> ResponseEntity<List<T>> toResponse(StorePage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor().toString());
+        }
+        return response.body(page.getStores());
+    }
+
+    /**
+     * Tells whether a {@code view} parameter asks for store summaries rather than full stores.
+     */
+    private static boolean isSummaryView(String view) {
+        if (VIEW_SUMMARY.equalsIgnoreCase(view)) {
+            return true;
+        }
+        if (VIEW_FULL.equalsIgnoreCase(view)) {
+            return false;
+        }
+        throw new InvalidRequestException("Unsupported view: " + view);
+    }
+
+    /**
+     * Handles invalid requests. Other exceptions, including other {@link IllegalArgumentException}s,
+     * are left to the default handling, without their messages.
+     *
+     * @param e the exception describing what is wrong with the request.
+     * @return a 400 Bad Request response with the exception message.
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<String> handleInvalidRequest(InvalidRequestException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /**
+     * Handles updates that lost a race with a concurrent change to the same store.
+     *
+     * @param e the exception raised by the version check.
+     * @return a 409 Conflict response; the client should reload the store and retry.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Store was modified concurrently, please retry");
+    }
 }
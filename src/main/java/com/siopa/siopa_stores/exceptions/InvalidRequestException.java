@@ -0,0 +1,28 @@
+package com.siopa.siopa_stores.exceptions;
+
+/**
+ * Thrown when a client request is invalid, such as a parameter out of range or a malformed upload.
+ * The controllers answer it with 400 Bad Request and its message, so the message must be safe to show to clients.
+ * Other {@link IllegalArgumentException}s are treated as server errors.
+ */
+public class InvalidRequestException extends IllegalArgumentException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message what is wrong with the request.
+     */
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates the exception for an invalid request detected through another exception.
+     *
+     * @param message what is wrong with the request.
+     * @param cause   the exception that revealed the problem.
+     */
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,26 @@
+package com.siopa.siopa_stores.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Latitude/longitude rectangle enclosing a search circle.
+ * When the box spans the antimeridian {@code minLongitude} is greater than {@code maxLongitude}.
+ */
+@Getter
+@AllArgsConstructor
+public class BoundingBox {
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+
+    /**
+     * Indicates whether the box wraps around the 180th meridian.
+     *
+     * @return true if the longitude range wraps, otherwise false.
+     */
+    public boolean crossesAntimeridian() {
+        return minLongitude > maxLongitude;
+    }
+}
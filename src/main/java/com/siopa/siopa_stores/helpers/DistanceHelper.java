@@ -2,11 +2,23 @@ package com.siopa.siopa_stores.helpers;
 
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+
 /**
  * Helper class for calculating distance between 2 points.
  */
 @Service
 public class DistanceHelper {
+
+    /** Earth's radius (6371 km) in miles. */
+    public static final double EARTH_RADIUS_MILES = 6371 * 1000 * 0.000621371192;
+
+    /**
+     * Relative band around the radius within which the squared-chord test is not trusted and haversine decides.
+     * Far wider than the rounding error of either calculation.
+     */
+    private static final double BOUNDARY_TOLERANCE = 1e-9;
+
     /**
      * The Haversine method is used to calculate the distance between 2 points by providing their respective latitude and longitude.
      * The output is measured in miles.
@@ -18,18 +30,178 @@ public class DistanceHelper {
      */
     public double distanceCalculation(double lat1, double lat2, double lon1,
                                       double lon2) {
-        final int R = 6371; // Earths radius.
-
         double latDistance = Math.toRadians(lat2 - lat1); //Convert angle measured in degrees to an approximately equivalent angle measured in radians.
         double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        double sinLat = Math.sin(latDistance / 2);
+        double sinLon = Math.sin(lonDistance / 2);
+        double a = sinLat * sinLat
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        double distance = (R * c * 1000) * 0.000621371192; //Calculates distance in miles.
 
-        distance = Math.pow(distance, 2);
+        return EARTH_RADIUS_MILES * c; //Calculates distance in miles.
+    }
+
+    /**
+     * Batch form of {@link #distanceCalculation} for one query point against a block of stores.
+     * The block holds coordinates in radians with the cosine of each latitude precomputed,
+     * so the loop does no conversions, no per-store work for the query point and no allocation.
+     *
+     * @param latitude  latitude of the query point in degrees.
+     * @param longitude longitude of the query point in degrees.
+     * @param points    the store coordinates.
+     * @param distances receives the distance in miles of each store; must hold at least {@code points.size()} values.
+     */
+    public void distanceCalculation(double latitude, double longitude, GeoPoints points, double[] distances) {
+        double queryLat = Math.toRadians(latitude);
+        double queryLon = Math.toRadians(longitude);
+        double cosQueryLat = Math.cos(queryLat);
+        double[] latitudesRad = points.latitudesRad;
+        double[] longitudesRad = points.longitudesRad;
+        double[] cosLatitudes = points.cosLatitudes;
+
+        for (int i = 0, size = points.size(); i < size; i++) {
+            distances[i] = haversine(queryLat, queryLon, cosQueryLat, latitudesRad[i], longitudesRad[i], cosLatitudes[i]);
+        }
+    }
+
+    /**
+     * Marks the stores strictly within a radius of the query point in a bitset, without computing their distances.
+     * Compares the haversine term against a threshold derived once from the radius, so no inverse trigonometry runs per store.
+     *
+     * @param latitude    latitude of the query point in degrees.
+     * @param longitude   longitude of the query point in degrees.
+     * @param radiusMiles search radius in miles.
+     * @param points      the store coordinates.
+     * @param matches     receives bit {@code i} set when store {@code i} is within the radius; must hold at least
+     *                    {@code (points.size() + 63) / 64} words and is cleared first.
+     * @return the number of matching stores.
+     */
+    public int withinRadius(double latitude, double longitude, double radiusMiles, GeoPoints points, long[] matches) {
+        double queryLat = Math.toRadians(latitude);
+        double queryLon = Math.toRadians(longitude);
+        double cosQueryLat = Math.cos(queryLat);
+        double sinHalfAngle = Math.sin(Math.min(radiusMiles / EARTH_RADIUS_MILES, Math.PI) * 0.5);
+        double threshold = sinHalfAngle * sinHalfAngle;
+        double[] latitudesRad = points.latitudesRad;
+        double[] longitudesRad = points.longitudesRad;
+        double[] cosLatitudes = points.cosLatitudes;
+        int size = points.size();
+
+        Arrays.fill(matches, 0, (size + 63) >>> 6, 0L);
+        int found = 0;
+        for (int i = 0; i < size; i++) {
+            double sinLat = Math.sin((latitudesRad[i] - queryLat) * 0.5);
+            double sinLon = Math.sin((longitudesRad[i] - queryLon) * 0.5);
+            double a = sinLat * sinLat + cosQueryLat * cosLatitudes[i] * sinLon * sinLon;
+            if (a < threshold) {
+                matches[i >>> 6] |= 1L << i;
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the stores strictly within a radius of the query point, with their distances, using a cheap
+     * squared-chord test. Each store's straight-line distance to the query point through the unit sphere is compared
+     * against the chord of the radius, which needs no trigonometry per store. Only stores whose chord falls within a
+     * small tolerance of the boundary are re-checked with {@link #distanceCalculation the batch haversine}, so the
+     * matches are exactly those the haversine path would return.
+     *
+     * @param latitude    latitude of the query point in degrees.
+     * @param longitude   longitude of the query point in degrees.
+     * @param radiusMiles search radius in miles.
+     * @param points      the store coordinates.
+     * @param matches     receives the positions of the matching stores; must hold at least {@code points.size()} values.
+     * @param distances   receives the distance in miles of each match, aligned with {@code matches}.
+     * @return the number of matching stores.
+     */
+    public int withinRadiusFast(double latitude, double longitude, double radiusMiles, GeoPoints points,
+                                int[] matches, double[] distances) {
+        double queryLat = Math.toRadians(latitude);
+        double queryLon = Math.toRadians(longitude);
+        double cosQueryLat = Math.cos(queryLat);
+        double queryX = cosQueryLat * Math.cos(queryLon);
+        double queryY = cosQueryLat * Math.sin(queryLon);
+        double queryZ = Math.sin(queryLat);
+
+        double chord = 2 * Math.sin(Math.min(radiusMiles / EARTH_RADIUS_MILES, Math.PI) * 0.5);
+        double threshold = chord * chord;
+        double tolerance = threshold * BOUNDARY_TOLERANCE + Math.ulp(4.0) * 8;
+        double clearlyInside = threshold - tolerance;
+        double clearlyOutside = threshold + tolerance;
+
+        double[] unitX = points.unitX;
+        double[] unitY = points.unitY;
+        double[] unitZ = points.unitZ;
+        int found = 0;
+        for (int i = 0, size = points.size(); i < size; i++) {
+            double dx = unitX[i] - queryX;
+            double dy = unitY[i] - queryY;
+            double dz = unitZ[i] - queryZ;
+            double chordSquared = dx * dx + dy * dy + dz * dz;
+            if (chordSquared >= clearlyOutside) {
+                continue;
+            }
+
+            double distance;
+            if (chordSquared > clearlyInside) {
+                distance = haversine(queryLat, queryLon, cosQueryLat,
+                        points.latitudesRad[i], points.longitudesRad[i], points.cosLatitudes[i]);
+                if (!(distance < radiusMiles)) {
+                    continue;
+                }
+            } else {
+                distance = 2 * EARTH_RADIUS_MILES * Math.asin(Math.min(1, Math.sqrt(chordSquared) * 0.5));
+            }
+            matches[found] = i;
+            distances[found] = distance;
+            found++;
+        }
+        return found;
+    }
+
+    private static double haversine(double queryLat, double queryLon, double cosQueryLat,
+                                    double latRad, double lonRad, double cosLat) {
+        double sinLat = Math.sin((latRad - queryLat) * 0.5);
+        double sinLon = Math.sin((lonRad - queryLon) * 0.5);
+        double a = sinLat * sinLat + cosQueryLat * cosLat * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_MILES * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Calculates the smallest latitude/longitude box containing every point within the given radius.
+     * Near the poles, or when the radius is large enough to wrap the globe, the full longitude range is returned.
+     *
+     * @param latitude     latitude of the centre point.
+     * @param longitude    longitude of the centre point.
+     * @param radiusMiles  search radius in miles.
+     * @return the enclosing {@link BoundingBox}.
+     */
+    public BoundingBox boundingBox(double latitude, double longitude, double radiusMiles) {
+        double angularRadius = radiusMiles / EARTH_RADIUS_MILES;
+        double latDelta = Math.toDegrees(angularRadius);
+        double minLat = latitude - latDelta;
+        double maxLat = latitude + latDelta;
+
+        if (minLat <= -90 || maxLat >= 90) {
+            return new BoundingBox(Math.max(minLat, -90), Math.min(maxLat, 90), -180, 180);
+        }
+
+        double ratio = Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude));
+        if (ratio >= 1) {
+            return new BoundingBox(minLat, maxLat, -180, 180);
+        }
 
-        return Math.sqrt(distance);
+        double lonDelta = Math.toDegrees(Math.asin(ratio));
+        double minLon = longitude - lonDelta;
+        double maxLon = longitude + lonDelta;
+        if (minLon < -180) {
+            minLon += 360;
+        }
+        if (maxLon > 180) {
+            maxLon -= 360;
+        }
+        return new BoundingBox(minLat, maxLat, minLon, maxLon);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,96 @@
+package com.siopa.siopa_stores.helpers;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size block of coordinates held as parallel primitive arrays, in the precomputed forms used by
+ * {@link DistanceHelper}'s batch methods: latitude and longitude in radians, the cosine of the latitude,
+ * and the point's position on the unit sphere.
+ */
+public class GeoPoints {
+
+    final double[] latitudesRad;
+    final double[] longitudesRad;
+    final double[] cosLatitudes;
+    final double[] unitX;
+    final double[] unitY;
+    final double[] unitZ;
+
+    /**
+     * Creates a block of the given size. Every point must be {@link #set} before the block is used.
+     *
+     * @param size the number of points.
+     */
+    public GeoPoints(int size) {
+        this(new double[size], new double[size], new double[size], new double[size], new double[size], new double[size]);
+    }
+
+    private GeoPoints(double[] latitudesRad, double[] longitudesRad, double[] cosLatitudes,
+                      double[] unitX, double[] unitY, double[] unitZ) {
+        this.latitudesRad = latitudesRad;
+        this.longitudesRad = longitudesRad;
+        this.cosLatitudes = cosLatitudes;
+        this.unitX = unitX;
+        this.unitY = unitY;
+        this.unitZ = unitZ;
+    }
+
+    /**
+     * Sets a point from coordinates in degrees.
+     *
+     * @param index     the position of the point.
+     * @param latitude  latitude in degrees.
+     * @param longitude longitude in degrees.
+     */
+    public void set(int index, double latitude, double longitude) {
+        double latRad = Math.toRadians(latitude);
+        double lonRad = Math.toRadians(longitude);
+        double cosLat = Math.cos(latRad);
+        latitudesRad[index] = latRad;
+        longitudesRad[index] = lonRad;
+        cosLatitudes[index] = cosLat;
+        unitX[index] = cosLat * Math.cos(lonRad);
+        unitY[index] = cosLat * Math.sin(lonRad);
+        unitZ[index] = Math.sin(latRad);
+    }
+
+    /**
+     * Returns the number of points in the block.
+     *
+     * @return the size.
+     */
+    public int size() {
+        return latitudesRad.length;
+    }
+
+    /**
+     * Returns a copy of this block resized to {@code size} points; added points are left unset.
+     *
+     * @param size the size of the copy.
+     * @return the resized copy.
+     */
+    public GeoPoints copyOf(int size) {
+        return new GeoPoints(Arrays.copyOf(latitudesRad, size), Arrays.copyOf(longitudesRad, size),
+                Arrays.copyOf(cosLatitudes, size), Arrays.copyOf(unitX, size),
+                Arrays.copyOf(unitY, size), Arrays.copyOf(unitZ, size));
+    }
+
+    /**
+     * Returns a copy of this block with the point at {@code index} removed.
+     *
+     * @param index the position of the point to remove.
+     * @return the smaller copy.
+     */
+    public GeoPoints without(int index) {
+        return new GeoPoints(without(latitudesRad, index), without(longitudesRad, index),
+                without(cosLatitudes, index), without(unitX, index),
+                without(unitY, index), without(unitZ, index));
+    }
+
+    private static double[] without(double[] source, int index) {
+        double[] target = new double[source.length - 1];
+        System.arraycopy(source, 0, target, 0, index);
+        System.arraycopy(source, index + 1, target, index, target.length - index);
+        return target;
+    }
+}
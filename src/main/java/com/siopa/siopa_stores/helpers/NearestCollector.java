@@ -0,0 +1,77 @@
+package com.siopa.siopa_stores.helpers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Collects candidates and returns them nearest-first.
+ * When a limit is given only the nearest {@code limit} candidates are kept in a bounded max-heap,
+ * so the full candidate set is never sorted.
+ *
+ * @param <T> the candidate type.
+ */
+public class NearestCollector<T> {
+
+    private final Integer limit;
+    private final ToDoubleFunction<T> distanceOf;
+    private final Comparator<T> nearestFirst;
+    private final PriorityQueue<T> nearest;
+    private final List<T> all;
+
+    /**
+     * Creates a collector.
+     *
+     * @param limit      the maximum number of candidates to keep, or null to keep all of them.
+     * @param distanceOf extracts the distance of a candidate.
+     */
+    public NearestCollector(Integer limit, ToDoubleFunction<T> distanceOf) {
+        this.limit = limit;
+        this.distanceOf = distanceOf;
+        this.nearestFirst = Comparator.comparingDouble(distanceOf);
+        this.nearest = limit == null ? null : new PriorityQueue<>(limit, nearestFirst.reversed());
+        this.all = limit == null ? new ArrayList<>() : null;
+    }
+
+    /**
+     * Indicates whether a candidate at the given distance would currently be kept.
+     * Lets callers skip building candidates that would be discarded straight away.
+     *
+     * @param distance the candidate's distance.
+     * @return true if the candidate would be kept.
+     */
+    public boolean accepts(double distance) {
+        return limit == null || nearest.size() < limit || distance < distanceOf.applyAsDouble(nearest.peek());
+    }
+
+    /**
+     * Offers a candidate to the collector.
+     *
+     * @param candidate the candidate.
+     */
+    public void add(T candidate) {
+        if (limit == null) {
+            all.add(candidate);
+            return;
+        }
+        if (nearest.size() < limit) {
+            nearest.add(candidate);
+        } else if (distanceOf.applyAsDouble(candidate) < distanceOf.applyAsDouble(nearest.peek())) {
+            nearest.poll();
+            nearest.add(candidate);
+        }
+    }
+
+    /**
+     * Returns the kept candidates ordered by increasing distance.
+     *
+     * @return the sorted candidates.
+     */
+    public List<T> toSortedList() {
+        List<T> sorted = new ArrayList<>(limit == null ? all : nearest);
+        sorted.sort(nearestFirst);
+        return sorted;
+    }
+}
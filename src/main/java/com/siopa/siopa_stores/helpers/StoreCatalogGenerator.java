@@ -0,0 +1,232 @@
+package com.siopa.siopa_stores.helpers;
+
+import com.siopa.siopa_stores.models.Store;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Generates a synthetic store catalog for load tests and benchmarks.
+ * Stores cluster around the cities of Great Britain and Ireland in proportion to their size, with a scattering
+ * of rural stores between them. Owners are drawn from a shared pool with a Zipf-like spread, so a few chains own
+ * many stores and most owners own one or two. The same seed and size always produce the same catalog, including
+ * store and owner IDs.
+ */
+public final class StoreCatalogGenerator implements Iterator<Store> {
+
+    /** Bounds of the catalog area, roughly Great Britain and Ireland. */
+    public static final double MIN_LATITUDE = 50.0;
+    public static final double MAX_LATITUDE = 58.5;
+    public static final double MIN_LONGITUDE = -10.0;
+    public static final double MAX_LONGITUDE = 1.8;
+
+    /** Share of stores placed anywhere in the catalog area rather than around a city. */
+    private static final double RURAL_SHARE = 0.08;
+
+    /** Exponent of the owner popularity distribution; higher values concentrate stores on fewer owners. */
+    private static final double OWNER_SKEW = 1.2;
+
+    /** Stores per owner on average, which sizes the owner pool. */
+    private static final int STORES_PER_OWNER = 3;
+
+    private static final City[] CITIES = {
+            new City("London", "London", 51.507, -0.128, 30),
+            new City("Dublin", "Leinster", 53.349, -6.260, 14),
+            new City("Manchester", "North West", 53.481, -2.243, 10),
+            new City("Birmingham", "West Midlands", 52.486, -1.890, 10),
+            new City("Belfast", "Ulster", 54.597, -5.930, 8),
+            new City("Glasgow", "Scotland", 55.864, -4.252, 7),
+            new City("Leeds", "Yorkshire", 53.801, -1.549, 7),
+            new City("Liverpool", "North West", 53.408, -2.991, 6),
+            new City("Cork", "Munster", 51.898, -8.471, 5),
+            new City("Edinburgh", "Scotland", 55.953, -3.189, 5),
+            new City("Bristol", "South West", 51.455, -2.588, 5),
+            new City("Cardiff", "Wales", 51.481, -3.179, 4),
+            new City("Newcastle", "North East", 54.978, -1.618, 4),
+            new City("Galway", "Connacht", 53.271, -9.057, 3),
+            new City("Limerick", "Munster", 52.668, -8.630, 3),
+            new City("Derry", "Ulster", 54.997, -7.309, 2),
+    };
+
+    private static final String[] STORE_TYPES = {
+            "Convenience", "Grocery", "Pharmacy", "Off Licence", "Bakery", "Butcher", "Greengrocer", "Deli"};
+    private static final int[] STORE_TYPE_WEIGHTS = {35, 20, 10, 8, 8, 7, 7, 5};
+
+    private static final String[] STREETS = {
+            "High", "Main", "Church", "Station", "Market", "Mill", "Castle", "Bridge", "Park", "Victoria"};
+
+    private static final int[] RATING_WEIGHTS = {3, 7, 20, 40, 30};
+
+    private final SplittableRandom random;
+    private final long size;
+    private final long ownerPoolSize;
+    private final long ownerIdPrefix;
+    private final String emailTag;
+    private final int totalCityWeight;
+    private long generated;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed the random seed.
+     * @param size the number of stores to generate.
+     * @throws IllegalArgumentException if the size is negative.
+     */
+    public StoreCatalogGenerator(long seed, long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Catalog size must not be negative");
+        }
+        this.random = new SplittableRandom(seed);
+        this.size = size;
+        this.ownerPoolSize = Math.max(1, size / STORES_PER_OWNER);
+        this.ownerIdPrefix = random.nextLong() & 0xffffffffffff0fffL | 0x0000000000004000L;
+        this.emailTag = Long.toUnsignedString(seed, 36);
+        int weight = 0;
+        for (City city : CITIES) {
+            weight += city.weight;
+        }
+        this.totalCityWeight = weight;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return generated < size;
+    }
+
+    @Override
+    public Store next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        long number = ++generated;
+        String storeType = STORE_TYPES[weighted(STORE_TYPE_WEIGHTS)];
+
+        Store.StoreBuilder store = Store.builder()
+                .storeId(randomUuid())
+                .storeType(storeType)
+                .isActive(random.nextDouble() >= 0.05)
+                .phoneNumber(String.format("0%010d", random.nextLong(10_000_000_000L)))
+                .email("store" + number + "-" + emailTag + "@siopa.test")
+                .ownerIds(owners())
+                .rating(weighted(RATING_WEIGHTS) + 1)
+                .deliveryFee(deliveryFee());
+
+        String street = random.nextInt(1, 200) + " " + STREETS[random.nextInt(STREETS.length)] + " Street";
+        if (random.nextDouble() < RURAL_SHARE) {
+            store.name("Village " + storeType + " " + number)
+                    .address(street)
+                    .latitude(random.nextDouble(MIN_LATITUDE, MAX_LATITUDE))
+                    .longitude(random.nextDouble(MIN_LONGITUDE, MAX_LONGITUDE));
+        } else {
+            City city = city();
+            // Stores thin out from the centre; larger cities sprawl further.
+            double spread = 0.03 * Math.sqrt(city.weight);
+            store.name(city.name + " " + storeType + " " + number)
+                    .region(city.region)
+                    .address(street + ", " + city.name)
+                    .latitude(clamp(city.latitude + gaussian() * spread, -90, 90))
+                    .longitude(clamp(city.longitude + gaussian() * spread / Math.cos(Math.toRadians(city.latitude)),
+                            -180, 180));
+        }
+        return store.build();
+    }
+
+    /**
+     * Picks one to three owners, most stores having a single owner.
+     */
+    private Set<UUID> owners() {
+        double roll = random.nextDouble();
+        int count = roll < 0.75 ? 1 : roll < 0.95 ? 2 : 3;
+        Set<UUID> owners = new HashSet<>(4);
+        for (int i = 0; i < count; i++) {
+            owners.add(new UUID(ownerIdPrefix, 0x8000000000000000L | ownerRank()));
+        }
+        return owners;
+    }
+
+    /**
+     * Draws an owner's rank in the pool, with probability falling off as a power of the rank.
+     * Uses the inverse of the continuous power-law distribution, which is close enough to Zipf's law here.
+     */
+    private long ownerRank() {
+        double exponent = 1 - OWNER_SKEW;
+        double top = Math.pow(ownerPoolSize + 1, exponent);
+        double rank = Math.pow((top - 1) * random.nextDouble() + 1, 1 / exponent);
+        return Math.min(ownerPoolSize - 1, (long) rank - 1);
+    }
+
+    /**
+     * Picks a delivery fee: free for some stores, otherwise a price ending in .49 or .99, up to 4.99.
+     */
+    private BigDecimal deliveryFee() {
+        if (random.nextDouble() < 0.15) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        return BigDecimal.valueOf(random.nextInt(5) * 100L + (random.nextBoolean() ? 49 : 99), 2);
+    }
+
+    private City city() {
+        int pick = random.nextInt(totalCityWeight);
+        for (City city : CITIES) {
+            pick -= city.weight;
+            if (pick < 0) {
+                return city;
+            }
+        }
+        return CITIES[CITIES.length - 1];
+    }
+
+    private int weighted(int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int pick = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            pick -= weights[i];
+            if (pick < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /**
+     * Draws a standard normal value with the Box-Muller transform.
+     */
+    private double gaussian() {
+        double u = 1 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    /**
+     * Draws a version 4 UUID from the seeded random source.
+     */
+    private UUID randomUuid() {
+        long most = random.nextLong() & 0xffffffffffff0fffL | 0x0000000000004000L;
+        long least = random.nextLong() & 0x3fffffffffffffffL | 0x8000000000000000L;
+        return new UUID(most, least);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * A city stores cluster around, with its share of the catalog's city stores.
+     */
+    @AllArgsConstructor
+    private static final class City {
+        private final String name;
+        private final String region;
+        private final double latitude;
+        private final double longitude;
+        private final int weight;
+    }
+}
@@ -0,0 +1,245 @@
+package com.siopa.siopa_stores.helpers;
+
+import com.siopa.siopa_stores.exceptions.InvalidRequestException;
+import com.siopa.siopa_stores.models.Store;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * CSV layout of the store catalog. Owner IDs are written as a single field separated by {@code ;}.
+ * Files written with {@link #toRow(Store)} can be read back with {@link #read(Reader)}.
+ */
+public final class StoreCsv {
+
+    /** Header row naming the columns, in order. */
+    public static final String HEADER = "store_id,name,region,address,is_active,phone_number,email,"
+            + "latitude,longitude,store_type,rating,delivery_fee,owner_ids";
+
+    private StoreCsv() {
+    }
+
+    /**
+     * Formats a store as one CSV row, without a line terminator.
+     *
+     * @param store the store to format.
+     * @return the CSV row.
+     */
+    public static String toRow(Store store) {
+        return String.join(",",
+                value(store.getStoreId()),
+                escape(store.getName()),
+                escape(store.getRegion()),
+                escape(store.getAddress()),
+                String.valueOf(store.isActive()),
+                escape(store.getPhoneNumber()),
+                escape(store.getEmail()),
+                String.valueOf(store.getLatitude()),
+                String.valueOf(store.getLongitude()),
+                escape(store.getStoreType()),
+                String.valueOf(store.getRating()),
+                value(store.getDeliveryFee()),
+                store.getOwnerIds() == null ? ""
+                        : store.getOwnerIds().stream().map(UUID::toString).collect(Collectors.joining(";")));
+    }
+
+    /**
+     * Reads stores from CSV, one record at a time. The first record must be a header naming the columns of
+     * {@link #HEADER}, in any order; {@code store_id}, {@code region}, {@code is_active}, {@code phone_number},
+     * {@code store_type}, {@code rating}, {@code delivery_fee} and {@code owner_ids} may be omitted.
+     * Quoted fields may span lines.
+     *
+     * @param reader the CSV to read, which should be buffered; it is not closed.
+     * @return an iterator over the stores, which throws {@link UncheckedIOException} if reading fails and
+     * {@link InvalidRequestException} if a record cannot be parsed.
+     * @throws IOException if the header cannot be read.
+     * @throws InvalidRequestException if the header is missing or lacks a mandatory column.
+     */
+    public static Iterator<Store> read(Reader reader) throws IOException {
+        RecordReader records = new RecordReader(reader);
+        List<String> header = records.next();
+        if (header == null) {
+            throw new InvalidRequestException("CSV is empty, expected a header row");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String mandatory : List.of("name", "address", "email", "latitude", "longitude")) {
+            if (!columns.containsKey(mandatory)) {
+                throw new InvalidRequestException("CSV header is missing the " + mandatory + " column");
+            }
+        }
+
+        return new Iterator<>() {
+            private List<String> next = readRecord();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Store next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Store store = toStore(next, columns, records.recordNumber);
+                next = readRecord();
+                return store;
+            }
+
+            private List<String> readRecord() {
+                try {
+                    List<String> record;
+                    do {
+                        record = records.next();
+                    } while (record != null && record.size() == 1 && record.get(0).isEmpty());
+                    return record;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private static Store toStore(List<String> record, Map<String, Integer> columns, long recordNumber) {
+        try {
+            String storeId = field(record, columns, "store_id");
+            String isActive = field(record, columns, "is_active");
+            String rating = field(record, columns, "rating");
+            String deliveryFee = field(record, columns, "delivery_fee");
+            String ownerIds = field(record, columns, "owner_ids");
+            return Store.builder()
+                    .storeId(storeId.isEmpty() ? null : UUID.fromString(storeId))
+                    .name(text(record, columns, "name"))
+                    .region(text(record, columns, "region"))
+                    .address(text(record, columns, "address"))
+                    .isActive(isActive.isEmpty() || Boolean.parseBoolean(isActive))
+                    .phoneNumber(text(record, columns, "phone_number"))
+                    .email(text(record, columns, "email"))
+                    .latitude(Double.parseDouble(field(record, columns, "latitude")))
+                    .longitude(Double.parseDouble(field(record, columns, "longitude")))
+                    .storeType(text(record, columns, "store_type"))
+                    .rating(rating.isEmpty() ? 0 : Integer.parseInt(rating))
+                    .deliveryFee(deliveryFee.isEmpty() ? null : new BigDecimal(deliveryFee))
+                    .ownerIds(ownerIds.isEmpty() ? new LinkedHashSet<>()
+                            : Arrays.stream(ownerIds.split(";")).map(String::trim).map(UUID::fromString)
+                            .collect(Collectors.toCollection(LinkedHashSet::new)))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid CSV record " + recordNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns a field of a record, trimmed, or an empty string if the column is absent.
+     */
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= record.size() ? "" : record.get(index).trim();
+    }
+
+    /**
+     * Returns a text field of a record, or null if it is empty.
+     */
+    private static String text(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        String value = index == null || index >= record.size() ? "" : record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String value(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    /**
+     * Quotes a field if it contains a delimiter, quote or line break, doubling any embedded quotes.
+     */
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Splits CSV into records of fields, honouring quoted fields with embedded delimiters, quotes and line breaks.
+     */
+    private static final class RecordReader {
+        private final Reader reader;
+        private final StringBuilder field = new StringBuilder();
+        private int pushedBack = -2;
+        private long recordNumber;
+
+        private RecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Reads the next record, or returns null at the end of the input.
+         */
+        private List<String> next() throws IOException {
+            int c = read();
+            if (c < 0) {
+                return null;
+            }
+            recordNumber++;
+            List<String> record = new ArrayList<>();
+            boolean quoted = false;
+            field.setLength(0);
+            while (true) {
+                if (quoted) {
+                    if (c < 0) {
+                        throw new InvalidRequestException("Invalid CSV record " + recordNumber + ": unterminated quote");
+                    }
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = following;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    record.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r' || c < 0) {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            pushedBack = following;
+                        }
+                    }
+                    record.add(field.toString());
+                    return record;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -2) {
+                int c = pushedBack;
+                pushedBack = -2;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+}
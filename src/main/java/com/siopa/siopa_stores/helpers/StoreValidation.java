@@ -0,0 +1,65 @@
+package com.siopa.siopa_stores.helpers;
+
+import com.siopa.siopa_stores.models.Store;
+
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Checks a {@link Store} against the constraints declared on its fields, for bulk paths that validate
+ * many stores before writing any of them.
+ */
+public final class StoreValidation {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+
+    private StoreValidation() {
+    }
+
+    /**
+     * Validates a store.
+     *
+     * @param store the store to validate.
+     * @return a message describing the first violated constraint, or empty if the store is valid.
+     */
+    public static Optional<String> validate(Store store) {
+        if (store == null) {
+            return Optional.of("Store is missing");
+        }
+        if (isBlank(store.getName())) {
+            return Optional.of("Name is mandatory");
+        }
+        if (store.getName().length() > 100) {
+            return Optional.of("Name must be at most 100 characters");
+        }
+        if (store.getRegion() != null && store.getRegion().length() > 50) {
+            return Optional.of("Region must be at most 50 characters");
+        }
+        if (isBlank(store.getAddress())) {
+            return Optional.of("Address is mandatory");
+        }
+        if (store.getAddress().length() > 200) {
+            return Optional.of("Address must be at most 200 characters");
+        }
+        if (store.getPhoneNumber() != null && store.getPhoneNumber().length() > 15) {
+            return Optional.of("Phone number must be at most 15 characters");
+        }
+        if (isBlank(store.getEmail())) {
+            return Optional.of("Email is mandatory");
+        }
+        if (!EMAIL.matcher(store.getEmail()).matches()) {
+            return Optional.of("Email should be valid");
+        }
+        if (!(store.getLatitude() >= -90 && store.getLatitude() <= 90)) {
+            return Optional.of("Latitude must be between -90 and 90");
+        }
+        if (!(store.getLongitude() >= -180 && store.getLongitude() <= 180)) {
+            return Optional.of("Longitude must be between -180 and 180");
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,16 @@
+package com.siopa.siopa_stores.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * A store matched by a {@link StoreGeoIndex} query, with its distance from the query point in miles.
+ */
+@Getter
+@AllArgsConstructor
+public class GeoHit {
+    private final UUID storeId;
+    private final double distance;
+}
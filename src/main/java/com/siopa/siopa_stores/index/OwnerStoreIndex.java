@@ -0,0 +1,326 @@
+package com.siopa.siopa_stores.index;
+
+import com.siopa.siopa_stores.models.StoreOwnership;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index from owner ID to the IDs of the stores they own, used to answer owner lookups
+ * without joining {@code stores} with {@code store_owners}.
+ * Each owner's store IDs are packed into an immutable {@code long[]} of most/least significant bit pairs,
+ * which is replaced on write, so lookups never block. Each store's owner IDs are held the same way, so a store
+ * whose owners are replaced or which is deleted can be taken off the owners it had.
+ * <p>
+ * Once loaded, the index holds every ownership, so an owner it does not know owns no stores. Changes made inside a
+ * transaction are applied once it commits, and changes made while the index is loading are replayed onto the loaded
+ * contents, so the index never shows an ownership that was rolled back or loses one made during the load.
+ * <p>
+ * Each instance holds its own index. Owner changes made on other instances, including revocations handled by their
+ * role change consumers, arrive through the {@code store-changes} topic, read by
+ * {@link com.siopa.siopa_stores.kafka.StoreChangeListener}, typically within the outbox relay interval plus a poll.
+ * Changes that publish no event, such as a catalog import on another instance, and events missed while this instance
+ * was not consuming, are picked up by a full reload every {@code stores.owner-index.refresh-interval-ms}
+ * (5 minutes by default), which bounds how long an owner lookup can be stale.
+ */
+@Component
+@RequiredArgsConstructor
+public class OwnerStoreIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OwnerStoreIndex.class);
+
+    private final StoreRepository storeRepository;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Contents contents = new Contents(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    private volatile boolean ready;
+
+    /** Changes applied while a load is reading the database, replayed onto its result; null when not loading. */
+    private List<Consumer<Contents>> changesDuringLoad;
+
+    /**
+     * Loads every store ownership from the database once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        logger.info("Loading store owners into the owner index");
+        writeLock.lock();
+        try {
+            changesDuringLoad = new ArrayList<>();
+        } finally {
+            writeLock.unlock();
+        }
+        try (Stream<StoreOwnership> ownerships = storeRepository.streamAllOwnerships()) {
+            rebuild(ownerships::iterator);
+        } finally {
+            writeLock.lock();
+            try {
+                changesDuringLoad = null;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Reloads every store ownership from the database, once the initial load has completed,
+     * while the current contents keep serving lookups.
+     */
+    @Scheduled(initialDelayString = "${stores.owner-index.refresh-interval-ms:300000}",
+            fixedDelayString = "${stores.owner-index.refresh-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        if (ready) {
+            load();
+        }
+    }
+
+    /**
+     * Replaces the contents of the index with the given ownerships and marks the index as ready.
+     *
+     * @param ownerships the store ownerships to index.
+     */
+    public void rebuild(Iterable<StoreOwnership> ownerships) {
+        Map<UUID, PackedBuilder> storesByOwner = new HashMap<>();
+        Map<UUID, PackedBuilder> ownersByStore = new HashMap<>();
+        int count = 0;
+        for (StoreOwnership ownership : ownerships) {
+            storesByOwner.computeIfAbsent(ownership.getOwnerId(), key -> new PackedBuilder()).add(ownership.getStoreId());
+            ownersByStore.computeIfAbsent(ownership.getStoreId(), key -> new PackedBuilder()).add(ownership.getOwnerId());
+            count++;
+        }
+        Contents rebuilt = new Contents(build(storesByOwner), build(ownersByStore));
+        writeLock.lock();
+        try {
+            if (changesDuringLoad != null) {
+                changesDuringLoad.forEach(change -> change.accept(rebuilt));
+                changesDuringLoad.clear();
+            }
+            contents = rebuilt;
+            ready = true;
+        } finally {
+            writeLock.unlock();
+        }
+        logger.info("Owner index loaded with {} ownerships for {} owners", count, rebuilt.storesByOwner.size());
+    }
+
+    /**
+     * Returns the IDs of the stores owned by an owner, once the index has loaded.
+     *
+     * @param ownerId the unique identifier of the owner.
+     * @return the owner's store IDs, none if the owner owns no stores, or empty if the index has not loaded yet
+     *         and the database must be asked.
+     */
+    public Optional<List<UUID>> findStoreIds(UUID ownerId) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.of(unpack(contents.storesByOwner.get(ownerId)));
+    }
+
+    /**
+     * Records that an owner owns a store, once the current transaction commits.
+     *
+     * @param ownerId the unique identifier of the owner.
+     * @param storeId the unique identifier of the store.
+     */
+    public void add(UUID ownerId, UUID storeId) {
+        afterCommit(current -> link(current, ownerId, storeId));
+    }
+
+    /**
+     * Records that an owner no longer owns a store, once the current transaction commits.
+     * Owners left with no stores are dropped; unknown owners and stores are ignored.
+     *
+     * @param ownerId the unique identifier of the owner.
+     * @param storeId the unique identifier of the store.
+     */
+    public void remove(UUID ownerId, UUID storeId) {
+        afterCommit(current -> unlink(current, ownerId, storeId));
+    }
+
+    /**
+     * Replaces the owners of a store, once the current transaction commits.
+     * The store is taken off the owners it no longer has and added to the new ones.
+     *
+     * @param storeId  the unique identifier of the store.
+     * @param ownerIds the store's owners after the change.
+     */
+    public void setOwners(UUID storeId, Set<UUID> ownerIds) {
+        Set<UUID> owners = Set.copyOf(ownerIds);
+        afterCommit(current -> {
+            for (UUID previousOwner : unpack(current.ownersByStore.get(storeId))) {
+                if (!owners.contains(previousOwner)) {
+                    unlink(current, previousOwner, storeId);
+                }
+            }
+            owners.forEach(ownerId -> link(current, ownerId, storeId));
+        });
+    }
+
+    /**
+     * Removes a store from all of its owners, once the current transaction commits. Unknown stores are ignored.
+     *
+     * @param storeId the unique identifier of the store.
+     */
+    public void removeStore(UUID storeId) {
+        afterCommit(current -> unpack(current.ownersByStore.get(storeId))
+                .forEach(ownerId -> unlink(current, ownerId, storeId)));
+    }
+
+    /**
+     * Indicates whether the index has been loaded.
+     *
+     * @return true once the initial load has completed.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void afterCommit(Consumer<Contents> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    /**
+     * Applies a change to the index, and records it for replay if a load is reading the database.
+     */
+    private void apply(Consumer<Contents> change) {
+        writeLock.lock();
+        try {
+            change.accept(contents);
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(change);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void link(Contents current, UUID ownerId, UUID storeId) {
+        current.storesByOwner.merge(ownerId, pack(storeId), OwnerStoreIndex::union);
+        current.ownersByStore.merge(storeId, pack(ownerId), OwnerStoreIndex::union);
+    }
+
+    private static void unlink(Contents current, UUID ownerId, UUID storeId) {
+        current.storesByOwner.computeIfPresent(ownerId, (key, packed) -> emptyToNull(without(packed, storeId)));
+        current.ownersByStore.computeIfPresent(storeId, (key, packed) -> emptyToNull(without(packed, ownerId)));
+    }
+
+    private static long[] emptyToNull(long[] packed) {
+        return packed.length == 0 ? null : packed;
+    }
+
+    private static Map<UUID, long[]> build(Map<UUID, PackedBuilder> builders) {
+        Map<UUID, long[]> built = new ConcurrentHashMap<>(Math.max(16, builders.size() * 4 / 3 + 1));
+        builders.forEach((id, builder) -> built.put(id, builder.build()));
+        return built;
+    }
+
+    private static List<UUID> unpack(long[] packed) {
+        if (packed == null) {
+            return List.of();
+        }
+        List<UUID> ids = new ArrayList<>(packed.length / 2);
+        for (int i = 0; i < packed.length; i += 2) {
+            ids.add(new UUID(packed[i], packed[i + 1]));
+        }
+        return ids;
+    }
+
+    private static long[] pack(UUID id) {
+        return new long[]{id.getMostSignificantBits(), id.getLeastSignificantBits()};
+    }
+
+    /**
+     * Returns a copy of the packed IDs with the given single packed ID appended, or the same array if already present.
+     */
+    private static long[] union(long[] packed, long[] single) {
+        if (indexOf(packed, single[0], single[1]) >= 0) {
+            return packed;
+        }
+        long[] result = Arrays.copyOf(packed, packed.length + 2);
+        result[packed.length] = single[0];
+        result[packed.length + 1] = single[1];
+        return result;
+    }
+
+    /**
+     * Returns a copy of the packed IDs without the given ID, or the same array if it is absent.
+     */
+    private static long[] without(long[] packed, UUID id) {
+        int index = indexOf(packed, id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (index < 0) {
+            return packed;
+        }
+        long[] result = new long[packed.length - 2];
+        System.arraycopy(packed, 0, result, 0, index);
+        System.arraycopy(packed, index + 2, result, index, packed.length - index - 2);
+        return result;
+    }
+
+    private static int indexOf(long[] packed, long mostSignificantBits, long leastSignificantBits) {
+        for (int i = 0; i < packed.length; i += 2) {
+            if (packed[i] == mostSignificantBits && packed[i + 1] == leastSignificantBits) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The two directions of the index, swapped together on rebuild.
+     */
+    private static final class Contents {
+        private final Map<UUID, long[]> storesByOwner;
+        private final Map<UUID, long[]> ownersByStore;
+
+        private Contents(Map<UUID, long[]> storesByOwner, Map<UUID, long[]> ownersByStore) {
+            this.storesByOwner = storesByOwner;
+            this.ownersByStore = ownersByStore;
+        }
+    }
+
+    /**
+     * Growable buffer collecting one owner's store IDs, or one store's owner IDs, packed during a rebuild.
+     */
+    private static final class PackedBuilder {
+        private long[] packed = new long[2];
+        private int size;
+
+        private void add(UUID id) {
+            if (size == packed.length) {
+                packed = Arrays.copyOf(packed, size * 2);
+            }
+            packed[size++] = id.getMostSignificantBits();
+            packed[size++] = id.getLeastSignificantBits();
+        }
+
+        private long[] build() {
+            return Arrays.copyOf(packed, size);
+        }
+    }
+}
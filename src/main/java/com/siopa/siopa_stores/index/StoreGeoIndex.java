@@ -0,0 +1,391 @@
+package com.siopa.siopa_stores.index;
+
+import com.siopa.siopa_stores.helpers.BoundingBox;
+import com.siopa.siopa_stores.helpers.DistanceHelper;
+import com.siopa.siopa_stores.helpers.GeoPoints;
+import com.siopa.siopa_stores.helpers.NearestCollector;
+import com.siopa.siopa_stores.models.StoreLocation;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory grid index over store coordinates, used to answer nearby-store queries without scanning the catalog.
+ * The globe is split into fixed-size latitude/longitude cells; a query only visits the cells overlapping the
+ * bounding box of the search radius and checks the exact distance of the stores they hold.
+ * Cells are immutable and replaced on write, so lookups never block.
+ * <p>
+ * Changes made inside a transaction are applied once it commits, and changes made while the index is loading are
+ * replayed onto the loaded grid, so the index never shows a store that was rolled back or loses one made during
+ * the load.
+ * <p>
+ * Each instance holds its own index. Changes made on this instance are visible as soon as they commit; changes made
+ * on other instances arrive through the {@code store-changes} topic, read by
+ * {@link com.siopa.siopa_stores.kafka.StoreChangeListener}, typically within the outbox relay interval plus a poll.
+ * Changes that publish no event, such as a catalog import on another instance, and events missed while this instance
+ * was not consuming, are picked up by a full reload every {@code stores.geo-index.refresh-interval-ms}
+ * (5 minutes by default), which bounds how long a nearby search can miss or return a stale store.
+ */
+@Component
+public class StoreGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreGeoIndex.class);
+
+    private final StoreRepository storeRepository;
+    private final DistanceHelper distanceHelper;
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Grid grid = new Grid();
+    private volatile boolean ready;
+
+    /** Changes applied while a load is reading the database, replayed onto its result; null when not loading. */
+    private List<Consumer<Grid>> changesDuringLoad;
+
+    /**
+     * Creates the index.
+     *
+     * @param storeRepository repository the index is loaded from.
+     * @param distanceHelper  helper used for bounding boxes and exact distances.
+     * @param cellDegrees     width and height of a grid cell in degrees.
+     */
+    public StoreGeoIndex(StoreRepository storeRepository, DistanceHelper distanceHelper,
+                         @Value("${stores.geo-index.cell-degrees:0.1}") double cellDegrees) {
+        this.storeRepository = storeRepository;
+        this.distanceHelper = distanceHelper;
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    /**
+     * Loads every store location from the database once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        logger.info("Loading store locations into the geo index");
+        writeLock.lock();
+        try {
+            changesDuringLoad = new ArrayList<>();
+        } finally {
+            writeLock.unlock();
+        }
+        try (Stream<StoreLocation> locations = storeRepository.streamAllLocations()) {
+            rebuild(locations::iterator);
+        } finally {
+            writeLock.lock();
+            try {
+                changesDuringLoad = null;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Reloads every store location from the database, once the initial load has completed,
+     * while the current contents keep serving queries.
+     */
+    @Scheduled(initialDelayString = "${stores.geo-index.refresh-interval-ms:300000}",
+            fixedDelayString = "${stores.geo-index.refresh-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        if (ready) {
+            load();
+        }
+    }
+
+    /**
+     * Replaces the contents of the index with the given locations and marks the index as ready.
+     *
+     * @param locations the store locations to index.
+     */
+    public void rebuild(Iterable<StoreLocation> locations) {
+        Map<Long, List<StoreLocation>> grouped = new HashMap<>();
+        for (StoreLocation location : locations) {
+            grouped.computeIfAbsent(cellKey(location.getLatitude(), location.getLongitude()), key -> new ArrayList<>())
+                    .add(location);
+        }
+
+        Grid rebuilt = new Grid();
+        grouped.forEach((key, cellLocations) -> {
+            rebuilt.cells.put(key, Cell.of(cellLocations));
+            cellLocations.forEach(location -> rebuilt.cellByStore.put(location.getStoreId(), key));
+        });
+
+        writeLock.lock();
+        try {
+            if (changesDuringLoad != null) {
+                changesDuringLoad.forEach(change -> change.accept(rebuilt));
+                changesDuringLoad.clear();
+            }
+            grid = rebuilt;
+            ready = true;
+        } finally {
+            writeLock.unlock();
+        }
+        logger.info("Geo index loaded with {} stores in {} cells", rebuilt.cellByStore.size(), rebuilt.cells.size());
+    }
+
+    /**
+     * Adds a store to the index, or moves it if it is already indexed, once the current transaction commits.
+     *
+     * @param storeId   the unique identifier of the store.
+     * @param latitude  latitude of the store.
+     * @param longitude longitude of the store.
+     */
+    public void put(UUID storeId, double latitude, double longitude) {
+        afterCommit(current -> {
+            Long previousKey = current.cellByStore.get(storeId);
+            if (previousKey != null) {
+                current.cells.computeIfPresent(previousKey, (key, cell) -> cell.without(storeId));
+            }
+            long key = cellKey(latitude, longitude);
+            current.cells.compute(key, (k, cell) -> cell == null
+                    ? Cell.of(List.of(new StoreLocation(storeId, latitude, longitude)))
+                    : cell.with(storeId, latitude, longitude));
+            current.cellByStore.put(storeId, key);
+        });
+    }
+
+    /**
+     * Removes a store from the index once the current transaction commits. Unknown stores are ignored.
+     *
+     * @param storeId the unique identifier of the store.
+     */
+    public void remove(UUID storeId) {
+        afterCommit(current -> {
+            Long key = current.cellByStore.remove(storeId);
+            if (key != null) {
+                current.cells.computeIfPresent(key, (k, cell) -> cell.without(storeId));
+            }
+        });
+    }
+
+    /**
+     * Finds the indexed stores strictly within the given radius of a point, nearest first.
+     *
+     * @param latitude    latitude of the query point.
+     * @param longitude   longitude of the query point.
+     * @param radiusMiles search radius in miles.
+     * @param limit       the maximum number of stores to return, or null for all matches.
+     * @return the matching stores with their distances, ordered by increasing distance.
+     */
+    public List<GeoHit> findNearest(double latitude, double longitude, double radiusMiles, Integer limit) {
+        BoundingBox box = distanceHelper.boundingBox(latitude, longitude, radiusMiles);
+        Grid current = grid;
+
+        int firstRow = row(box.getMinLatitude());
+        int lastRow = row(box.getMaxLatitude());
+        int firstColumn = column(box.getMinLongitude());
+        int lastColumn = column(box.getMaxLongitude());
+        if (box.crossesAntimeridian()) {
+            lastColumn += columns;
+        }
+        if (lastColumn - firstColumn + 1 > columns) {
+            firstColumn = 0;
+            lastColumn = columns - 1;
+        }
+
+        NearestCollector<GeoHit> hits = new NearestCollector<>(limit, GeoHit::getDistance);
+        Scratch scratch = new Scratch();
+        long cellsInBox = (long) (lastRow - firstRow + 1) * (lastColumn - firstColumn + 1);
+
+        if (cellsInBox > current.cells.size()) {
+            // Sparse grid: cheaper to walk the occupied cells than every cell in the box.
+            for (Map.Entry<Long, Cell> entry : current.cells.entrySet()) {
+                int row = (int) (entry.getKey() >> 32);
+                int column = (int) entry.getKey().longValue();
+                if (row < firstRow || row > lastRow) {
+                    continue;
+                }
+                int unwrapped = column < firstColumn ? column + columns : column;
+                if (unwrapped <= lastColumn) {
+                    collect(entry.getValue(), latitude, longitude, radiusMiles, hits, scratch);
+                }
+            }
+        } else {
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    Cell cell = current.cells.get(cellKey(row, Math.floorMod(column, columns)));
+                    if (cell != null) {
+                        collect(cell, latitude, longitude, radiusMiles, hits, scratch);
+                    }
+                }
+            }
+        }
+        return hits.toSortedList();
+    }
+
+    /**
+     * Indicates whether the index has been loaded and can serve queries.
+     *
+     * @return true once the initial load has completed.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the number of indexed stores.
+     *
+     * @return the store count.
+     */
+    public int size() {
+        return grid.cellByStore.size();
+    }
+
+    private void afterCommit(Consumer<Grid> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    /**
+     * Applies a change to the grid, and records it for replay if a load is reading the database.
+     */
+    private void apply(Consumer<Grid> change) {
+        writeLock.lock();
+        try {
+            change.accept(grid);
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(change);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Runs the squared-chord kernel over one cell and offers the stores inside the radius to the collector.
+     */
+    private void collect(Cell cell, double latitude, double longitude, double radiusMiles,
+                         NearestCollector<GeoHit> hits, Scratch scratch) {
+        scratch.ensureCapacity(cell.storeIds.length);
+        int found = distanceHelper.withinRadiusFast(latitude, longitude, radiusMiles, cell.points,
+                scratch.matches, scratch.distances);
+        for (int i = 0; i < found; i++) {
+            double distance = scratch.distances[i];
+            if (hits.accepts(distance)) {
+                hits.add(new GeoHit(cell.storeIds[scratch.matches[i]], distance));
+            }
+        }
+    }
+
+    private int row(double latitude) {
+        return Math.min(Math.max((int) Math.floor((latitude + 90) / cellDegrees), 0), rows - 1);
+    }
+
+    private int column(double longitude) {
+        return Math.min(Math.max((int) Math.floor((longitude + 180) / cellDegrees), 0), columns - 1);
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return cellKey(row(latitude), column(longitude));
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    /**
+     * The mutable part of the index, swapped wholesale on rebuild.
+     */
+    private static final class Grid {
+        private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+        private final Map<UUID, Long> cellByStore = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Per-query buffers receiving kernel output, grown to the largest cell visited.
+     */
+    private static final class Scratch {
+        private int[] matches = new int[0];
+        private double[] distances = new double[0];
+
+        private void ensureCapacity(int size) {
+            if (matches.length < size) {
+                int capacity = Math.max(size, matches.length * 2);
+                matches = new int[capacity];
+                distances = new double[capacity];
+            }
+        }
+    }
+
+    /**
+     * Immutable set of stores sharing one grid cell, with coordinates held in the layout
+     * expected by {@link DistanceHelper}'s batch kernels.
+     */
+    private static final class Cell {
+        private final UUID[] storeIds;
+        private final GeoPoints points;
+
+        private Cell(UUID[] storeIds, GeoPoints points) {
+            this.storeIds = storeIds;
+            this.points = points;
+        }
+
+        private static Cell of(List<StoreLocation> locations) {
+            int size = locations.size();
+            UUID[] storeIds = new UUID[size];
+            GeoPoints points = new GeoPoints(size);
+            for (int i = 0; i < size; i++) {
+                StoreLocation location = locations.get(i);
+                storeIds[i] = location.getStoreId();
+                points.set(i, location.getLatitude(), location.getLongitude());
+            }
+            return new Cell(storeIds, points);
+        }
+
+        private Cell with(UUID storeId, double latitude, double longitude) {
+            int size = storeIds.length;
+            UUID[] newIds = Arrays.copyOf(storeIds, size + 1);
+            GeoPoints newPoints = points.copyOf(size + 1);
+            newIds[size] = storeId;
+            newPoints.set(size, latitude, longitude);
+            return new Cell(newIds, newPoints);
+        }
+
+        /**
+         * Returns a copy of this cell without the given store, or null if the cell would be empty.
+         */
+        private Cell without(UUID storeId) {
+            int index = Arrays.asList(storeIds).indexOf(storeId);
+            if (index < 0) {
+                return this;
+            }
+            int size = storeIds.length - 1;
+            if (size == 0) {
+                return null;
+            }
+            UUID[] newIds = new UUID[size];
+            System.arraycopy(storeIds, 0, newIds, 0, index);
+            System.arraycopy(storeIds, index + 1, newIds, index, size - index);
+            return new Cell(newIds, points.without(index));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.siopa.siopa_stores.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.siopa_stores.models.OutboxEvent;
+import com.siopa.siopa_stores.repositories.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Queues Kafka events in the outbox table as part of the caller's transaction.
+ * Events are only published, by {@link OutboxRelay}, once that transaction commits, and never if it rolls back,
+ * so callers never wait on Kafka.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Queues an event for publishing.
+     *
+     * @param topic the Kafka topic to publish to.
+     * @param key   the record key; events with the same key queued by this instance are published in the order
+     *              they were queued.
+     * @param event the event, serialized as JSON.
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, String key, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Event could not be serialized: " + e.getOriginalMessage(), e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .eventKey(key)
+                .eventType(event.getClass().getName())
+                .payload(payload)
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    /**
+     * Queues a tombstone, a record with a null value, so a compacted topic eventually drops every record of the key.
+     *
+     * @param topic the Kafka topic to publish to.
+     * @param key   the record key to delete; published in order with the other events of the key.
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueTombstone(String topic, String key) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .eventKey(key)
+                .createdAt(Instant.now())
+                .build());
+    }
+}
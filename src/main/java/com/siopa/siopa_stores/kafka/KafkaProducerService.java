@@ -1,29 +1,80 @@
 package com.siopa.siopa_stores.kafka;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
- * Service responsible for producing Kafka messages related to owner role updates.
- * Publishes messages to the {@code user-role-updates} topic.
+ * Service responsible for producing Kafka messages.
+ * Events are queued through {@link EventOutbox} and sent from here by {@link OutboxRelay}.
+ * Sends never block: each result is handled when Kafka acknowledges it, and reported as metrics
+ * ({@code stores.kafka.send} timer tagged by topic and outcome, {@code stores.kafka.send.in-flight} gauge).
  */
 @Service
-@RequiredArgsConstructor
 public class KafkaProducerService {
 
+    private static final Logger logger = LoggerFactory.getLogger(KafkaProducerService.class);
+
     /** Kafka template for sending messages. */
-    private final KafkaTemplate<String, OwnerRoleUpdateEvent> kafkaTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    /** Number of sends not yet acknowledged or failed. */
+    private final AtomicInteger inFlight = new AtomicInteger();
 
-    /** Kafka topic for user role updates. */
-    private static final String TOPIC = "user-role-updates";
+    /**
+     * Creates the service and registers its in-flight gauge.
+     *
+     * @param kafkaTemplate the template events are sent through.
+     * @param meterRegistry the registry send metrics are reported to.
+     */
+    public KafkaProducerService(KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("stores.kafka.send.in-flight", inFlight);
+    }
+
+    /**
+     * Sends an event to a Kafka topic.
+     *
+     * @param topic the topic to send to.
+     * @param key   the record key, which selects the partition.
+     * @param event the event to send.
+     * @return a future completed once Kafka acknowledges the event, or completed exceptionally if the send fails.
+     */
+    public CompletableFuture<SendResult<String, Object>> send(String topic, String key, Object event) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        inFlight.incrementAndGet();
+        CompletableFuture<SendResult<String, Object>> result;
+        try {
+            result = kafkaTemplate.send(topic, key, event);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((sendResult, error) -> {
+            inFlight.decrementAndGet();
+            sample.stop(meterRegistry.timer("stores.kafka.send", "topic", topic,
+                    "outcome", error == null ? "success" : "failure"));
+            if (error != null) {
+                logger.warn("Failed to send event with key {} to {}: {}", key, topic, error.getMessage());
+            }
+        });
+    }
 
     /**
-     * Sends a role update event to the Kafka topic.
+     * Returns the number of sends not yet acknowledged or failed.
      *
-     * @param event The {@link OwnerRoleUpdateEvent} containing user role update details.
+     * @return the number of sends in flight.
      */
-    public void sendRoleUpdateMessage(OwnerRoleUpdateEvent event) {
-        kafkaTemplate.send(TOPIC, event);
+    public int getInFlight() {
+        return inFlight.get();
     }
-}
\ No newline at end of file
+}
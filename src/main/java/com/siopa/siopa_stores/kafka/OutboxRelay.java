@@ -0,0 +1,281 @@
+package com.siopa.siopa_stores.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.siopa_stores.models.OutboxEvent;
+import com.siopa.siopa_stores.repositories.OutboxEventRepository;
+import org.apache.kafka.common.errors.RetriableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the events queued by {@link EventOutbox} to Kafka in the background.
+ * Each run drains the outbox in batches, oldest first. A batch is claimed in one short transaction, sent outside
+ * any transaction, and the acknowledged events are deleted in a second short transaction, so no connection or lock
+ * is held while waiting for Kafka. Only one relay across all instances claims events at a time.
+ * <p>
+ * Events with different keys are sent together, but an event is only sent once the previous event with the same
+ * key has been acknowledged. When an event fails, it and the later events with its key are left for the next run,
+ * so events may be published more than once, but never out of order for the same key. An event that can never be
+ * published, because its payload cannot be read or Kafka keeps rejecting it, is parked instead of blocking its key
+ * forever; failures Kafka reports as transient, such as an unavailable broker, are retried until they clear.
+ */
+@Component
+@ConditionalOnProperty(name = "stores.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    /** Advisory lock key held while a relay claims events. */
+    static final long RELAY_LOCK_ID = 0x5105_0A_0B0CL;
+
+    /** Number of failed attempts after which an event is reported as stuck. */
+    private static final int STUCK_ATTEMPTS = 10;
+
+    /** Number of attempts Kafka may reject an event outright before it is parked. */
+    static final int PARK_ATTEMPTS = 5;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration claimTimeout;
+
+    /**
+     * Creates the relay.
+     *
+     * @param outboxEventRepository repository the events are read from and deleted through.
+     * @param kafkaProducerService  service the events are sent through.
+     * @param objectMapper          mapper reading the event payloads.
+     * @param transactionManager    transaction manager the claims and deletes run in.
+     * @param batchSize             number of events read and sent per batch.
+     * @param sendTimeout           how long a batch waits for Kafka to acknowledge its events.
+     * @param claimTimeout          how long a claim holds if the relay dies before releasing it; must exceed the
+     *                              send timeout plus the producer's {@code max.block.ms}.
+     */
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, KafkaProducerService kafkaProducerService,
+                       ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                       @Value("${stores.outbox.batch-size:500}") int batchSize,
+                       @Value("${stores.outbox.send-timeout:10s}") Duration sendTimeout,
+                       @Value("${stores.outbox.claim-timeout:2m}") Duration claimTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.claimTimeout = claimTimeout;
+    }
+
+    /**
+     * Drains the outbox until a batch is not fully cleared or fails, then waits for the next run.
+     */
+    @Scheduled(fixedDelayString = "${stores.outbox.relay-interval-ms:500}")
+    public void relay() {
+        try {
+            int cleared;
+            do {
+                cleared = relayBatch();
+            } while (cleared == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("Outbox relay failed, retrying on the next run: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Claims, publishes and clears one batch of events.
+     *
+     * @return the number of events cleared from the batch, published or parked.
+     */
+    int relayBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> claimBatch());
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        Outcome outcome = publish(events);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.deleteAllByIdInBatch(outcome.sent);
+            if (!outcome.failed.isEmpty()) {
+                outboxEventRepository.incrementAttempts(outcome.failed);
+            }
+            if (!outcome.parked.isEmpty()) {
+                outboxEventRepository.park(outcome.parked, Instant.now());
+            }
+            if (!outcome.retried.isEmpty()) {
+                outboxEventRepository.release(outcome.retried);
+            }
+        });
+        if (!outcome.retried.isEmpty() || !outcome.parked.isEmpty()) {
+            logger.warn("Published {} outbox events, {} kept for retry, {} parked",
+                    outcome.sent.size(), outcome.retried.size(), outcome.parked.size());
+        } else {
+            logger.debug("Published {} outbox events", outcome.sent.size());
+        }
+        return outcome.sent.size() + outcome.parked.size();
+    }
+
+    /**
+     * Claims the oldest events, unless another relay is still publishing the batch it claimed.
+     */
+    private List<OutboxEvent> claimBatch() {
+        if (!outboxEventRepository.tryLock(RELAY_LOCK_ID)) {
+            return List.of();
+        }
+        Instant now = Instant.now();
+        if (outboxEventRepository.existsByClaimedUntilAfter(now)) {
+            return List.of();
+        }
+        List<OutboxEvent> events = outboxEventRepository.findAllByParkedAtIsNullOrderByIdAsc(Limit.of(batchSize));
+        if (!events.isEmpty()) {
+            outboxEventRepository.claim(events.stream().map(OutboxEvent::getId).toList(), now.plus(claimTimeout));
+        }
+        return events;
+    }
+
+    /**
+     * Sends the events in rounds: each round sends the oldest remaining event of every key and waits for the
+     * acknowledgements, so a key's next event is only sent once its previous event is acknowledged.
+     */
+    private Outcome publish(List<OutboxEvent> events) {
+        Map<String, Deque<OutboxEvent>> byKey = new LinkedHashMap<>();
+        events.forEach(event -> byKey.computeIfAbsent(event.getEventKey(), key -> new ArrayDeque<>()).add(event));
+
+        Outcome outcome = new Outcome();
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        while (!byKey.isEmpty() && System.nanoTime() < deadline) {
+            Map<OutboxEvent, CompletableFuture<?>> round = new LinkedHashMap<>();
+            byKey.values().forEach(queue -> round.put(queue.peek(), send(queue.peek())));
+
+            round.forEach((event, ack) -> {
+                Deque<OutboxEvent> queue = byKey.get(event.getEventKey());
+                Throwable failure = awaitAck(ack, deadline);
+                if (failure == null) {
+                    outcome.sent.add(event.getId());
+                    queue.poll();
+                    if (queue.isEmpty()) {
+                        byKey.remove(event.getEventKey());
+                    }
+                    return;
+                }
+                // The key stops for this run; its later events are not sent before this one.
+                byKey.remove(event.getEventKey());
+                queue.poll();
+                if (shouldPark(event, failure)) {
+                    logger.error("Outbox event {} to {} parked after {} attempts: {}",
+                            event.getId(), event.getTopic(), event.getAttempts() + 1, String.valueOf(failure));
+                    outcome.parked.add(event.getId());
+                } else {
+                    logFailure(event, failure);
+                    outcome.failed.add(event.getId());
+                }
+                queue.forEach(blocked -> outcome.retried.add(blocked.getId()));
+            });
+        }
+        byKey.values().forEach(queue -> queue.forEach(event -> outcome.retried.add(event.getId())));
+        outcome.retried.addAll(outcome.failed);
+        return outcome;
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        Object payload = null;
+        try {
+            // Tombstones have no payload and are sent with a null value.
+            if (event.getPayload() != null) {
+                Class<?> type = Class.forName(event.getEventType());
+                if (!type.getPackageName().equals(EventOutbox.class.getPackageName())) {
+                    throw new IllegalArgumentException("Unexpected event type " + type.getName());
+                }
+                payload = objectMapper.readValue(event.getPayload(), type);
+            }
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new UnpublishableEventException(e));
+        }
+        try {
+            return kafkaProducerService.send(event.getTopic(), event.getEventKey(), payload);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Waits for an acknowledgement until the deadline.
+     *
+     * @return null if the event was acknowledged, otherwise the failure.
+     */
+    private static Throwable awaitAck(CompletableFuture<?> ack, long deadline) {
+        try {
+            ack.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            return e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+    }
+
+    /**
+     * Decides whether a failed event is parked: at once if it cannot be read, or once Kafka has rejected it
+     * {@value #PARK_ATTEMPTS} times with an error it does not report as transient.
+     */
+    private static boolean shouldPark(OutboxEvent event, Throwable failure) {
+        if (failure instanceof UnpublishableEventException) {
+            return true;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException || cause instanceof TimeoutException
+                    || cause instanceof InterruptedException) {
+                return false;
+            }
+        }
+        return event.getAttempts() + 1 >= PARK_ATTEMPTS;
+    }
+
+    private static void logFailure(OutboxEvent event, Throwable failure) {
+        if (event.getAttempts() + 1 >= STUCK_ATTEMPTS) {
+            logger.error("Outbox event {} to {} failed {} times: {}",
+                    event.getId(), event.getTopic(), event.getAttempts() + 1, String.valueOf(failure));
+        } else {
+            logger.warn("Outbox event {} to {} failed: {}", event.getId(), event.getTopic(), String.valueOf(failure));
+        }
+    }
+
+    /**
+     * What became of the events of a batch.
+     */
+    private static final class Outcome {
+        private final List<Long> sent = new ArrayList<>();
+        private final List<Long> failed = new ArrayList<>();
+        private final List<Long> parked = new ArrayList<>();
+        private final List<Long> retried = new ArrayList<>();
+    }
+
+    /**
+     * Raised for an event whose payload cannot be read back, which no retry will fix.
+     */
+    private static final class UnpublishableEventException extends RuntimeException {
+        UnpublishableEventException(Throwable cause) {
+            super("Event cannot be read: " + cause.getMessage(), cause);
+        }
+    }
+}
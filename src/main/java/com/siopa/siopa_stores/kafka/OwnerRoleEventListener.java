@@ -0,0 +1,72 @@
+package com.siopa.siopa_stores.kafka;
+
+import com.siopa.siopa_stores.exceptions.InvalidRequestException;
+import com.siopa.siopa_stores.service.OwnerRevocationService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Consumes role changes from the user service, a whole poll at a time.
+ * A user moved to one of the configured revoking roles loses the ownership of all of their stores; each batch is
+ * applied in one bulk revocation. Roles are matched exactly: the owner role keeps the user's stores, and any other
+ * role is logged and ignored, so a new or misspelt role never deletes ownerships. A message that cannot be read is
+ * reported to the container after the messages before it are applied, so it alone is dead-lettered.
+ */
+@Component
+public class OwnerRoleEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(OwnerRoleEventListener.class);
+
+    /** Role that keeps a user's store ownerships, as granted by {@code StoreService#addOwnerToStore}. */
+    static final String OWNER_ROLE = "OWNER";
+
+    private final OwnerRevocationService ownerRevocationService;
+    private final Set<String> revokingRoles;
+
+    /**
+     * Creates the listener.
+     *
+     * @param ownerRevocationService service removing revoked owners from their stores.
+     * @param revokingRoles          the roles that revoke a user's store ownerships, matched exactly.
+     */
+    public OwnerRoleEventListener(OwnerRevocationService ownerRevocationService,
+                                  @Value("${stores.kafka.role-changes.revoking-roles:CUSTOMER}") Set<String> revokingRoles) {
+        this.ownerRevocationService = ownerRevocationService;
+        this.revokingRoles = Set.copyOf(revokingRoles);
+    }
+
+    /**
+     * Applies a batch of role changes.
+     *
+     * @param records the polled records, in offset order per partition.
+     * @throws BatchListenerFailedException if a record is not a valid role change; the records before it are applied.
+     */
+    @KafkaListener(topics = "${stores.kafka.role-changes.topic:user-role-changes}",
+            autoStartup = "${stores.kafka.role-changes.auto-startup:true}",
+            containerFactory = "kafkaListenerContainerFactory")
+    public void onRoleChanges(List<ConsumerRecord<String, OwnerRoleUpdateEvent>> records) {
+        Set<UUID> revokedOwners = new LinkedHashSet<>();
+        for (int index = 0; index < records.size(); index++) {
+            OwnerRoleUpdateEvent event = records.get(index).value();
+            if (event == null || event.getUserId() == null || event.getRole() == null) {
+                ownerRevocationService.revokeOwners(revokedOwners);
+                throw new BatchListenerFailedException("Invalid role change event",
+                        new InvalidRequestException("Role change event must have a user ID and a role"), index);
+            }
+            if (revokingRoles.contains(event.getRole())) {
+                revokedOwners.add(event.getUserId());
+            } else if (!OWNER_ROLE.equals(event.getRole())) {
+                logger.warn("Ignoring role change of user {} to unknown role {}", event.getUserId(), event.getRole());
+            }
+        }
+        int removed = ownerRevocationService.revokeOwners(revokedOwners);
+        logger.debug("Applied {} role changes, removing {} store ownerships", records.size(), removed);
+    }
+}
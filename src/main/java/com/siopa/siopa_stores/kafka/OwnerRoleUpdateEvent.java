@@ -16,6 +16,9 @@ import java.util.UUID;
 @NoArgsConstructor
 public class OwnerRoleUpdateEvent {
 
+    /** Kafka topic for user role updates. */
+    public static final String TOPIC = "user-role-updates";
+
     /** The unique identifier of the user whose role is being updated. */
     private UUID userId;
 
@@ -0,0 +1,110 @@
+package com.siopa.siopa_stores.kafka;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.siopa.siopa_stores.cache.StoreCache;
+import com.siopa.siopa_stores.index.OwnerStoreIndex;
+import com.siopa.siopa_stores.index.StoreGeoIndex;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent.ChangeType;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reads the {@code store-changes} topic back and applies every change to this instance's {@link StoreGeoIndex}
+ * and {@link OwnerStoreIndex}, so stores created, moved, deleted or given new owners on another instance reach its
+ * nearby searches and owner lookups. Changed stores are also evicted from this instance's {@link StoreCache}, so
+ * lookups by ID and email stop serving the state from before the change.
+ * Each instance listens in a consumer group of its own, named after its host and port so that it is the same across
+ * restarts, and reads every change, including its own, which the indexes have already applied and apply again
+ * without effect. A restarted instance resumes from the group's committed offsets, so changes published while it
+ * was down are not lost. Tombstones and unreadable messages are skipped.
+ * <p>
+ * Events can arrive out of order, when redelivered after a rebalance or when instances publish changes to the same
+ * store from their own blocks of outbox IDs. The version applied to each store is remembered, and an event with a
+ * lower version is skipped as stale. Versions are remembered for the index refresh interval: by then the periodic
+ * reload has read the store from the database, so a stale event arriving later is put right by the next reload.
+ */
+@Component
+public class StoreChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreChangeListener.class);
+
+    /** Maximum number of stores whose applied version is remembered. */
+    private static final long MAX_REMEMBERED_VERSIONS = 1_000_000;
+
+    private final StoreGeoIndex storeGeoIndex;
+    private final OwnerStoreIndex ownerStoreIndex;
+    private final StoreCache storeCache;
+    private final Cache<UUID, Long> appliedVersions;
+
+    /**
+     * Creates the listener.
+     *
+     * @param storeGeoIndex   the geo index the changes are applied to.
+     * @param ownerStoreIndex the owner index the changes are applied to.
+     * @param storeCache      the cache the changed stores are evicted from.
+     * @param versionTtl      how long the version applied to a store is remembered.
+     */
+    public StoreChangeListener(StoreGeoIndex storeGeoIndex, OwnerStoreIndex ownerStoreIndex, StoreCache storeCache,
+                               @Value("${stores.kafka.store-changes.version-ttl:5m}") Duration versionTtl) {
+        this.storeGeoIndex = storeGeoIndex;
+        this.ownerStoreIndex = ownerStoreIndex;
+        this.storeCache = storeCache;
+        this.appliedVersions = Caffeine.newBuilder()
+                .maximumSize(MAX_REMEMBERED_VERSIONS)
+                .expireAfterWrite(versionTtl)
+                .build();
+    }
+
+    /**
+     * Applies a batch of store changes to the in-memory indexes and evicts the changed stores from the cache.
+     *
+     * @param records the polled records, in offset order per partition; changes older than one already applied to
+     *                the same store are skipped.
+     */
+    @KafkaListener(topics = StoreChangedEvent.TOPIC,
+            groupId = "${stores.kafka.store-changes.group-id:siopa-stores-index-"
+                    + "${spring.cloud.client.hostname}-${server.port:8080}}",
+            autoStartup = "${stores.kafka.store-changes.auto-startup:true}",
+            containerFactory = "storeChangesListenerContainerFactory")
+    public void onStoreChanges(List<ConsumerRecord<String, StoreChangedEvent>> records) {
+        Set<UUID> changed = new HashSet<>();
+        int stale = 0;
+        for (ConsumerRecord<String, StoreChangedEvent> record : records) {
+            StoreChangedEvent event = record.value();
+            if (event == null || event.getStoreId() == null || event.getType() == null) {
+                continue;
+            }
+            Long appliedVersion = appliedVersions.getIfPresent(event.getStoreId());
+            if (appliedVersion != null && event.getVersion() < appliedVersion) {
+                stale++;
+                continue;
+            }
+            if (event.getType() == ChangeType.DELETED) {
+                storeGeoIndex.remove(event.getStoreId());
+                ownerStoreIndex.removeStore(event.getStoreId());
+            } else if (event.getStore() != null) {
+                storeGeoIndex.put(event.getStoreId(), event.getStore().getLatitude(), event.getStore().getLongitude());
+                Set<UUID> ownerIds = event.getStore().getOwnerIds();
+                ownerStoreIndex.setOwners(event.getStoreId(), ownerIds == null ? Set.of() : ownerIds);
+            } else {
+                continue;
+            }
+            appliedVersions.put(event.getStoreId(), event.getVersion());
+            changed.add(event.getStoreId());
+        }
+        storeCache.evictStores(changed);
+        logger.debug("Applied changes to {} stores from {} records, skipping {} stale changes",
+                changed.size(), records.size(), stale);
+    }
+}
@@ -0,0 +1,94 @@
+package com.siopa.siopa_stores.kafka;
+
+import com.siopa.siopa_stores.models.Store;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Represents a change to a store, published to the compacted {@code store-changes} topic keyed by store ID.
+ * Each event carries the full state of the store after the change, so the latest event per store is enough
+ * for consumers to keep a local replica; events with a lower version than one already applied are stale.
+ * A {@link ChangeType#DELETED} event is followed by a tombstone, a record with a null value, so compaction
+ * eventually removes the deleted store from the topic; consumers must ignore null values.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StoreChangedEvent {
+
+    /** Kafka topic for store changes. */
+    public static final String TOPIC = "store-changes";
+
+    /**
+     * Kinds of store change.
+     */
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    /** The unique identifier of the store that changed. */
+    private UUID storeId;
+
+    /** What happened to the store. */
+    private ChangeType type;
+
+    /** The version of the store after the change; increases with every change to the same store. */
+    private long version;
+
+    /** The state of the store after the change, or null if it was deleted. */
+    private StoreState store;
+
+    /**
+     * Creates the event for a store that was created or updated.
+     *
+     * @param type  {@link ChangeType#CREATED} or {@link ChangeType#UPDATED}.
+     * @param store the store after the change.
+     * @return the event.
+     */
+    public static StoreChangedEvent of(ChangeType type, Store store) {
+        return new StoreChangedEvent(store.getStoreId(), type, store.getVersion(), StoreState.of(store));
+    }
+
+    /**
+     * Creates the event for a deleted store.
+     *
+     * @param store the store as it was before it was deleted.
+     * @return the event, versioned after the store's last change.
+     */
+    public static StoreChangedEvent deleted(Store store) {
+        return new StoreChangedEvent(store.getStoreId(), ChangeType.DELETED, store.getVersion() + 1, null);
+    }
+
+    /**
+     * The replicated details of a store.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class StoreState {
+        private String name;
+        private String region;
+        private String address;
+        private boolean active;
+        private String phoneNumber;
+        private String email;
+        private double latitude;
+        private double longitude;
+        private String storeType;
+        private int rating;
+        private BigDecimal deliveryFee;
+        private Set<UUID> ownerIds;
+
+        static StoreState of(Store store) {
+            return new StoreState(store.getName(), store.getRegion(), store.getAddress(), store.isActive(),
+                    store.getPhoneNumber(), store.getEmail(), store.getLatitude(), store.getLongitude(),
+                    store.getStoreType(), store.getRating(), store.getDeliveryFee(),
+                    store.getOwnerIds() == null ? Set.of() : Set.copyOf(store.getOwnerIds()));
+        }
+    }
+}
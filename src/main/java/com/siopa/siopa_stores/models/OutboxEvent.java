@@ -0,0 +1,84 @@
+package com.siopa.siopa_stores.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Represents an event waiting in the outbox to be published to Kafka.
+ * Events are written in the same transaction as the change they describe and removed once Kafka acknowledges them.
+ * Events that can never be published are parked in the table for inspection instead.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    /** Number of event IDs taken from the sequence at a time; matches the JDBC batch size. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Sequence number of the event; events are published in this order.
+     * Numbers are handed out in blocks of {@value #ID_ALLOCATION_SIZE}, so the events of a bulk change are inserted
+     * in JDBC batches rather than one round trip each. Each instance numbers from its own block, so events written
+     * by different instances are not necessarily published in the order they were written; consumers of
+     * {@link com.siopa.siopa_stores.kafka.StoreChangedEvent} order them by version.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    /**
+     * Kafka topic the event is published to.
+     */
+    @Column(nullable = false, length = 100)
+    private String topic;
+
+    /**
+     * Kafka record key; events with the same key are published in order.
+     */
+    @Column(name = "event_key", nullable = false, length = 100)
+    private String eventKey;
+
+    /**
+     * Fully qualified class name of the event, used to read the payload back; null for a tombstone.
+     */
+    @Column(name = "event_type", length = 200)
+    private String eventType;
+
+    /**
+     * The event serialized as JSON; null for a tombstone, which is published with a null value.
+     */
+    @Column(columnDefinition = "text")
+    private String payload;
+
+    /**
+     * When the event was written.
+     */
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Number of failed attempts to publish the event.
+     */
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * Until when a relay has claimed the event for publishing; null when unclaimed.
+     */
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+
+    /**
+     * When the event was set aside because it can never be published; parked events are no longer relayed.
+     */
+    @Column(name = "parked_at")
+    private Instant parkedAt;
+}
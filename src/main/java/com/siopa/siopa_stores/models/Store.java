@@ -2,6 +2,8 @@ package com.siopa.siopa_stores.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.UuidGenerator;
 
 import javax.validation.constraints.Email;
@@ -9,14 +11,14 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * Represents a store entity in the system.
  */
 @Entity
-@Table(name = "stores")
+@Table(name = "stores", indexes = @Index(name = "idx_stores_lat_lng", columnList = "latitude, longitude"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -77,12 +79,27 @@ public class Store {
     private String email;
 
     /**
-     * List of owner IDs associated with the store.
+     * Set of owner IDs associated with the store; each owner is linked at most once.
+     * Loaded lazily, in a single query for up to a full page of stores at a time.
+     * Single owners are added and removed with one-row statements, see {@code StoreRepository#insertOwner}.
      */
     @ElementCollection
-    @CollectionTable(name = "store_owners", joinColumns = @JoinColumn(name = "store_id"))
-    @Column(name = "owner_id")
-    private List<UUID> ownerIds;
+    @BatchSize(size = 1000)
+    @CollectionTable(name = "store_owners", joinColumns = @JoinColumn(name = "store_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_store_owners_store_owner",
+                    columnNames = {"store_id", "owner_id"}))
+    @Column(name = "owner_id", nullable = false)
+    private Set<UUID> ownerIds;
+
+    /**
+     * Version used for optimistic locking; bumped on every change, including owner changes,
+     * so a concurrent update based on a stale copy fails instead of overwriting it.
+     * Null only on a store not yet saved, or on an update that does not carry the version it was read with.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 
     /**
      * Latitude coordinate of the store (mandatory).
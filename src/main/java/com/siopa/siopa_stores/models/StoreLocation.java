@@ -0,0 +1,23 @@
+package com.siopa.siopa_stores.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Read-only projection of a {@link Store}'s identifier and coordinates.
+ */
+@Getter
+@AllArgsConstructor
+public class StoreLocation {
+
+    /** Unique identifier of the store. */
+    private final UUID storeId;
+
+    /** Latitude coordinate of the store. */
+    private final double latitude;
+
+    /** Longitude coordinate of the store. */
+    private final double longitude;
+}
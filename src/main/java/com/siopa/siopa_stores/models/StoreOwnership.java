@@ -0,0 +1,20 @@
+package com.siopa.siopa_stores.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Read-only projection of one row of the {@code store_owners} table: a store and one of its owners.
+ */
+@Getter
+@AllArgsConstructor
+public class StoreOwnership {
+
+    /** Unique identifier of the store. */
+    private final UUID storeId;
+
+    /** Unique identifier of the owner. */
+    private final UUID ownerId;
+}
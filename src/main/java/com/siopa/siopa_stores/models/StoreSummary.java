@@ -0,0 +1,48 @@
+package com.siopa.siopa_stores.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Read-only projection of the {@link Store} fields needed to show a store on a map or in a list.
+ * Queried directly by {@link com.siopa.siopa_stores.repositories.StoreRepository}, without loading full entities.
+ */
+@Getter
+@AllArgsConstructor
+public class StoreSummary {
+
+    /** Unique identifier of the store. */
+    private final UUID storeId;
+
+    /** Name of the store. */
+    private final String name;
+
+    /** Latitude coordinate of the store. */
+    private final double latitude;
+
+    /** Longitude coordinate of the store. */
+    private final double longitude;
+
+    /** Type of store (e.g., grocery, electronics, etc.). */
+    private final String storeType;
+
+    /** Rating of the store. */
+    private final int rating;
+
+    /** Delivery fee charged by the store. */
+    private final BigDecimal deliveryFee;
+
+    /**
+     * Creates the summary of an already loaded store.
+     *
+     * @param store the store to summarize.
+     * @return the store's summary.
+     */
+    public static StoreSummary of(Store store) {
+        return new StoreSummary(store.getStoreId(), store.getName(), store.getLatitude(), store.getLongitude(),
+                store.getStoreType(), store.getRating(), store.getDeliveryFee());
+    }
+}
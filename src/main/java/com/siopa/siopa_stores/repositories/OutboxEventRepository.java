@@ -0,0 +1,84 @@
+package com.siopa.siopa_stores.repositories;
+
+import com.siopa.siopa_stores.models.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link OutboxEvent} entities.
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Takes the transaction-scoped advisory lock that only one relay may hold at a time.
+     *
+     * @param lockId the advisory lock key.
+     * @return true if the lock was taken, false if another relay holds it.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockId)", nativeQuery = true)
+    boolean tryLock(long lockId);
+
+    /**
+     * Indicates whether a relay still holds a claim on events it is publishing.
+     *
+     * @param now the current time.
+     * @return true if any event is claimed beyond the given time.
+     */
+    boolean existsByClaimedUntilAfter(Instant now);
+
+    /**
+     * Retrieves the oldest events in the outbox that are not parked.
+     *
+     * @param limit the maximum number of events to return.
+     * @return the events in publishing order.
+     */
+    List<OutboxEvent> findAllByParkedAtIsNullOrderByIdAsc(Limit limit);
+
+    /**
+     * Claims events for publishing until the given time.
+     *
+     * @param ids   the IDs of the events.
+     * @param until when the claim lapses if it has not been released.
+     * @return the number of events claimed.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = :until WHERE e.id IN :ids")
+    int claim(Collection<Long> ids, Instant until);
+
+    /**
+     * Releases the claim on events that were not published, so the next run retries them.
+     *
+     * @param ids the IDs of the events.
+     * @return the number of events released.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = null WHERE e.id IN :ids")
+    int release(Collection<Long> ids);
+
+    /**
+     * Records a failed publishing attempt for each of the given events.
+     *
+     * @param ids the IDs of the events.
+     * @return the number of events updated.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int incrementAttempts(Collection<Long> ids);
+
+    /**
+     * Parks events that can never be published, so they no longer hold back later events with the same key.
+     *
+     * @param ids the IDs of the events.
+     * @param now the current time.
+     * @return the number of events parked.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.parkedAt = :now, e.claimedUntil = null WHERE e.id IN :ids")
+    int park(Collection<Long> ids, Instant now);
+}
@@ -1,26 +1,115 @@
 package com.siopa.siopa_stores.repositories;
 
 import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.models.StoreLocation;
+import com.siopa.siopa_stores.models.StoreOwnership;
+import com.siopa.siopa_stores.models.StoreSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for performing CRUD operations on the {@link Store} entity.
  */
 public interface StoreRepository extends JpaRepository<Store, UUID> {
 
+    /** Select clause building a {@link StoreSummary} for each store {@code s}. */
+    String SUMMARY_SELECT = "SELECT new com.siopa.siopa_stores.models.StoreSummary(s.storeId, s.name, "
+            + "s.latitude, s.longitude, s.storeType, s.rating, s.deliveryFee) FROM Store s ";
+
+    /**
+     * Finds a store by its unique identifier, with its owner IDs loaded so it can be cached.
+     *
+     * @param storeId the unique identifier of the store.
+     * @return an {@link Optional} containing the store if found, otherwise empty.
+     */
+    @Override
+    @EntityGraph(attributePaths = "ownerIds")
+    Optional<Store> findById(UUID storeId);
+
     /**
-     * Finds a store by its email.
+     * Finds a store by its email, with its owner IDs loaded so it can be cached.
      *
      * @param email the email of the store.
      * @return an {@link Optional} containing the store if found, otherwise empty.
      */
+    @EntityGraph(attributePaths = "ownerIds")
     Optional<Store> findByEmail(String email);
 
+    /**
+     * Finds the stores with the given IDs, with their owner IDs loaded so they can be cached.
+     *
+     * @param storeIds the unique identifiers of the stores.
+     * @return a list of the stores found, in no particular order.
+     */
+    @EntityGraph(attributePaths = "ownerIds")
+    List<Store> findAllByStoreIdIn(Collection<UUID> storeIds);
+
+    /**
+     * Links an owner to a store in a single-row insert, leaving an existing link untouched.
+     *
+     * @param storeId the unique identifier of the store.
+     * @param ownerId the unique identifier of the owner.
+     * @return 1 if the link was added, 0 if it already existed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO store_owners (store_id, owner_id) VALUES (:storeId, :ownerId) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertOwner(UUID storeId, UUID ownerId);
+
+    /**
+     * Unlinks an owner from a store in a single-row delete.
+     *
+     * @param storeId the unique identifier of the store.
+     * @param ownerId the unique identifier of the owner.
+     * @return 1 if the link was removed, 0 if there was none.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM store_owners WHERE store_id = :storeId AND owner_id = :ownerId", nativeQuery = true)
+    int deleteOwner(UUID storeId, UUID ownerId);
+
+    /**
+     * Unlinks the given owners from all of their stores in a single statement.
+     * Must run inside a read-write transaction.
+     *
+     * @param ownerIds the unique identifiers of the owners.
+     * @return the removed links, each as a store ID and an owner ID.
+     */
+    @Query(value = "DELETE FROM store_owners WHERE owner_id IN (:ownerIds) RETURNING store_id, owner_id",
+            nativeQuery = true)
+    List<Object[]> deleteOwnersReturningLinks(Collection<UUID> ownerIds);
+
+    /**
+     * Bumps the versions of stores whose owners changed outside the entity, locking their rows until commit.
+     *
+     * @param storeIds the unique identifiers of the stores.
+     * @return the number of stores updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Store s SET s.version = s.version + 1 WHERE s.storeId IN :storeIds")
+    int incrementVersions(Collection<UUID> storeIds);
+
+    /**
+     * Bumps the version of a store whose owners changed outside the entity, locking its row until commit.
+     *
+     * @param storeId the unique identifier of the store.
+     * @return 1 if the store exists, otherwise 0.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Store s SET s.version = s.version + 1 WHERE s.storeId = :storeId")
+    int incrementVersion(UUID storeId);
+
     /**
      * Retrieves all active stores.
      *
@@ -29,11 +118,164 @@ public interface StoreRepository extends JpaRepository<Store, UUID> {
     List<Store> findByIsActiveTrue();
 
     /**
-     * Finds all stores owned by a specific owner.
+     * Retrieves the first stores in store ID order.
+     *
+     * @param limit the maximum number of stores to return.
+     * @return a list of stores ordered by store ID.
+     */
+    List<Store> findAllByOrderByStoreIdAsc(Limit limit);
+
+    /**
+     * Retrieves the stores following the given store ID, in store ID order.
+     *
+     * @param storeId the store ID to continue after.
+     * @param limit   the maximum number of stores to return.
+     * @return a list of stores ordered by store ID.
+     */
+    List<Store> findByStoreIdGreaterThanOrderByStoreIdAsc(UUID storeId, Limit limit);
+
+    /**
+     * Retrieves the first active stores in store ID order.
+     *
+     * @param limit the maximum number of stores to return.
+     * @return a list of active stores ordered by store ID.
+     */
+    List<Store> findByIsActiveTrueOrderByStoreIdAsc(Limit limit);
+
+    /**
+     * Retrieves the active stores following the given store ID, in store ID order.
+     *
+     * @param storeId the store ID to continue after.
+     * @param limit   the maximum number of stores to return.
+     * @return a list of active stores ordered by store ID.
+     */
+    List<Store> findByIsActiveTrueAndStoreIdGreaterThanOrderByStoreIdAsc(UUID storeId, Limit limit);
+
+    /**
+     * Retrieves the summaries of the first stores in store ID order.
+     *
+     * @param limit the maximum number of summaries to return.
+     * @return a list of store summaries ordered by store ID.
+     */
+    @Query(SUMMARY_SELECT + "ORDER BY s.storeId")
+    List<StoreSummary> findSummaries(Limit limit);
+
+    /**
+     * Retrieves the summaries of the stores following the given store ID, in store ID order.
+     *
+     * @param storeId the store ID to continue after.
+     * @param limit   the maximum number of summaries to return.
+     * @return a list of store summaries ordered by store ID.
+     */
+    @Query(SUMMARY_SELECT + "WHERE s.storeId > :storeId ORDER BY s.storeId")
+    List<StoreSummary> findSummariesAfter(UUID storeId, Limit limit);
+
+    /**
+     * Retrieves the summaries of the first active stores in store ID order.
+     *
+     * @param limit the maximum number of summaries to return.
+     * @return a list of active store summaries ordered by store ID.
+     */
+    @Query(SUMMARY_SELECT + "WHERE s.isActive = true ORDER BY s.storeId")
+    List<StoreSummary> findActiveSummaries(Limit limit);
+
+    /**
+     * Retrieves the summaries of the active stores following the given store ID, in store ID order.
+     *
+     * @param storeId the store ID to continue after.
+     * @param limit   the maximum number of summaries to return.
+     * @return a list of active store summaries ordered by store ID.
+     */
+    @Query(SUMMARY_SELECT + "WHERE s.isActive = true AND s.storeId > :storeId ORDER BY s.storeId")
+    List<StoreSummary> findActiveSummariesAfter(UUID storeId, Limit limit);
+
+    /**
+     * Retrieves the summaries of the stores with the given IDs, in no particular order.
+     *
+     * @param storeIds the unique identifiers of the stores.
+     * @return a list of store summaries; unknown IDs are skipped.
+     */
+    @Query(SUMMARY_SELECT + "WHERE s.storeId IN :storeIds")
+    List<StoreSummary> findSummariesByStoreIdIn(Collection<UUID> storeIds);
+
+    /**
+     * Retrieves the summaries of all stores owned by a specific owner.
+     *
+     * @param ownerId the unique identifier of the owner.
+     * @return a list of summaries of the stores owned by the specified owner.
+     */
+    @Query(SUMMARY_SELECT + "JOIN s.ownerIds o WHERE o = :ownerId")
+    List<StoreSummary> findSummariesByOwnerId(UUID ownerId);
+
+    /**
+     * Finds all stores owned by a specific owner, with their owner IDs loaded so they can be serialized
+     * outside a session.
      *
      * @param ownerId the unique identifier of the owner.
      * @return a list of stores owned by the specified owner.
      */
+    @EntityGraph(attributePaths = "ownerIds")
     @Query("SELECT s FROM Store s JOIN s.ownerIds o WHERE o = :ownerId")
     List<Store> findByOwnerId(UUID ownerId);
+
+    /**
+     * Finds all stores whose coordinates fall inside a latitude/longitude rectangle.
+     * Backed by the composite {@code idx_stores_lat_lng} index. The rectangle must not span the antimeridian.
+     * Owner IDs are loaded with the stores, so they can be serialized outside a session.
+     *
+     * @param minLatitude  the southern edge of the rectangle.
+     * @param maxLatitude  the northern edge of the rectangle.
+     * @param minLongitude the western edge of the rectangle.
+     * @param maxLongitude the eastern edge of the rectangle.
+     * @return a list of stores inside the rectangle.
+     */
+    @EntityGraph(attributePaths = "ownerIds")
+    @Query("SELECT s FROM Store s WHERE s.latitude BETWEEN :minLatitude AND :maxLatitude "
+            + "AND s.longitude BETWEEN :minLongitude AND :maxLongitude")
+    List<Store> findWithinBoundingBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude);
+
+    /**
+     * Streams every store through a database cursor, fetching rows in batches, ordered by store ID.
+     * Owner IDs are not fetched; read them in the same order with {@link #streamAllOwnershipsOrderByStoreId()}.
+     * Must be consumed inside a transaction and closed afterwards.
+     *
+     * @return a stream of all stores.
+     */
+    @Query("SELECT s FROM Store s ORDER BY s.storeId")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Store> streamAll();
+
+    /**
+     * Streams the identifier and coordinates of every store, without loading full entities.
+     * Must be consumed inside a transaction and closed afterwards.
+     *
+     * @return a stream of store locations.
+     */
+    @Query("SELECT new com.siopa.siopa_stores.models.StoreLocation(s.storeId, s.latitude, s.longitude) FROM Store s")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<StoreLocation> streamAllLocations();
+
+    /**
+     * Streams every store/owner pair of the {@code store_owners} table, without loading full entities.
+     * Must be consumed inside a transaction and closed afterwards.
+     *
+     * @return a stream of store ownerships.
+     */
+    @Query("SELECT new com.siopa.siopa_stores.models.StoreOwnership(s.storeId, o) FROM Store s JOIN s.ownerIds o")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<StoreOwnership> streamAllOwnerships();
+
+    /**
+     * Streams every store/owner pair ordered by store ID, matching the order of {@link #streamAll()}.
+     * Must be consumed inside a transaction and closed afterwards.
+     *
+     * @return a stream of store ownerships.
+     */
+    @Query("SELECT new com.siopa.siopa_stores.models.StoreOwnership(s.storeId, o) FROM Store s JOIN s.ownerIds o "
+            + "ORDER BY s.storeId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<StoreOwnership> streamAllOwnershipsOrderByStoreId();
 }
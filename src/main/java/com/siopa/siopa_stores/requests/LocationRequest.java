@@ -6,7 +6,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 /**
- * Represents a request for latitude and longitude.
+ * Represents a request for latitude and longitude, with an optional search radius and result limit.
  */
 @Getter
 @Setter
@@ -15,4 +15,15 @@ import lombok.Setter;
 public class LocationRequest {
     public double latitude;
     public double longitude;
-}
\ No newline at end of file
+
+    /** Search radius in miles; the service default is used when null. */
+    public Double radius;
+
+    /** Maximum number of stores to return, nearest first; all matches are returned when null. */
+    public Integer limit;
+
+    public LocationRequest(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+}
@@ -0,0 +1,42 @@
+package com.siopa.siopa_stores.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Represents the outcome of one store in a bulk create or update request.
+ */
+@Getter
+@AllArgsConstructor
+public class BatchItemResult {
+
+    /** Position of the store in the request payload, starting at 0. */
+    private final int index;
+
+    /** Unique identifier of the store, or null if it was not created. */
+    private final UUID storeId;
+
+    /** What happened to the store. */
+    private final Status status;
+
+    /** Why the store was not written, or null if it was. */
+    private final String error;
+
+    /**
+     * Outcome of one store in a bulk request.
+     */
+    public enum Status {
+        /** The store was created. */
+        CREATED,
+        /** The store was updated. */
+        UPDATED,
+        /** The store failed validation and was not written. */
+        INVALID,
+        /** No store exists with the given ID. */
+        NOT_FOUND,
+        /** The store was valid but the database rejected it. */
+        FAILED
+    }
+}
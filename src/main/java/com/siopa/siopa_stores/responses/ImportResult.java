@@ -0,0 +1,21 @@
+package com.siopa.siopa_stores.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Represents the outcome of a bulk store import.
+ */
+@Getter
+@AllArgsConstructor
+public class ImportResult {
+
+    /** Number of stores imported. */
+    private final long imported;
+
+    /** Number of owner links imported. */
+    private final long owners;
+
+    /** Number of records skipped because they failed validation. */
+    private final long skipped;
+}
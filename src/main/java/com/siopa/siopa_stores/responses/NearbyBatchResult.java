@@ -0,0 +1,28 @@
+package com.siopa.siopa_stores.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Represents the answer to one location of a batch nearby search.
+ *
+ * @param <T> the representation of the stores, either full stores or summaries.
+ */
+@Getter
+@AllArgsConstructor
+public class NearbyBatchResult<T> {
+
+    /** Position of the location in the request, starting at 0. */
+    private final int index;
+
+    /** Latitude of the location. */
+    private final double latitude;
+
+    /** Longitude of the location. */
+    private final double longitude;
+
+    /** The stores near the location with their distances, nearest first. */
+    private final List<NearbyStore<T>> stores;
+}
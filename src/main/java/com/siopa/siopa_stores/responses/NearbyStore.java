@@ -0,0 +1,23 @@
+package com.siopa.siopa_stores.responses;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Represents a store returned by a nearby search, together with its distance from the search point.
+ * The store's fields are serialized inline, alongside {@code distance}.
+ *
+ * @param <T> the representation of the store, either a full store or a summary.
+ */
+@Getter
+@AllArgsConstructor
+public class NearbyStore<T> {
+
+    /** The matching store. */
+    @JsonUnwrapped
+    private final T store;
+
+    /** Distance from the search point in miles. */
+    private final double distance;
+}
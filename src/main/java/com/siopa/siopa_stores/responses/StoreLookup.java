@@ -0,0 +1,26 @@
+package com.siopa.siopa_stores.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.siopa.siopa_stores.models.Store;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Represents the answer for one store ID of a multi-store lookup.
+ */
+@Getter
+@AllArgsConstructor
+public class StoreLookup {
+
+    /** The requested store ID. */
+    private final UUID storeId;
+
+    /** Whether a store exists with this ID. */
+    private final boolean found;
+
+    /** The store, or null (and omitted) if it was not found. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Store store;
+}
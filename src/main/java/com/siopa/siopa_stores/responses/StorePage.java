@@ -0,0 +1,23 @@
+package com.siopa.siopa_stores.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Represents one page of a keyset-paginated store listing.
+ *
+ * @param <T> the representation of the stores, either full stores or summaries.
+ */
+@Getter
+@AllArgsConstructor
+public class StorePage<T> {
+
+    /** The stores on this page, ordered by store ID. */
+    private final List<T> stores;
+
+    /** The cursor to request the next page with, or null if this is the last page. */
+    private final UUID nextCursor;
+}
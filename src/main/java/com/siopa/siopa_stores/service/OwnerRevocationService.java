@@ -0,0 +1,72 @@
+package com.siopa.siopa_stores.service;
+
+import com.siopa.siopa_stores.cache.StoreCache;
+import com.siopa.siopa_stores.index.OwnerStoreIndex;
+import com.siopa.siopa_stores.kafka.EventOutbox;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent.ChangeType;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.models.StoreOwnership;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Service class responsible for removing owners from their stores in bulk, when the user service revokes their
+ * ownership. A whole batch of owners is unlinked in one statement and one transaction, rather than one store at a time.
+ */
+@Service
+@RequiredArgsConstructor
+public class OwnerRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OwnerRevocationService.class);
+
+    /** Largest number of store IDs updated or loaded in one statement. */
+    private static final int STORE_CHUNK_SIZE = 1000;
+
+    private final StoreRepository storeRepository;
+    private final StoreCache storeCache;
+    private final OwnerStoreIndex ownerStoreIndex;
+    private final EventOutbox eventOutbox;
+
+    /**
+     * Removes the given owners from every store they own.
+     * The affected stores are versioned, evicted from the cache and published as changed, as for a single removal.
+     *
+     * @param ownerIds the unique identifiers of the owners.
+     * @return the number of store ownerships removed.
+     */
+    @Transactional
+    public int revokeOwners(Collection<UUID> ownerIds) {
+        if (ownerIds.isEmpty()) {
+            return 0;
+        }
+        List<StoreOwnership> removed = storeRepository.deleteOwnersReturningLinks(ownerIds).stream()
+                .map(row -> new StoreOwnership((UUID) row[0], (UUID) row[1]))
+                .toList();
+        if (removed.isEmpty()) {
+            logger.debug("None of {} revoked owners owned a store", ownerIds.size());
+            return 0;
+        }
+
+        List<UUID> storeIds = removed.stream().map(StoreOwnership::getStoreId).distinct().toList();
+        for (int from = 0; from < storeIds.size(); from += STORE_CHUNK_SIZE) {
+            List<UUID> chunk = storeIds.subList(from, Math.min(from + STORE_CHUNK_SIZE, storeIds.size()));
+            storeRepository.incrementVersions(chunk);
+            for (Store store : storeRepository.findAllByStoreIdIn(chunk)) {
+                storeCache.evict(store.getStoreId(), store.getEmail());
+                eventOutbox.enqueue(StoreChangedEvent.TOPIC, store.getStoreId().toString(),
+                        StoreChangedEvent.of(ChangeType.UPDATED, store));
+            }
+        }
+        removed.forEach(link -> ownerStoreIndex.remove(link.getOwnerId(), link.getStoreId()));
+
+        logger.info("Revoked {} owners from {} stores", ownerIds.size(), storeIds.size());
+        return removed.size();
+    }
+}
@@ -0,0 +1,64 @@
+package com.siopa.siopa_stores.service;
+
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.requests.LocationRequest;
+import com.siopa.siopa_stores.responses.NearbyStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Service class exposing the read-only store lookups as publishers.
+ * The lookups still run blocking JPA queries: they are answered by {@link StoreService}, with the same caching,
+ * indexes and distance logic, on the capped {@code storeLookupScheduler} thread pool, so the blocking happens there
+ * rather than on the subscriber's thread, and at most as many queries run at once as the pool has threads.
+ * Stores are returned with their owner IDs loaded, as they are serialized after the session has closed.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveStoreService {
+
+    private final StoreService storeService;
+    private final Scheduler storeLookupScheduler;
+
+    /**
+     * Retrieves a store by its unique identifier.
+     *
+     * @param storeId the UUID of the store.
+     * @return a {@link Mono} emitting the store, or completing empty if it does not exist.
+     */
+    public Mono<Store> getStoreById(UUID storeId) {
+        return lookup(() -> storeService.getStoreById(storeId).orElse(null));
+    }
+
+    /**
+     * Retrieves the stores owned by a specific owner.
+     *
+     * @param ownerId the unique identifier of the owner.
+     * @return a {@link Flux} emitting the owner's stores.
+     */
+    public Flux<Store> getStoresByOwner(UUID ownerId) {
+        return lookup(() -> storeService.getStoresByOwner(ownerId)).flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Finds stores near a location, nearest first.
+     *
+     * @param locationRequest the location, and optionally the radius and limit, of the search.
+     * @return a {@link Flux} emitting the stores with their distances; it fails with
+     *         {@link com.siopa.siopa_stores.exceptions.InvalidRequestException} if the request is invalid.
+     */
+    public Flux<NearbyStore<Store>> findStoresByLatLng(LocationRequest locationRequest) {
+        return lookup(() -> storeService.findStoresByLatLng(locationRequest)).flatMapIterable(Function.identity());
+    }
+
+    private <T> Mono<T> lookup(Callable<T> lookup) {
+        return Mono.fromCallable(lookup).subscribeOn(storeLookupScheduler);
+    }
+}
@@ -0,0 +1,256 @@
+package com.siopa.siopa_stores.service;
+
+import com.siopa.siopa_stores.cache.StoreCache;
+import com.siopa.siopa_stores.exceptions.InvalidRequestException;
+import com.siopa.siopa_stores.helpers.StoreValidation;
+import com.siopa.siopa_stores.index.OwnerStoreIndex;
+import com.siopa.siopa_stores.kafka.EventOutbox;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent.ChangeType;
+import com.siopa.siopa_stores.index.StoreGeoIndex;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+import com.siopa.siopa_stores.responses.BatchItemResult;
+import com.siopa.siopa_stores.responses.BatchItemResult.Status;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Service class responsible for creating and updating many stores in one request.
+ * The whole payload is validated first; valid stores are then written in chunks, one transaction per chunk,
+ * so Hibernate can group the inserts and updates of a chunk into JDBC batches.
+ * A chunk the database rejects is retried one store at a time, so one bad store does not fail its neighbours.
+ */
+@Service
+public class StoreBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreBatchService.class);
+
+    /** Largest number of stores a bulk request may contain. */
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private final StoreRepository storeRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final StoreGeoIndex storeGeoIndex;
+    private final OwnerStoreIndex ownerStoreIndex;
+    private final StoreCache storeCache;
+    private final EventOutbox eventOutbox;
+    private final int chunkSize;
+
+    /**
+     * Creates the service.
+     *
+     * @param storeRepository    repository used to load stores for update.
+     * @param entityManager      entity manager the stores are written through.
+     * @param transactionManager transaction manager each chunk runs in.
+     * @param storeGeoIndex      geo index kept in step with created stores.
+     * @param ownerStoreIndex    owner index kept in step with store owners.
+     * @param storeCache         cache invalidated when stores are updated.
+     * @param eventOutbox        outbox the store changes are published through, with each chunk.
+     * @param chunkSize          number of stores written per transaction; should match the JDBC batch size.
+     */
+    public StoreBatchService(StoreRepository storeRepository, EntityManager entityManager,
+                             PlatformTransactionManager transactionManager, StoreGeoIndex storeGeoIndex,
+                             OwnerStoreIndex ownerStoreIndex, StoreCache storeCache, EventOutbox eventOutbox,
+                             @Value("${stores.batch.chunk-size:50}") int chunkSize) {
+        this.storeRepository = storeRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.storeGeoIndex = storeGeoIndex;
+        this.ownerStoreIndex = ownerStoreIndex;
+        this.storeCache = storeCache;
+        this.eventOutbox = eventOutbox;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates many stores. Any store IDs in the payload are ignored and new ones generated.
+     *
+     * @param stores the stores to create.
+     * @return one result per store, in payload order.
+     * @throws InvalidRequestException if the payload is empty or too large.
+     */
+    public List<BatchItemResult> createStores(List<Store> stores) {
+        checkSize(stores);
+        logger.info("Creating {} stores in bulk", stores.size());
+        BatchItemResult[] results = new BatchItemResult[stores.size()];
+        List<Integer> valid = validate(stores, results, false);
+
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            createChunk(stores, valid.subList(from, Math.min(from + chunkSize, valid.size())), results);
+        }
+        return summarize(results, "created");
+    }
+
+    /**
+     * Updates many existing stores, identified by the store ID of each item.
+     * The same details are updated as by {@link StoreService#updateStore(UUID, Store)}.
+     *
+     * @param stores the updated stores.
+     * @return one result per store, in payload order.
+     * @throws InvalidRequestException if the payload is empty or too large.
+     */
+    public List<BatchItemResult> updateStores(List<Store> stores) {
+        checkSize(stores);
+        logger.info("Updating {} stores in bulk", stores.size());
+        BatchItemResult[] results = new BatchItemResult[stores.size()];
+        List<Integer> valid = validate(stores, results, true);
+
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            updateChunk(stores, valid.subList(from, Math.min(from + chunkSize, valid.size())), results);
+        }
+        return summarize(results, "updated");
+    }
+
+    private void createChunk(List<Store> stores, List<Integer> chunk, BatchItemResult[] results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int index : chunk) {
+                    Store store = stores.get(index);
+                    store.setStoreId(null);
+                    if (store.getOwnerIds() == null) {
+                        store.setOwnerIds(new HashSet<>());
+                    }
+                    entityManager.persist(store);
+                }
+                entityManager.flush();
+                for (int index : chunk) {
+                    publishChange(ChangeType.CREATED, stores.get(index));
+                }
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            retryOneByOne(chunk, e, results, index -> createChunk(stores, List.of(index), results));
+            return;
+        }
+
+        for (int index : chunk) {
+            Store store = stores.get(index);
+            results[index] = new BatchItemResult(index, store.getStoreId(), Status.CREATED, null);
+            storeGeoIndex.put(store.getStoreId(), store.getLatitude(), store.getLongitude());
+            StoreService.owners(store).forEach(ownerId -> ownerStoreIndex.add(ownerId, store.getStoreId()));
+        }
+    }
+
+    private void updateChunk(List<Store> stores, List<Integer> chunk, BatchItemResult[] results) {
+        Map<Integer, Set<UUID>> previousOwners;
+        try {
+            previousOwners = transactionTemplate.execute(status -> {
+                List<UUID> storeIds = chunk.stream().map(index -> stores.get(index).getStoreId()).toList();
+                Map<UUID, Store> existing = storeRepository.findAllById(storeIds).stream()
+                        .collect(Collectors.toMap(Store::getStoreId, Function.identity()));
+
+                Map<Integer, Set<UUID>> owners = new HashMap<>();
+                for (int index : chunk) {
+                    Store updatedStore = stores.get(index);
+                    Store store = existing.get(updatedStore.getStoreId());
+                    if (store != null) {
+                        owners.put(index, new HashSet<>(StoreService.owners(store)));
+                        storeCache.evict(store.getStoreId(), store.getEmail(), updatedStore.getEmail());
+                        StoreService.applyUpdate(store, updatedStore);
+                    }
+                }
+                entityManager.flush();
+                // Published after the flush, so the events carry the new versions.
+                for (Store store : existing.values()) {
+                    publishChange(ChangeType.UPDATED, store);
+                }
+                entityManager.clear();
+                return owners;
+            });
+        } catch (RuntimeException e) {
+            retryOneByOne(chunk, e, results, index -> updateChunk(stores, List.of(index), results));
+            return;
+        }
+
+        for (int index : chunk) {
+            Store updatedStore = stores.get(index);
+            UUID storeId = updatedStore.getStoreId();
+            Set<UUID> owners = previousOwners.get(index);
+            if (owners == null) {
+                results[index] = new BatchItemResult(index, storeId, Status.NOT_FOUND, "Store not found");
+                continue;
+            }
+            results[index] = new BatchItemResult(index, storeId, Status.UPDATED, null);
+            owners.forEach(ownerId -> ownerStoreIndex.remove(ownerId, storeId));
+            StoreService.owners(updatedStore).forEach(ownerId -> ownerStoreIndex.add(ownerId, storeId));
+        }
+    }
+
+    private void publishChange(ChangeType type, Store store) {
+        eventOutbox.enqueue(StoreChangedEvent.TOPIC, store.getStoreId().toString(), StoreChangedEvent.of(type, store));
+    }
+
+    /**
+     * Retries a rejected chunk one store at a time, or records the failure if the chunk was a single store.
+     */
+    private void retryOneByOne(List<Integer> chunk, RuntimeException e, BatchItemResult[] results,
+                               IntConsumer writeOne) {
+        if (chunk.size() > 1) {
+            logger.warn("Chunk of {} stores was rejected, retrying one at a time: {}", chunk.size(), e.getMessage());
+            chunk.forEach(writeOne::accept);
+            return;
+        }
+        int index = chunk.get(0);
+        logger.error("Store at index {} could not be saved", index, e);
+        results[index] = new BatchItemResult(index, null, Status.FAILED,
+                "Store could not be saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+    }
+
+    /**
+     * Validates every store, recording invalid ones, and returns the indexes of the valid stores.
+     * Emails, and for updates store IDs, must also be unique within the payload.
+     */
+    private List<Integer> validate(List<Store> stores, BatchItemResult[] results, boolean update) {
+        List<Integer> valid = new ArrayList<>(stores.size());
+        Set<String> emails = new HashSet<>();
+        Set<UUID> storeIds = new HashSet<>();
+        for (int index = 0; index < stores.size(); index++) {
+            Store store = stores.get(index);
+            Optional<String> error = StoreValidation.validate(store);
+            if (error.isEmpty() && update && store.getStoreId() == null) {
+                error = Optional.of("Store ID is mandatory");
+            }
+            if (error.isEmpty() && update && !storeIds.add(store.getStoreId())) {
+                error = Optional.of("Store ID appears more than once in the request");
+            }
+            if (error.isEmpty() && !emails.add(store.getEmail())) {
+                error = Optional.of("Email appears more than once in the request");
+            }
+
+            if (error.isPresent()) {
+                UUID storeId = update && store != null ? store.getStoreId() : null;
+                results[index] = new BatchItemResult(index, storeId, Status.INVALID, error.get());
+            } else {
+                valid.add(index);
+            }
+        }
+        return valid;
+    }
+
+    private List<BatchItemResult> summarize(BatchItemResult[] results, String action) {
+        Map<Status, Long> counts = Arrays.stream(results)
+                .collect(Collectors.groupingBy(BatchItemResult::getStatus, () -> new EnumMap<>(Status.class),
+                        Collectors.counting()));
+        logger.info("Bulk request {} stores: {}", action, counts);
+        return Arrays.asList(results);
+    }
+
+    private static void checkSize(List<Store> stores) {
+        if (stores == null || stores.isEmpty() || stores.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("A bulk request must contain between 1 and " + MAX_BATCH_SIZE + " stores");
+        }
+    }
+}
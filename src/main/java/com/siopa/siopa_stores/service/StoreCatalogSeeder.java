@@ -0,0 +1,147 @@
+package com.siopa.siopa_stores.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.siopa_stores.helpers.StoreCatalogGenerator;
+import com.siopa.siopa_stores.helpers.StoreCsv;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+import com.siopa.siopa_stores.responses.ImportResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Seeds a synthetic store catalog at startup, for sizing and load testing. Enabled by setting
+ * {@code stores.seed.size}; the catalog is imported into the database through {@link StoreImportService},
+ * or written to {@code stores.seed.output} as CSV or NDJSON (by file extension) in the export layout,
+ * ready for the import endpoints or benchmarks.
+ * Importing is skipped if the database already holds stores, so the setting can stay on across restarts.
+ */
+@Service
+@ConditionalOnProperty(name = "stores.seed.size")
+public class StoreCatalogSeeder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreCatalogSeeder.class);
+
+    /** File extensions the catalog can be written as. */
+    private static final List<String> OUTPUT_EXTENSIONS = List.of(".csv", ".ndjson", ".jsonl");
+
+    private final StoreImportService storeImportService;
+    private final StoreRepository storeRepository;
+    private final ObjectMapper objectMapper;
+    private final long size;
+    private final long seed;
+    private final String output;
+
+    /**
+     * Creates the seeder.
+     *
+     * @param storeImportService service the catalog is imported through.
+     * @param storeRepository    repository checked for existing stores before importing.
+     * @param objectMapper       mapper used to write NDJSON.
+     * @param size               the number of stores to generate.
+     * @param seed               the random seed; the same seed and size always give the same catalog.
+     * @param output             the file to write the catalog to, or blank to import it into the database.
+     */
+    public StoreCatalogSeeder(StoreImportService storeImportService, StoreRepository storeRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${stores.seed.size}") long size,
+                              @Value("${stores.seed.seed:42}") long seed,
+                              @Value("${stores.seed.output:}") String output) {
+        this.storeImportService = storeImportService;
+        this.storeRepository = storeRepository;
+        this.objectMapper = objectMapper;
+        this.size = size;
+        this.seed = seed;
+        this.output = output;
+    }
+
+    /**
+     * Generates the catalog and imports or writes it. Nothing is imported if the database already holds stores,
+     * and an unsupported output file is rejected before it is opened.
+     *
+     * @param args the application arguments, unused.
+     * @throws IOException if reading or writing the catalog fails.
+     * @throws IllegalArgumentException if the output file extension is not recognised.
+     */
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        StoreCatalogGenerator generator = new StoreCatalogGenerator(seed, size);
+        if (output.isBlank()) {
+            long existing = storeRepository.count();
+            if (existing > 0) {
+                logger.info("Database already holds {} stores, skipping the synthetic catalog", existing);
+                return;
+            }
+            logger.info("Seeding {} synthetic stores (seed {}) into the database", size, seed);
+            ImportResult result = storeImportService.importStores(generator);
+            logger.info("Seeded {} stores with {} owner links", result.getImported(), result.getOwners());
+            return;
+        }
+
+        Path path = Path.of(output);
+        checkOutputName(path.getFileName().toString());
+        logger.info("Writing {} synthetic stores (seed {}) to {}", size, seed, path);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            long written = write(generator, path.getFileName().toString(), out);
+            logger.info("Wrote {} stores to {}", written, path);
+        }
+    }
+
+    /**
+     * Writes stores in the format named by the file extension: {@code .csv}, or {@code .ndjson} / {@code .jsonl}.
+     *
+     * @param stores   the stores to write.
+     * @param fileName the name of the file being written.
+     * @param out      the stream to write to; it is flushed but not closed.
+     * @return the number of stores written.
+     * @throws IOException if writing fails.
+     * @throws IllegalArgumentException if the extension is not recognised.
+     */
+    long write(Iterator<Store> stores, String fileName, OutputStream out) throws IOException {
+        checkOutputName(fileName);
+        String name = fileName.toLowerCase(Locale.ROOT);
+        long count = 0;
+        if (name.endsWith(".csv")) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(StoreCsv.HEADER);
+            writer.write('\n');
+            while (stores.hasNext()) {
+                writer.write(StoreCsv.toRow(stores.next()));
+                writer.write('\n');
+                count++;
+            }
+            writer.flush();
+        } else {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (stores.hasNext()) {
+                generator.writeObject(stores.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+            generator.close();
+        }
+        return count;
+    }
+
+    private static void checkOutputName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (OUTPUT_EXTENSIONS.stream().noneMatch(name::endsWith)) {
+            throw new IllegalArgumentException("Seed output must end in .csv, .ndjson or .jsonl: " + fileName);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.siopa.siopa_stores.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.siopa_stores.helpers.StoreCsv;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.models.StoreOwnership;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Service class responsible for streaming the full store catalog to downstream consumers.
+ * Stores are read through a database cursor and written one at a time, so memory use does not grow with the catalog.
+ * Their owner IDs come from a second cursor over the owner links in the same store order, rather than one query
+ * per store. Both cursors run in one repeatable-read transaction, so they read the same snapshot of the catalog.
+ */
+@Service
+@RequiredArgsConstructor
+public class StoreExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreExportService.class);
+
+    /** Number of stores written between flushes of the output. */
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final StoreRepository storeRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every store as newline-delimited JSON, one store per line.
+     *
+     * @param out the stream to write to; it is flushed but not closed.
+     * @return the number of stores written.
+     * @throws IOException if writing fails.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long exportNdjson(OutputStream out) throws IOException {
+        logger.info("Exporting stores as NDJSON");
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        long count = 0;
+        try (Stream<Store> stores = storeRepository.streamAll();
+             Stream<StoreOwnership> ownerships = storeRepository.streamAllOwnershipsOrderByStoreId()) {
+            Iterator<Store> iterator = stores.iterator();
+            OwnerCursor owners = new OwnerCursor(ownerships.iterator());
+            while (iterator.hasNext()) {
+                Store store = withOwners(iterator.next(), owners);
+                generator.writeObject(store);
+                generator.writeRaw('\n');
+                if (++count == 1 || count % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        generator.close();
+        logger.info("Exported {} stores as NDJSON", count);
+        return count;
+    }
+
+    /**
+     * Writes every store as CSV, preceded by a header row.
+     *
+     * @param out the stream to write to; it is flushed but not closed.
+     * @return the number of stores written.
+     * @throws IOException if writing fails.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long exportCsv(OutputStream out) throws IOException {
+        logger.info("Exporting stores as CSV");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(StoreCsv.HEADER);
+        writer.write('\n');
+        writer.flush();
+
+        long count = 0;
+        try (Stream<Store> stores = storeRepository.streamAll();
+             Stream<StoreOwnership> ownerships = storeRepository.streamAllOwnershipsOrderByStoreId()) {
+            Iterator<Store> iterator = stores.iterator();
+            OwnerCursor owners = new OwnerCursor(ownerships.iterator());
+            while (iterator.hasNext()) {
+                Store store = withOwners(iterator.next(), owners);
+                writer.write(StoreCsv.toRow(store));
+                writer.write('\n');
+                if (++count % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} stores as CSV", count);
+        return count;
+    }
+
+    /**
+     * Detaches a streamed store and sets its owner IDs from the owner cursor, so they are not loaded lazily.
+     */
+    private Store withOwners(Store store, OwnerCursor owners) {
+        entityManager.detach(store);
+        store.setOwnerIds(owners.ownersOf(store.getStoreId()));
+        return store;
+    }
+
+    /**
+     * Walks the owner links alongside the stores. Both are ordered by store ID, so the links of a store are the run
+     * at the cursor with its ID. Links of a store the store cursor did not return, which only a cursor reading a
+     * different snapshot can see, are skipped rather than holding the cursor back for every later store.
+     */
+    private static final class OwnerCursor {
+        private final Iterator<StoreOwnership> ownerships;
+        private StoreOwnership next;
+
+        private OwnerCursor(Iterator<StoreOwnership> ownerships) {
+            this.ownerships = ownerships;
+            this.next = ownerships.hasNext() ? ownerships.next() : null;
+        }
+
+        private Set<UUID> ownersOf(UUID storeId) {
+            while (next != null && compareAsDatabase(next.getStoreId(), storeId) < 0) {
+                advance();
+            }
+            Set<UUID> ownerIds = new HashSet<>();
+            while (next != null && next.getStoreId().equals(storeId)) {
+                ownerIds.add(next.getOwnerId());
+                advance();
+            }
+            return ownerIds;
+        }
+
+        private void advance() {
+            next = ownerships.hasNext() ? ownerships.next() : null;
+        }
+    }
+
+    /**
+     * Compares store IDs in the order the database sorts them, byte by byte as unsigned values,
+     * which {@link UUID#compareTo} does not follow.
+     */
+    static int compareAsDatabase(UUID first, UUID second) {
+        int byMostSignificant = Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits());
+        return byMostSignificant != 0 ? byMostSignificant
+                : Long.compareUnsigned(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+    }
+}
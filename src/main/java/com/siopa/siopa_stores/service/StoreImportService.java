@@ -0,0 +1,249 @@
+package com.siopa.siopa_stores.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.siopa_stores.cache.StoreCache;
+import com.siopa.siopa_stores.exceptions.InvalidRequestException;
+import com.siopa.siopa_stores.helpers.StoreCsv;
+import com.siopa.siopa_stores.helpers.StoreValidation;
+import com.siopa.siopa_stores.index.OwnerStoreIndex;
+import com.siopa.siopa_stores.index.StoreGeoIndex;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.responses.ImportResult;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service class responsible for initial loads of very large store catalogs.
+ * Stores are streamed from the input straight into PostgreSQL {@code COPY} commands, bypassing JPA entirely,
+ * so memory use stays constant however many stores are imported. Owner links are spooled to a temporary file
+ * while the stores are copied, then copied in a second command; both run in a single transaction, so an import
+ * either lands completely or not at all.
+ */
+@Service
+@RequiredArgsConstructor
+public class StoreImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreImportService.class);
+
+    static final String COPY_STORES = "COPY stores (store_id, name, region, address, is_active, phone_number, email, "
+            + "latitude, longitude, store_type, rating, delivery_fee, version) FROM STDIN WITH (FORMAT csv)";
+
+    static final String COPY_OWNERS = "COPY store_owners (store_id, owner_id) FROM STDIN WITH (FORMAT csv)";
+
+    /** Number of characters buffered before they are sent to the database. */
+    private static final int COPY_BUFFER_SIZE = 1 << 20;
+
+    /** Number of imported stores between progress reports. */
+    private static final int PROGRESS_INTERVAL = 100_000;
+
+    /** Number of skipped records reported individually before only the total is reported. */
+    private static final int REPORTED_SKIPS = 10;
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final StoreGeoIndex storeGeoIndex;
+    private final OwnerStoreIndex ownerStoreIndex;
+    private final StoreCache storeCache;
+
+    /**
+     * Imports stores from CSV in the layout written by the catalog export.
+     *
+     * @param in the CSV to read; it is not closed.
+     * @return the number of stores and owner links imported, and of records skipped.
+     * @throws IOException if reading the input fails.
+     * @throws InvalidRequestException if the CSV is malformed; nothing is imported.
+     */
+    public ImportResult importCsv(InputStream in) throws IOException {
+        logger.info("Importing stores from CSV");
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return importStores(StoreCsv.read(reader));
+    }
+
+    /**
+     * Imports stores from newline-delimited JSON, one store per line, as written by the catalog export.
+     *
+     * @param in the NDJSON to read; it is not closed.
+     * @return the number of stores and owner links imported, and of records skipped.
+     * @throws IOException if reading the input fails.
+     * @throws InvalidRequestException if the NDJSON is malformed; nothing is imported.
+     */
+    public ImportResult importNdjson(InputStream in) throws IOException {
+        logger.info("Importing stores from NDJSON");
+        try (MappingIterator<Store> stores = objectMapper.readerFor(Store.class).readValues(in)) {
+            return importStores(stores);
+        } catch (RuntimeException e) {
+            // The iterator reports malformed input as an unchecked wrapper around the parse error.
+            if (e.getCause() instanceof JsonProcessingException parseError) {
+                throw new InvalidRequestException("Invalid NDJSON: " + parseError.getOriginalMessage(), e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Imports stores, keeping their store IDs when present and generating them otherwise.
+     * Stores failing validation are skipped. Once the import commits, cached lookups are evicted and the geo and
+     * owner indexes are reloaded, unless they have not made their initial load yet, as when the catalog is seeded
+     * at startup, in which case that load reads the imported stores.
+     *
+     * @param stores the stores to import, consumed once.
+     * @return the number of stores and owner links imported, and of records skipped.
+     * @throws IOException if reading the input or spooling owner links fails.
+     * @throws IllegalStateException if the database rejects the import; nothing is imported.
+     */
+    public ImportResult importStores(Iterator<Store> stores) throws IOException {
+        Path ownersFile = Files.createTempFile("store-owners", ".csv");
+        ImportResult result;
+        try (Connection connection = dataSource.getConnection()) {
+            result = copy(connection, stores, ownersFile);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Store import failed, nothing was imported: " + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(ownersFile);
+        }
+
+        logger.info("Imported {} stores with {} owner links ({} records skipped), refreshing derived data",
+                result.getImported(), result.getOwners(), result.getSkipped());
+        storeGeoIndex.refresh();
+        ownerStoreIndex.refresh();
+        storeCache.evictAll();
+        return result;
+    }
+
+    private ImportResult copy(Connection connection, Iterator<Store> stores, Path ownersFile)
+            throws SQLException, IOException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            Progress progress = new Progress();
+            try (Writer owners = Files.newBufferedWriter(ownersFile, StandardCharsets.UTF_8)) {
+                copyStores(copyManager, stores, owners, progress);
+            }
+            long ownerCount;
+            try (Reader owners = Files.newBufferedReader(ownersFile, StandardCharsets.UTF_8)) {
+                ownerCount = copyManager.copyIn(COPY_OWNERS, owners);
+            }
+            connection.commit();
+            return new ImportResult(progress.imported, ownerCount, progress.skipped);
+        } catch (SQLException | IOException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Copies the valid stores into {@code stores}, writing their owner links to the given writer as it goes.
+     */
+    private void copyStores(CopyManager copyManager, Iterator<Store> stores, Writer owners, Progress progress)
+            throws SQLException, IOException {
+        CopyIn copyIn = copyManager.copyIn(COPY_STORES);
+        try {
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 1024);
+            long started = System.nanoTime();
+            long record = 0;
+            while (stores.hasNext()) {
+                Store store = stores.next();
+                record++;
+                Optional<String> error = StoreValidation.validate(store);
+                if (error.isPresent()) {
+                    if (++progress.skipped <= REPORTED_SKIPS) {
+                        logger.warn("Skipping store record {}: {}", record, error.get());
+                    }
+                    continue;
+                }
+
+                UUID storeId = store.getStoreId() != null ? store.getStoreId() : UUID.randomUUID();
+                appendRow(buffer, storeId, store);
+                for (UUID ownerId : StoreService.owners(store)) {
+                    owners.write(storeId + "," + ownerId + "\n");
+                }
+                if (buffer.length() >= COPY_BUFFER_SIZE) {
+                    send(copyIn, buffer);
+                }
+                if (++progress.imported % PROGRESS_INTERVAL == 0) {
+                    double seconds = (System.nanoTime() - started) / 1e9;
+                    logger.info("Imported {} stores so far ({} stores/s)",
+                            progress.imported, Math.round(progress.imported / seconds));
+                }
+            }
+            send(copyIn, buffer);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+        if (progress.skipped > REPORTED_SKIPS) {
+            logger.warn("Skipped {} invalid store records in total", progress.skipped);
+        }
+    }
+
+    private static void send(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    /**
+     * Appends a store as one row of {@code COPY ... (FORMAT csv)} input, matching {@link #COPY_STORES}.
+     */
+    static void appendRow(StringBuilder buffer, UUID storeId, Store store) {
+        buffer.append(storeId).append(',');
+        appendText(buffer, store.getName()).append(',');
+        appendText(buffer, store.getRegion()).append(',');
+        appendText(buffer, store.getAddress()).append(',');
+        buffer.append(store.isActive()).append(',');
+        appendText(buffer, store.getPhoneNumber()).append(',');
+        appendText(buffer, store.getEmail()).append(',');
+        buffer.append(store.getLatitude()).append(',');
+        buffer.append(store.getLongitude()).append(',');
+        appendText(buffer, store.getStoreType()).append(',');
+        buffer.append(store.getRating()).append(',');
+        if (store.getDeliveryFee() != null) {
+            buffer.append(store.getDeliveryFee().toPlainString());
+        }
+        buffer.append(",0\n");
+    }
+
+    /**
+     * Appends a text value, always quoted so that empty strings are kept; null is left unquoted and read as NULL.
+     */
+    private static StringBuilder appendText(StringBuilder buffer, String value) {
+        if (value == null) {
+            return buffer;
+        }
+        return buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    /**
+     * Running counts of an import.
+     */
+    private static final class Progress {
+        private long imported;
+        private long skipped;
+    }
+}
@@ -1,24 +1,42 @@
 package com.siopa.siopa_stores.service;
 
+import com.siopa.siopa_stores.cache.StoreCache;
+import com.siopa.siopa_stores.config.CacheConfig;
+import com.siopa.siopa_stores.exceptions.InvalidRequestException;
+import com.siopa.siopa_stores.helpers.BoundingBox;
 import com.siopa.siopa_stores.helpers.DistanceHelper;
+import com.siopa.siopa_stores.helpers.NearestCollector;
+import com.siopa.siopa_stores.index.GeoHit;
+import com.siopa.siopa_stores.index.OwnerStoreIndex;
+import com.siopa.siopa_stores.index.StoreGeoIndex;
+import com.siopa.siopa_stores.kafka.EventOutbox;
 import com.siopa.siopa_stores.kafka.OwnerRoleUpdateEvent;
-import com.siopa.siopa_stores.kafka.KafkaProducerService;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent.ChangeType;
 import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.models.StoreSummary;
 import com.siopa.siopa_stores.repositories.StoreRepository;
 import com.siopa.siopa_stores.requests.LocationRequest;
+import com.siopa.siopa_stores.responses.NearbyBatchResult;
+import com.siopa.siopa_stores.responses.NearbyStore;
+import com.siopa.siopa_stores.responses.StoreLookup;
+import com.siopa.siopa_stores.responses.StorePage;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 /**
  * Service class responsible for handling store-related operations.
+ * Every change to a store is published as a {@link StoreChangedEvent} through the outbox, in the same transaction.
  */
 @Service
 @RequiredArgsConstructor
@@ -26,28 +44,86 @@ public class StoreService {
 
     private static final Logger logger = LoggerFactory.getLogger(StoreService.class);
 
+    /** Radius in miles used when a nearby search does not specify one. */
+    private static final double DEFAULT_NEARBY_RADIUS_MILES = 10;
+
+    /** Largest radius in miles a nearby search may request. */
+    private static final double MAX_NEARBY_RADIUS_MILES = 100;
+
+    /** Largest number of stores a nearby search may request. */
+    private static final int MAX_NEARBY_LIMIT = 500;
+
+    /** Largest number of locations a batch nearby search may contain. */
+    private static final int MAX_NEARBY_BATCH = 1000;
+
+    /** Number of stores returned for a location of a batch nearby search that does not specify a limit. */
+    static final int DEFAULT_NEARBY_BATCH_LIMIT = 50;
+
+    /** Largest number of stores a batch nearby search may request, summed over the limits of its locations. */
+    static final int MAX_NEARBY_BATCH_STORES = 50_000;
+
+    /** Number of locations from which a batch nearby search queries the geo index in parallel. */
+    private static final int PARALLEL_NEARBY_BATCH = 32;
+
+    /** Largest number of store IDs loaded in one query. */
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    /** Largest page size a store listing may request. */
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    /** Largest number of store IDs a multi-store lookup may contain. */
+    static final int MAX_LOOKUP_IDS = 500;
+
     private final StoreRepository storeRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final EventOutbox eventOutbox;
     private final DistanceHelper distanceHelper;
+    private final StoreGeoIndex storeGeoIndex;
+    private final StoreCache storeCache;
+    private final OwnerStoreIndex ownerStoreIndex;
 
     /**
-     * Retrieves all stores.
+     * Retrieves a page of stores in store ID order.
      *
-     * @return a list of all stores.
+     * @param after    the cursor returned with the previous page, or null for the first page.
+     * @param pageSize the maximum number of stores to return.
+     * @return the page of stores with the cursor of the next page.
+     * @throws InvalidRequestException if the page size is out of range.
      */
-    public List<Store> getAllStores() {
-        logger.info("Fetching all stores");
-        List<Store> stores = storeRepository.findAll();
+    public StorePage<Store> getAllStores(UUID after, int pageSize) {
+        logger.info("Fetching stores after {} (page size {})", after, pageSize);
+        Limit limit = pageLimit(pageSize);
+        List<Store> stores = after == null
+                ? storeRepository.findAllByOrderByStoreIdAsc(limit)
+                : storeRepository.findByStoreIdGreaterThanOrderByStoreIdAsc(after, limit);
         logger.debug("Retrieved {} stores from the database", stores.size());
-        return stores;
+        return toPage(stores, pageSize, Store::getStoreId);
     }
 
     /**
-     * Retrieves a store by its unique identifier.
+     * Retrieves a page of store summaries in store ID order.
+     *
+     * @param after    the cursor returned with the previous page, or null for the first page.
+     * @param pageSize the maximum number of summaries to return.
+     * @return the page of store summaries with the cursor of the next page.
+     * @throws InvalidRequestException if the page size is out of range.
+     */
+    public StorePage<StoreSummary> getAllStoreSummaries(UUID after, int pageSize) {
+        logger.info("Fetching store summaries after {} (page size {})", after, pageSize);
+        Limit limit = pageLimit(pageSize);
+        List<StoreSummary> summaries = after == null
+                ? storeRepository.findSummaries(limit)
+                : storeRepository.findSummariesAfter(after, limit);
+        return toPage(summaries, pageSize, StoreSummary::getStoreId);
+    }
+
+    /**
+     * Retrieves a store by its unique identifier. Found stores are cached until they change.
+     * The cache is not {@code sync}: a synchronized cache load would pin a virtual thread for the whole query.
      *
      * @param storeId the UUID of the store.
      * @return an {@link Optional} containing the store if found, otherwise empty.
      */
+    @Cacheable(cacheNames = CacheConfig.STORES_BY_ID, key = "#storeId", unless = "#result == null")
     public Optional<Store> getStoreById(UUID storeId) {
         logger.info("Fetching store with ID: {}", storeId);
         Optional<Store> store = storeRepository.findById(storeId);
@@ -60,24 +136,103 @@ public class StoreService {
     }
 
     /**
-     * Retrieves a store by its email.
+     * Retrieves a store by its email. Found stores are cached until they change.
      *
      * @param email the email address of the store.
      * @return an {@link Optional} containing the store if found, otherwise empty.
      */
+    @Cacheable(cacheNames = CacheConfig.STORES_BY_EMAIL, key = "#email", unless = "#result == null")
     public Optional<Store> getStoreByEmail(String email) {
         logger.info("Fetching store with email: {}", email);
         return storeRepository.findByEmail(email);
     }
 
     /**
-     * Retrieves all active stores.
+     * Retrieves many stores by their unique identifiers in one call.
+     * Stores are served from the same cache as {@link #getStoreById(UUID)}; the rest are loaded in bulk
+     * and cached in turn.
      *
-     * @return a list of active stores.
+     * @param storeIds the UUIDs of the stores; duplicates are answered once per occurrence.
+     * @return one lookup per requested ID, in request order, marking IDs with no store as not found.
+     * @throws InvalidRequestException if no IDs or too many IDs are given.
      */
-    public List<Store> getActiveStores() {
-        logger.info("Fetching all active stores");
-        return storeRepository.findByIsActiveTrue();
+    public List<StoreLookup> getStoresByIds(List<UUID> storeIds) {
+        if (storeIds == null || storeIds.isEmpty() || storeIds.size() > MAX_LOOKUP_IDS) {
+            throw new InvalidRequestException("A lookup must contain between 1 and " + MAX_LOOKUP_IDS + " store IDs");
+        }
+        if (storeIds.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidRequestException("Store IDs must not be null");
+        }
+
+        Map<UUID, Store> storesById = new HashMap<>(storeCache.getAll(new LinkedHashSet<>(storeIds)));
+        Set<UUID> misses = new LinkedHashSet<>(storeIds);
+        misses.removeAll(storesById.keySet());
+        logger.info("Fetching {} stores by ID ({} cached)", storeIds.size(), storesById.size());
+        if (!misses.isEmpty()) {
+            Map<UUID, Store> loaded = loadById(misses, storeRepository::findAllByStoreIdIn, Store::getStoreId);
+            storeCache.putAll(loaded.values());
+            storesById.putAll(loaded);
+        }
+
+        List<StoreLookup> lookups = new ArrayList<>(storeIds.size());
+        for (UUID storeId : storeIds) {
+            Store store = storesById.get(storeId);
+            lookups.add(new StoreLookup(storeId, store != null, store));
+        }
+        return lookups;
+    }
+
+    /**
+     * Retrieves a page of active stores in store ID order.
+     *
+     * @param after    the cursor returned with the previous page, or null for the first page.
+     * @param pageSize the maximum number of stores to return.
+     * @return the page of active stores with the cursor of the next page.
+     * @throws InvalidRequestException if the page size is out of range.
+     */
+    public StorePage<Store> getActiveStores(UUID after, int pageSize) {
+        logger.info("Fetching active stores after {} (page size {})", after, pageSize);
+        Limit limit = pageLimit(pageSize);
+        List<Store> stores = after == null
+                ? storeRepository.findByIsActiveTrueOrderByStoreIdAsc(limit)
+                : storeRepository.findByIsActiveTrueAndStoreIdGreaterThanOrderByStoreIdAsc(after, limit);
+        return toPage(stores, pageSize, Store::getStoreId);
+    }
+
+    /**
+     * Retrieves a page of active store summaries in store ID order.
+     *
+     * @param after    the cursor returned with the previous page, or null for the first page.
+     * @param pageSize the maximum number of summaries to return.
+     * @return the page of active store summaries with the cursor of the next page.
+     * @throws InvalidRequestException if the page size is out of range.
+     */
+    public StorePage<StoreSummary> getActiveStoreSummaries(UUID after, int pageSize) {
+        logger.info("Fetching active store summaries after {} (page size {})", after, pageSize);
+        Limit limit = pageLimit(pageSize);
+        List<StoreSummary> summaries = after == null
+                ? storeRepository.findActiveSummaries(limit)
+                : storeRepository.findActiveSummariesAfter(after, limit);
+        return toPage(summaries, pageSize, StoreSummary::getStoreId);
+    }
+
+    /**
+     * Validates a page size and returns the query limit for it, which fetches one extra row
+     * to tell whether another page follows.
+     */
+    private Limit pageLimit(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return Limit.of(pageSize + 1);
+    }
+
+    private static <T> StorePage<T> toPage(List<T> stores, int pageSize, Function<T, UUID> idOf) {
+        if (stores.size() <= pageSize) {
+            return new StorePage<>(stores, null);
+        }
+        List<T> page = stores.subList(0, pageSize);
+        return new StorePage<>(page, idOf.apply(page.get(pageSize - 1)));
     }
 
     /**
@@ -90,6 +245,9 @@ public class StoreService {
     public Store createStore(Store store) {
         logger.info("Creating a new store: {}", store.getName());
         Store savedStore = storeRepository.save(store);
+        storeGeoIndex.put(savedStore.getStoreId(), savedStore.getLatitude(), savedStore.getLongitude());
+        owners(savedStore).forEach(ownerId -> ownerStoreIndex.add(ownerId, savedStore.getStoreId()));
+        publishChange(StoreChangedEvent.of(ChangeType.CREATED, savedStore));
         logger.info("Store created successfully with ID: {}", savedStore.getStoreId());
         return savedStore;
     }
@@ -101,23 +259,22 @@ public class StoreService {
      * @param updatedStore  the store object containing updated details.
      * @return the updated store entity.
      * @throws RuntimeException if the store is not found.
+     * @throws ObjectOptimisticLockingFailureException if the update is based on an older version of the store.
      */
     @Transactional
     public Store updateStore(UUID storeId, Store updatedStore) {
         logger.info("Updating store with ID: {}", storeId);
 
         return storeRepository.findById(storeId).map(store -> {
-            store.setName(updatedStore.getName());
-            store.setRegion(updatedStore.getRegion());
-            store.setAddress(updatedStore.getAddress());
-            store.setActive(updatedStore.isActive());
-            store.setPhoneNumber(updatedStore.getPhoneNumber());
-            store.setEmail(updatedStore.getEmail());
-            store.setOwnerIds(updatedStore.getOwnerIds());
-            store.setDeliveryFee(updatedStore.getDeliveryFee());
-            store.setStoreType(updatedStore.getStoreType());
-
-            Store updated = storeRepository.save(store);
+            storeCache.evict(storeId, store.getEmail(), updatedStore.getEmail());
+            Set<UUID> previousOwners = new HashSet<>(owners(store));
+            applyUpdate(store, updatedStore);
+
+            // Flushed so the published change carries the new version.
+            Store updated = storeRepository.saveAndFlush(store);
+            previousOwners.forEach(ownerId -> ownerStoreIndex.remove(ownerId, storeId));
+            owners(updated).forEach(ownerId -> ownerStoreIndex.add(ownerId, storeId));
+            publishChange(StoreChangedEvent.of(ChangeType.UPDATED, updated));
             logger.info("Store ID {} updated successfully", storeId);
             return updated;
         }).orElseThrow(() -> {
@@ -134,12 +291,23 @@ public class StoreService {
     @Transactional
     public void deleteStore(UUID storeId) {
         logger.warn("Deleting store with ID: {}", storeId);
-        storeRepository.deleteById(storeId);
+        storeRepository.findById(storeId).ifPresent(store -> {
+            storeRepository.delete(store);
+            storeCache.evict(storeId, store.getEmail());
+            owners(store).forEach(ownerId -> ownerStoreIndex.remove(ownerId, storeId));
+            publishChange(StoreChangedEvent.deleted(store));
+            // Lets compaction drop the deleted store's records once consumers have seen the DELETED event.
+            eventOutbox.enqueueTombstone(StoreChangedEvent.TOPIC, storeId.toString());
+        });
+        storeGeoIndex.remove(storeId);
         logger.info("Store with ID {} deleted successfully", storeId);
     }
 
     /**
      * Adds an owner to a store.
+     * The owner link is inserted as a single row, so the store's other owners are not rewritten and concurrent
+     * additions do not overwrite each other. The owner's role update event is queued in the outbox in the same
+     * transaction. Adding an existing owner changes nothing and queues no event.
      *
      * @param storeId the unique identifier of the store.
      * @param ownerId the unique identifier of the owner to be added.
@@ -149,28 +317,31 @@ public class StoreService {
     @Transactional
     public Store addOwnerToStore(UUID storeId, UUID ownerId) {
         logger.info("Adding owner with ID {} to store ID {}", ownerId, storeId);
+        requireStore(storeId, "adding owner " + ownerId);
 
-        return storeRepository.findById(storeId).map(store -> {
-            if (!store.getOwnerIds().contains(ownerId)) {
-                store.getOwnerIds().add(ownerId);
-                storeRepository.save(store);
-
-                logger.info("Owner ID {} added to Store ID {}", ownerId, storeId);
+        boolean added = storeRepository.insertOwner(storeId, ownerId) == 1;
+        if (added) {
+            storeRepository.incrementVersion(storeId);
+        }
+        Store store = reloadStore(storeId);
+        if (added) {
+            storeCache.evict(storeId, store.getEmail());
+            ownerStoreIndex.add(ownerId, storeId);
+            publishChange(StoreChangedEvent.of(ChangeType.UPDATED, store));
+            logger.info("Owner ID {} added to Store ID {}", ownerId, storeId);
 
-                // 🔹 Produce Kafka Event
-                OwnerRoleUpdateEvent event = new OwnerRoleUpdateEvent(ownerId, "OWNER");
-                kafkaProducerService.sendRoleUpdateMessage(event);
-                logger.info("Kafka event sent for owner ID {} role update", ownerId);
-            }
-            return store;
-        }).orElseThrow(() -> {
-            logger.error("Store with ID {} not found when adding owner {}", storeId, ownerId);
-            return new RuntimeException("Store not found");
-        });
+            // 🔹 Produce Kafka Event, published by the outbox relay once this transaction commits
+            OwnerRoleUpdateEvent event = new OwnerRoleUpdateEvent(ownerId, "OWNER");
+            eventOutbox.enqueue(OwnerRoleUpdateEvent.TOPIC, ownerId.toString(), event);
+            logger.info("Kafka event queued for owner ID {} role update", ownerId);
+        } else {
+            logger.info("Owner ID {} already owns Store ID {}", ownerId, storeId);
+        }
+        return store;
     }
 
     /**
-     * Removes an owner from a store.
+     * Removes an owner from a store, deleting the single owner link.
      *
      * @param storeId the unique identifier of the store.
      * @param ownerId the unique identifier of the owner to be removed.
@@ -180,51 +351,352 @@ public class StoreService {
     @Transactional
     public Store removeOwnerFromStore(UUID storeId, UUID ownerId) {
         logger.info("Removing owner with ID {} from store ID {}", ownerId, storeId);
+        requireStore(storeId, "removing owner " + ownerId);
 
-        return storeRepository.findById(storeId).map(store -> {
-            store.getOwnerIds().remove(ownerId);
-            Store updated = storeRepository.save(store);
+        boolean removed = storeRepository.deleteOwner(storeId, ownerId) == 1;
+        if (removed) {
+            storeRepository.incrementVersion(storeId);
+        }
+        Store store = reloadStore(storeId);
+        if (removed) {
+            storeCache.evict(storeId, store.getEmail());
+            ownerStoreIndex.remove(ownerId, storeId);
+            publishChange(StoreChangedEvent.of(ChangeType.UPDATED, store));
             logger.info("Owner ID {} removed from Store ID {}", ownerId, storeId);
-            return updated;
-        }).orElseThrow(() -> {
-            logger.error("Store with ID {} not found when removing owner {}", storeId, ownerId);
-            return new RuntimeException("Store not found");
-        });
+        }
+        return store;
+    }
+
+    /**
+     * Queues a store change for the {@code store-changes} topic, published once the current transaction commits.
+     */
+    private void publishChange(StoreChangedEvent event) {
+        eventOutbox.enqueue(StoreChangedEvent.TOPIC, event.getStoreId().toString(), event);
+    }
+
+    private void requireStore(UUID storeId, String action) {
+        if (!storeRepository.existsById(storeId)) {
+            logger.error("Store with ID {} not found when {}", storeId, action);
+            throw new RuntimeException("Store not found");
+        }
+    }
+
+    /**
+     * Loads a store after its owners were changed by statement, so the result reflects the change.
+     */
+    private Store reloadStore(UUID storeId) {
+        return storeRepository.findById(storeId).orElseThrow(() -> new RuntimeException("Store not found"));
     }
 
     /**
      * Retrieves a list of stores owned by a specific owner.
+     * The owner's store IDs come from the in-memory {@link OwnerStoreIndex}; until it has loaded,
+     * the stores are looked up in the database.
      *
      * @param ownerId the unique identifier of the owner.
      * @return a list of stores owned by the specified owner.
      */
     public List<Store> getStoresByOwner(UUID ownerId) {
         logger.info("Fetching stores for owner ID: {}", ownerId);
-        return storeRepository.findByOwnerId(ownerId);
+        return findByOwner(ownerId, storeRepository::findAllByStoreIdIn, storeRepository::findByOwnerId);
     }
 
     /**
-     * Finds all stores within a 10-mile radius of the given latitude and longitude.
+     * Retrieves the summaries of the stores owned by a specific owner.
      *
-     * @param locationRequest the request containing latitude and longitude.
-     * @return a list of nearby stores within the specified radius.
+     * @param ownerId the unique identifier of the owner.
+     * @return a list of summaries of the stores owned by the specified owner.
      */
-    public List<Store> findStoresByLatLng(LocationRequest locationRequest) {
-        logger.info("Finding stores near latitude: {}, longitude: {}", locationRequest.latitude, locationRequest.longitude);
+    public List<StoreSummary> getStoreSummariesByOwner(UUID ownerId) {
+        logger.info("Fetching store summaries for owner ID: {}", ownerId);
+        return findByOwner(ownerId, storeRepository::findSummariesByStoreIdIn, storeRepository::findSummariesByOwnerId);
+    }
 
-        List<Store> storeList = storeRepository.findAll();
-        List<Store> nearbyStores = new ArrayList<>();
+    /**
+     * Loads an owner's stores by the IDs held in the owner index, or queries them by owner until the index has loaded.
+     * Database results are not added to the index, which only holds what its full load and committed changes put in.
+     */
+    private <T> List<T> findByOwner(UUID ownerId, Function<List<UUID>, List<T>> loadByIds,
+                                    Function<UUID, List<T>> queryByOwner) {
+        Optional<List<UUID>> storeIds = ownerStoreIndex.findStoreIds(ownerId);
+        if (storeIds.isPresent()) {
+            return storeIds.get().isEmpty() ? List.of() : loadByIds.apply(storeIds.get());
+        }
 
-        for (Store store : storeList) {
-            double distance = distanceHelper.distanceCalculation(
-                    store.getLatitude(), locationRequest.latitude,
-                    store.getLongitude(), locationRequest.longitude);
+        logger.debug("Owner index is not loaded yet, querying the database for owner ID {}", ownerId);
+        return queryByOwner.apply(ownerId);
+    }
 
-            if (distance < 10) {
-                nearbyStores.add(store);
+    /**
+     * Finds the stores within the requested radius (10 miles by default) of the given latitude and longitude,
+     * nearest first. When a limit is given, only that many of the nearest stores are returned.
+     * Candidates come from the in-memory {@link StoreGeoIndex}; until it has loaded, they are
+     * pre-filtered in the database by the bounding box of the search radius.
+     *
+     * @param locationRequest the request containing latitude, longitude and the optional radius and limit.
+     * @return the nearby stores with their distances, ordered by increasing distance.
+     * @throws InvalidRequestException if the radius or limit is out of range.
+     */
+    public List<NearbyStore<Store>> findStoresByLatLng(LocationRequest locationRequest) {
+        return findNearby(locationRequest, storeRepository::findAllByStoreIdIn, Store::getStoreId, Function.identity());
+    }
+
+    /**
+     * Finds the summaries of the stores within the requested radius of the given latitude and longitude,
+     * nearest first, as {@link #findStoresByLatLng(LocationRequest)} does for full stores.
+     *
+     * @param locationRequest the request containing latitude, longitude and the optional radius and limit.
+     * @return the nearby store summaries with their distances, ordered by increasing distance.
+     * @throws InvalidRequestException if the radius or limit is out of range.
+     */
+    public List<NearbyStore<StoreSummary>> findStoreSummariesByLatLng(LocationRequest locationRequest) {
+        return findNearby(locationRequest, storeRepository::findSummariesByStoreIdIn,
+                StoreSummary::getStoreId, StoreSummary::of);
+    }
+
+    /**
+     * Finds the stores near each of many locations, as {@link #findStoresByLatLng(LocationRequest)} does for one.
+     * The geo index is queried for every location first, in parallel for large batches, and the stores matched
+     * by any location are then loaded together.
+     * Locations without a limit return at most {@value #DEFAULT_NEARBY_BATCH_LIMIT} stores, and the limits of all
+     * locations together may not exceed {@value #MAX_NEARBY_BATCH_STORES} stores.
+     *
+     * @param locationRequests the locations, each with its optional radius and limit.
+     * @return one result per location, in request order.
+     * @throws InvalidRequestException if the batch is empty or too large, requests too many stores in total,
+     *                                  or a radius or limit is out of range.
+     */
+    public List<NearbyBatchResult<Store>> findStoresByLatLngBatch(List<LocationRequest> locationRequests) {
+        return findNearbyBatch(locationRequests, storeRepository::findAllByStoreIdIn, Store::getStoreId,
+                Function.identity());
+    }
+
+    /**
+     * Finds the summaries of the stores near each of many locations,
+     * as {@link #findStoresByLatLngBatch(List)} does for full stores.
+     *
+     * @param locationRequests the locations, each with its optional radius and limit.
+     * @return one result per location, in request order.
+     * @throws InvalidRequestException if the batch is empty or too large, requests too many stores in total,
+     *                                  or a radius or limit is out of range.
+     */
+    public List<NearbyBatchResult<StoreSummary>> findStoreSummariesByLatLngBatch(List<LocationRequest> locationRequests) {
+        return findNearbyBatch(locationRequests, storeRepository::findSummariesByStoreIdIn,
+                StoreSummary::getStoreId, StoreSummary::of);
+    }
+
+    private <T> List<NearbyBatchResult<T>> findNearbyBatch(List<LocationRequest> locationRequests,
+                                                           Function<List<UUID>, List<T>> loadByIds,
+                                                           Function<T, UUID> idOf, Function<Store, T> fromStore) {
+        if (locationRequests == null || locationRequests.isEmpty() || locationRequests.size() > MAX_NEARBY_BATCH) {
+            throw new InvalidRequestException("A batch must contain between 1 and " + MAX_NEARBY_BATCH + " locations");
+        }
+        int size = locationRequests.size();
+        double[] radii = new double[size];
+        int[] limits = new int[size];
+        long requestedStores = 0;
+        for (int i = 0; i < size; i++) {
+            try {
+                radii[i] = resolveRadius(locationRequests.get(i));
+                Integer limit = resolveLimit(locationRequests.get(i));
+                limits[i] = limit == null ? DEFAULT_NEARBY_BATCH_LIMIT : limit;
+            } catch (InvalidRequestException e) {
+                throw new InvalidRequestException("Location " + i + ": " + e.getMessage(), e);
+            }
+            requestedStores += limits[i];
+        }
+        if (requestedStores > MAX_NEARBY_BATCH_STORES) {
+            throw new InvalidRequestException("A batch may request at most " + MAX_NEARBY_BATCH_STORES
+                    + " stores in total, but its limits add up to " + requestedStores);
+        }
+        logger.info("Finding stores near {} locations", size);
+
+        if (!storeGeoIndex.isReady()) {
+            logger.debug("Geo index not ready, answering each location separately");
+            return IntStream.range(0, size)
+                    .mapToObj(i -> toBatchResult(i, locationRequests.get(i),
+                            findNearby(locationRequests.get(i), radii[i], limits[i], loadByIds, idOf, fromStore)))
+                    .toList();
+        }
+
+        IntStream indexes = IntStream.range(0, size);
+        if (size >= PARALLEL_NEARBY_BATCH) {
+            indexes = indexes.parallel();
+        }
+        List<List<GeoHit>> hits = indexes
+                .mapToObj(i -> storeGeoIndex.findNearest(locationRequests.get(i).latitude,
+                        locationRequests.get(i).longitude, radii[i], limits[i]))
+                .toList();
+
+        Set<UUID> storeIds = new LinkedHashSet<>();
+        hits.forEach(locationHits -> locationHits.forEach(hit -> storeIds.add(hit.getStoreId())));
+        Map<UUID, T> storesById = loadById(storeIds, loadByIds, idOf);
+
+        List<NearbyBatchResult<T>> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            results.add(toBatchResult(i, locationRequests.get(i), toNearbyStores(hits.get(i), storesById)));
+        }
+        logger.info("Found {} distinct stores near {} locations", storesById.size(), size);
+        return results;
+    }
+
+    private static <T> NearbyBatchResult<T> toBatchResult(int index, LocationRequest locationRequest,
+                                                          List<NearbyStore<T>> stores) {
+        return new NearbyBatchResult<>(index, locationRequest.latitude, locationRequest.longitude, stores);
+    }
+
+    /**
+     * Runs a nearby search with the request's radius and limit.
+     */
+    private <T> List<NearbyStore<T>> findNearby(LocationRequest locationRequest, Function<List<UUID>, List<T>> loadByIds,
+                                                Function<T, UUID> idOf, Function<Store, T> fromStore) {
+        return findNearby(locationRequest, resolveRadius(locationRequest), resolveLimit(locationRequest),
+                loadByIds, idOf, fromStore);
+    }
+
+    /**
+     * Runs a nearby search, loading the matches by ID when the geo index answers it.
+     */
+    private <T> List<NearbyStore<T>> findNearby(LocationRequest locationRequest, double radius, Integer limit,
+                                                Function<List<UUID>, List<T>> loadByIds,
+                                                Function<T, UUID> idOf, Function<Store, T> fromStore) {
+        logger.info("Finding stores within {} miles of latitude: {}, longitude: {}",
+                radius, locationRequest.latitude, locationRequest.longitude);
+
+        List<NearbyStore<T>> nearbyStores;
+        if (storeGeoIndex.isReady()) {
+            List<GeoHit> hits = storeGeoIndex.findNearest(
+                    locationRequest.latitude, locationRequest.longitude, radius, limit);
+            nearbyStores = toNearbyStores(hits,
+                    loadById(hits.stream().map(GeoHit::getStoreId).toList(), loadByIds, idOf));
+        } else {
+            logger.debug("Geo index not ready, querying stores by bounding box");
+            BoundingBox box = distanceHelper.boundingBox(locationRequest.latitude, locationRequest.longitude, radius);
+            NearestCollector<NearbyStore<T>> collector = new NearestCollector<>(limit, NearbyStore::getDistance);
+            for (Store store : findStoresInBoundingBox(box)) {
+                double distance = distanceHelper.distanceCalculation(
+                        store.getLatitude(), locationRequest.latitude,
+                        store.getLongitude(), locationRequest.longitude);
+
+                if (distance < radius && collector.accepts(distance)) {
+                    collector.add(new NearbyStore<>(fromStore.apply(store), distance));
+                }
             }
+            nearbyStores = collector.toSortedList();
         }
-        logger.info("Found {} stores within 10 miles", nearbyStores.size());
+        logger.info("Found {} stores within {} miles", nearbyStores.size(), radius);
         return nearbyStores;
     }
+
+    /**
+     * Loads stores by ID, in queries of at most {@value #LOAD_CHUNK_SIZE} IDs.
+     *
+     * @param storeIds  the IDs of the stores to load.
+     * @param loadByIds loads the stores with the given IDs, in any order.
+     * @param idOf      extracts the ID of a loaded store.
+     * @return the loaded stores by ID; stores that no longer exist are absent.
+     */
+    private static <T> Map<UUID, T> loadById(Collection<UUID> storeIds, Function<List<UUID>, List<T>> loadByIds,
+                                             Function<T, UUID> idOf) {
+        List<UUID> ids = List.copyOf(storeIds);
+        Map<UUID, T> storesById = new HashMap<>(Math.max(16, ids.size() * 4 / 3 + 1));
+        for (int from = 0; from < ids.size(); from += LOAD_CHUNK_SIZE) {
+            for (T store : loadByIds.apply(ids.subList(from, Math.min(from + LOAD_CHUNK_SIZE, ids.size())))) {
+                storesById.put(idOf.apply(store), store);
+            }
+        }
+        return storesById;
+    }
+
+    /**
+     * Pairs geo index hits with their loaded stores, keeping the order of the hits.
+     * Stores deleted since they were indexed are skipped.
+     *
+     * @param hits       the hits, nearest first.
+     * @param storesById the loaded stores by ID.
+     * @return the stores with their distances, in the same order.
+     */
+    private static <T> List<NearbyStore<T>> toNearbyStores(List<GeoHit> hits, Map<UUID, T> storesById) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        List<NearbyStore<T>> nearbyStores = new ArrayList<>(hits.size());
+        for (GeoHit hit : hits) {
+            T store = storesById.get(hit.getStoreId());
+            if (store != null) {
+                nearbyStores.add(new NearbyStore<>(store, hit.getDistance()));
+            }
+        }
+        return nearbyStores;
+    }
+
+    /**
+     * Copies the updatable details of a store onto an existing one.
+     * If the update carries the version it was based on and the store has changed since, including an owner being
+     * added or removed, the update is rejected rather than overwriting that change. An update without a version is
+     * applied to the current store.
+     *
+     * @param store        the store being updated.
+     * @param updatedStore the store object containing updated details.
+     * @throws ObjectOptimisticLockingFailureException if the update is based on an older version of the store.
+     */
+    static void applyUpdate(Store store, Store updatedStore) {
+        if (updatedStore.getVersion() != null && !updatedStore.getVersion().equals(store.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Store.class, store.getStoreId());
+        }
+        store.setName(updatedStore.getName());
+        store.setRegion(updatedStore.getRegion());
+        store.setAddress(updatedStore.getAddress());
+        store.setActive(updatedStore.isActive());
+        store.setPhoneNumber(updatedStore.getPhoneNumber());
+        store.setEmail(updatedStore.getEmail());
+        if (store.getOwnerIds() == null) {
+            store.setOwnerIds(new HashSet<>(owners(updatedStore)));
+        } else {
+            // Changed in place, so only the owner links that differ are inserted or deleted.
+            store.getOwnerIds().retainAll(owners(updatedStore));
+            store.getOwnerIds().addAll(owners(updatedStore));
+        }
+        store.setDeliveryFee(updatedStore.getDeliveryFee());
+        store.setStoreType(updatedStore.getStoreType());
+    }
+
+    static Set<UUID> owners(Store store) {
+        return store.getOwnerIds() == null ? Set.of() : store.getOwnerIds();
+    }
+
+    private double resolveRadius(LocationRequest locationRequest) {
+        if (locationRequest.radius == null) {
+            return DEFAULT_NEARBY_RADIUS_MILES;
+        }
+        if (!(locationRequest.radius > 0 && locationRequest.radius <= MAX_NEARBY_RADIUS_MILES)) {
+            throw new InvalidRequestException("Radius must be greater than 0 and at most " + MAX_NEARBY_RADIUS_MILES + " miles");
+        }
+        return locationRequest.radius;
+    }
+
+    private Integer resolveLimit(LocationRequest locationRequest) {
+        if (locationRequest.limit != null && (locationRequest.limit < 1 || locationRequest.limit > MAX_NEARBY_LIMIT)) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_NEARBY_LIMIT);
+        }
+        return locationRequest.limit;
+    }
+
+    /**
+     * Loads the stores inside a bounding box, splitting it in two when it spans the antimeridian.
+     *
+     * @param box the bounding box to search.
+     * @return the stores inside the box.
+     */
+    private List<Store> findStoresInBoundingBox(BoundingBox box) {
+        if (!box.crossesAntimeridian()) {
+            return storeRepository.findWithinBoundingBox(
+                    box.getMinLatitude(), box.getMaxLatitude(), box.getMinLongitude(), box.getMaxLongitude());
+        }
+        List<Store> stores = new ArrayList<>(storeRepository.findWithinBoundingBox(
+                box.getMinLatitude(), box.getMaxLatitude(), box.getMinLongitude(), 180));
+        stores.addAll(storeRepository.findWithinBoundingBox(
+                box.getMinLatitude(), box.getMaxLatitude(), -180, box.getMaxLongitude()));
+        return stores;
+    }
 }
@@ -0,0 +1,126 @@
+package com.siopa.siopa_stores.cache;
+
+import com.siopa.siopa_stores.config.CacheConfig;
+import com.siopa.siopa_stores.models.Store;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link StoreCache}.
+ */
+class StoreCacheTest {
+
+    private Cache byId;
+    private Cache byEmail;
+    private StoreCache storeCache;
+    private UUID storeId;
+
+    /**
+     * Sets up caches holding one store under its ID and two email addresses.
+     */
+    @BeforeEach
+    void setUp() {
+        CacheManager cacheManager = new CacheConfig().cacheManager(100, Duration.ofMinutes(1));
+        byId = cacheManager.getCache(CacheConfig.STORES_BY_ID);
+        byEmail = cacheManager.getCache(CacheConfig.STORES_BY_EMAIL);
+        storeCache = new StoreCache(cacheManager);
+
+        storeId = UUID.randomUUID();
+        byId.put(storeId, "store");
+        byEmail.put("old@store.com", "store");
+        byEmail.put("new@store.com", "store");
+    }
+
+    /**
+     * Clears any transaction synchronization left behind by a test.
+     */
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Tests that stores put in bulk are read back by ID, without replacing stores cached already.
+     */
+    @Test
+    void putAll_ShouldCacheStoresForGetAll() {
+        Store cached = Store.builder().storeId(UUID.randomUUID()).name("Cached").build();
+        Store loaded = Store.builder().storeId(UUID.randomUUID()).name("Loaded").build();
+        Store stale = Store.builder().storeId(cached.getStoreId()).name("Stale").build();
+        byId.put(cached.getStoreId(), cached);
+
+        storeCache.putAll(List.of(loaded, stale));
+        Map<UUID, Store> result = storeCache.getAll(List.of(cached.getStoreId(), loaded.getStoreId(), UUID.randomUUID()));
+
+        assertEquals(Map.of(cached.getStoreId(), cached, loaded.getStoreId(), loaded), result);
+    }
+
+    /**
+     * Tests that entries are evicted immediately outside a transaction.
+     */
+    @Test
+    void evict_ShouldEvictImmediately_WhenNoTransactionIsActive() {
+        storeCache.evict(storeId, "old@store.com", "new@store.com", null);
+
+        assertNull(byId.get(storeId));
+        assertNull(byEmail.get("old@store.com"));
+        assertNull(byEmail.get("new@store.com"));
+    }
+
+    /**
+     * Tests that entries inside a transaction are only evicted once it commits.
+     */
+    @Test
+    void evict_ShouldWaitForCommit_WhenTransactionIsActive() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        storeCache.evict(storeId, "old@store.com");
+
+        assertNotNull(byId.get(storeId));
+        assertNotNull(byEmail.get("old@store.com"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertNull(byId.get(storeId));
+        assertNull(byEmail.get("old@store.com"));
+        assertNotNull(byEmail.get("new@store.com"));
+    }
+
+    /**
+     * Tests that stores changed elsewhere are evicted by ID and under every email they were cached by,
+     * leaving other stores cached.
+     */
+    @Test
+    void evictStores_ShouldEvictStoresByIdAndAnyEmail() {
+        Store changed = Store.builder().storeId(UUID.randomUUID()).email("new@store.com").build();
+        Store other = Store.builder().storeId(UUID.randomUUID()).email("other@store.com").build();
+        byId.put(changed.getStoreId(), changed);
+        byId.put(other.getStoreId(), other);
+        byEmail.put("renamed@store.com", changed);
+        byEmail.put("current@store.com", changed);
+        byEmail.put("other@store.com", other);
+
+        storeCache.evictStores(Set.of(changed.getStoreId()));
+
+        assertNull(byId.get(changed.getStoreId()));
+        assertNull(byEmail.get("renamed@store.com"));
+        assertNull(byEmail.get("current@store.com"));
+        assertSame(other, byId.get(other.getStoreId(), Store.class));
+        assertSame(other, byEmail.get("other@store.com", Store.class));
+    }
+}
@@ -0,0 +1,79 @@
+package com.siopa.siopa_stores.config;
+
+import com.siopa.siopa_stores.exceptions.InvalidRequestException;
+import com.siopa.siopa_stores.kafka.OwnerRoleUpdateEvent;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.DefaultSslBundleRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link KafkaConfig}.
+ */
+class KafkaConfigTest {
+
+    private final ConsumerFactory<String, OwnerRoleUpdateEvent> consumerFactory =
+            new KafkaConfig().consumerFactory(kafkaProperties(), new DefaultSslBundleRegistry(), "siopa-stores", 500);
+
+    /**
+     * Tests that the role-change consumer can be created, which configures its deserializers.
+     */
+    @Test
+    void consumerFactory_ShouldCreateConsumer() {
+        try (Consumer<String, OwnerRoleUpdateEvent> consumer = consumerFactory.createConsumer()) {
+            assertNotNull(consumer);
+        }
+    }
+
+    /**
+     * Tests that values are read as role updates whatever type header the producer sent,
+     * and that unreadable values become null with the failure recorded in a header.
+     */
+    @Test
+    void consumerFactory_ShouldDeserializeRoleUpdates() {
+        UUID userId = UUID.randomUUID();
+        RecordHeaders headers = new RecordHeaders();
+        headers.add("__TypeId__", "com.siopa.users.events.RoleChanged".getBytes(StandardCharsets.UTF_8));
+        byte[] json = ("{\"userId\":\"" + userId + "\",\"role\":\"ROLE_CUSTOMER\"}").getBytes(StandardCharsets.UTF_8);
+
+        var deserializer = consumerFactory.getValueDeserializer();
+        deserializer.configure(consumerFactory.getConfigurationProperties(), false);
+
+        assertEquals(new OwnerRoleUpdateEvent(userId, "ROLE_CUSTOMER"),
+                deserializer.deserialize("user-role-changes", headers, json));
+
+        RecordHeaders badHeaders = new RecordHeaders();
+        assertNull(deserializer.deserialize("user-role-changes", badHeaders, "{".getBytes(StandardCharsets.UTF_8)));
+        assertNotNull(badHeaders.lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER));
+    }
+
+    /**
+     * Tests that invalid role changes are dead-lettered without retries, while database failures are retryable.
+     */
+    @Test
+    void roleChangesErrorHandler_ShouldOnlyRecoverMessagesThatCanNeverSucceed() {
+        DefaultErrorHandler errorHandler = KafkaConfig.roleChangesErrorHandler(
+                (record, e) -> { }, Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+        assertEquals(Boolean.FALSE, errorHandler.removeClassification(InvalidRequestException.class));
+        assertNull(errorHandler.removeClassification(DataAccessResourceFailureException.class));
+    }
+
+    private static KafkaProperties kafkaProperties() {
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.setBootstrapServers(List.of("localhost:29092"));
+        return kafkaProperties;
+    }
+}
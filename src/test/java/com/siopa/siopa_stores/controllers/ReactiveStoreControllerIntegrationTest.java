@@ -0,0 +1,107 @@
+package com.siopa.siopa_stores.controllers;
+
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.requests.LocationRequest;
+import com.siopa.siopa_stores.service.StoreService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * End-to-end tests of the reactive store endpoints against PostgreSQL, checking that stores looked up on the
+ * lookup scheduler are serialized with their owner IDs once the session has closed.
+ * Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "stores.kafka.create-topics=false",
+        "stores.kafka.role-changes.auto-startup=false",
+        "stores.kafka.store-changes.auto-startup=false",
+        "stores.outbox.relay.enabled=false"
+})
+class ReactiveStoreControllerIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private StoreService storeService;
+
+    private UUID ownerId;
+    private Store store;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    /**
+     * Creates a store with an owner, through the service so the indexes hold it too.
+     */
+    @BeforeEach
+    void setUp() {
+        ownerId = UUID.randomUUID();
+        store = storeService.createStore(Store.builder()
+                .name("Reactive Store")
+                .address("1 Reactive Street")
+                .isActive(true)
+                .email(ownerId + "@store.com")
+                .ownerIds(new HashSet<>(Set.of(ownerId)))
+                .latitude(54.5973)
+                .longitude(-5.9301)
+                .rating(4)
+                .deliveryFee(BigDecimal.ONE)
+                .build());
+    }
+
+    /**
+     * Tests that an owner's stores are returned with their owner IDs.
+     */
+    @Test
+    void getStoresByOwner_ShouldReturnStoresWithOwners() {
+        webTestClient.get().uri("/api/reactive/stores/owner/{ownerId}", ownerId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].storeId").isEqualTo(store.getStoreId().toString())
+                .jsonPath("$[0].ownerIds[0]").isEqualTo(ownerId.toString());
+    }
+
+    /**
+     * Tests that nearby stores are returned with their owner IDs and distances.
+     */
+    @Test
+    void getNearbyStores_ShouldReturnStoresWithOwners() {
+        LocationRequest locationRequest = new LocationRequest(54.5973, -5.9301);
+        locationRequest.setRadius(0.1);
+
+        webTestClient.post().uri("/api/reactive/stores/nearby")
+                .bodyValue(locationRequest)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.storeId == '%s')].ownerIds[0]", store.getStoreId()).isEqualTo(ownerId.toString())
+                .jsonPath("$[?(@.storeId == '%s')].distance", store.getStoreId()).exists();
+    }
+}
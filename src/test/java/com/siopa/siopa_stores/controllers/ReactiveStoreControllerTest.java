@@ -0,0 +1,151 @@
+package com.siopa.siopa_stores.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.siopa_stores.exceptions.InvalidRequestException;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.requests.LocationRequest;
+import com.siopa.siopa_stores.responses.NearbyStore;
+import com.siopa.siopa_stores.service.ReactiveStoreService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ReactiveStoreController.class)
+class ReactiveStoreControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveStoreService reactiveStoreService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Store sampleStore;
+    private UUID storeId;
+
+    @BeforeEach
+    void setUp() {
+        storeId = UUID.randomUUID();
+        sampleStore = new Store();
+        sampleStore.setStoreId(storeId);
+        sampleStore.setName("Test Store");
+        sampleStore.setEmail("test@example.com");
+        sampleStore.setOwnerIds(new HashSet<>());
+    }
+
+    @Test
+    void getStoreById_ShouldReturnStore() throws Exception {
+        when(reactiveStoreService.getStoreById(storeId)).thenReturn(Mono.just(sampleStore));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/stores/" + storeId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Test Store"));
+    }
+
+    @Test
+    void getStoreById_ShouldReturnNotFound() throws Exception {
+        when(reactiveStoreService.getStoreById(storeId)).thenReturn(Mono.empty());
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/stores/" + storeId)).andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getStoresByOwner_ShouldStreamNdjson() throws Exception {
+        UUID ownerId = UUID.randomUUID();
+        when(reactiveStoreService.getStoresByOwner(ownerId)).thenReturn(Flux.just(sampleStore, sampleStore));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/stores/owner/" + ownerId)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"name\":\"Test Store\"")));
+    }
+
+    @Test
+    void getNearbyStores_ShouldReturnJsonArray() throws Exception {
+        when(reactiveStoreService.findStoresByLatLng(any()))
+                .thenReturn(Flux.just(new NearbyStore<>(sampleStore, 1.5)));
+
+        MvcResult result = mockMvc.perform(post("/api/reactive/stores/nearby")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LocationRequest(54.6, -5.9))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Test Store"))
+                .andExpect(jsonPath("$[0].distance").value(1.5));
+    }
+
+    @Test
+    void getNearbyStores_ShouldReturnEmptyArray_WhenNoStoresNearby() throws Exception {
+        when(reactiveStoreService.findStoresByLatLng(any())).thenReturn(Flux.empty());
+
+        MvcResult result = mockMvc.perform(post("/api/reactive/stores/nearby")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LocationRequest(54.6, -5.9))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    void getNearbyStores_ShouldReturnBadRequest_WhenRequestInvalid() throws Exception {
+        when(reactiveStoreService.findStoresByLatLng(any()))
+                .thenReturn(Flux.error(new InvalidRequestException("Invalid latitude")));
+
+        MvcResult result = mockMvc.perform(post("/api/reactive/stores/nearby")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LocationRequest(91, 0))))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid latitude"));
+    }
+
+    @Test
+    void getStoreById_ShouldReturnServiceUnavailable_WhenLookupsQueueFull() throws Exception {
+        when(reactiveStoreService.getStoreById(storeId)).thenReturn(Mono.error(new RejectedExecutionException()));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/stores/" + storeId)).andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isServiceUnavailable());
+    }
+}
@@ -1,9 +1,21 @@
 package com.siopa.siopa_stores.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.siopa_stores.exceptions.InvalidRequestException;
 import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.models.StoreSummary;
 import com.siopa.siopa_stores.requests.LocationRequest;
+import com.siopa.siopa_stores.responses.BatchItemResult;
+import com.siopa.siopa_stores.responses.ImportResult;
+import com.siopa.siopa_stores.responses.NearbyBatchResult;
+import com.siopa.siopa_stores.responses.NearbyStore;
+import com.siopa.siopa_stores.responses.StoreLookup;
+import com.siopa.siopa_stores.responses.StorePage;
+import com.siopa.siopa_stores.service.StoreBatchService;
+import com.siopa.siopa_stores.service.StoreExportService;
+import com.siopa.siopa_stores.service.StoreImportService;
 import com.siopa.siopa_stores.service.StoreService;
+import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,11 +24,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 import java.util.*;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -32,6 +51,15 @@ class StoreControllerTest {
     @MockBean
     private StoreService storeService;
 
+    @MockBean
+    private StoreExportService storeExportService;
+
+    @MockBean
+    private StoreBatchService storeBatchService;
+
+    @MockBean
+    private StoreImportService storeImportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -52,21 +80,84 @@ class StoreControllerTest {
         sampleStore.setActive(true);
         sampleStore.setPhoneNumber("1234567890");
         sampleStore.setEmail("test@example.com");
-        sampleStore.setOwnerIds(new ArrayList<>());
+        sampleStore.setOwnerIds(new HashSet<>());
         sampleStore.setLatitude(55.0);
         sampleStore.setLongitude(-5.0);
     }
 
     @Test
     void testGetAllStores() throws Exception {
-        when(storeService.getAllStores()).thenReturn(Collections.singletonList(sampleStore));
+        when(storeService.getAllStores(null, 100))
+                .thenReturn(new StorePage<>(Collections.singletonList(sampleStore), null));
 
         mockMvc.perform(get("/api/stores"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$.size()").value(1))
                 .andExpect(jsonPath("$[0].name").value(sampleStore.getName()));
     }
 
+    @Test
+    void testGetAllStores_WithCursor() throws Exception {
+        when(storeService.getAllStores(storeId, 1))
+                .thenReturn(new StorePage<>(Collections.singletonList(sampleStore), storeId));
+
+        mockMvc.perform(get("/api/stores").param("after", storeId.toString()).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", storeId.toString()))
+                .andExpect(jsonPath("$.size()").value(1));
+    }
+
+    @Test
+    void testGetActiveStores() throws Exception {
+        when(storeService.getActiveStores(null, 100))
+                .thenReturn(new StorePage<>(Collections.singletonList(sampleStore), null));
+
+        mockMvc.perform(get("/api/stores/active"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].active").value(true));
+    }
+
+    @Test
+    void testGetAllStores_SummaryView() throws Exception {
+        when(storeService.getAllStoreSummaries(null, 100))
+                .thenReturn(new StorePage<>(Collections.singletonList(StoreSummary.of(sampleStore)), null));
+
+        mockMvc.perform(get("/api/stores").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value(sampleStore.getName()))
+                .andExpect(jsonPath("$[0].latitude").value(55.0))
+                .andExpect(jsonPath("$[0].email").doesNotExist())
+                .andExpect(jsonPath("$[0].ownerIds").doesNotExist());
+    }
+
+    @Test
+    void testGetAllStores_UnsupportedView() throws Exception {
+        mockMvc.perform(get("/api/stores").param("view", "everything"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unsupported view: everything"));
+    }
+
+    @Test
+    void testImportStores_Csv() throws Exception {
+        when(storeImportService.importCsv(any())).thenReturn(new ImportResult(2, 3, 1));
+
+        mockMvc.perform(post("/api/stores/import").param("format", "csv")
+                        .contentType(new MediaType("text", "csv"))
+                        .content("name,address,email,latitude,longitude\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.owners").value(3))
+                .andExpect(jsonPath("$.skipped").value(1));
+    }
+
+    @Test
+    void testImportStores_UnsupportedFormat() throws Exception {
+        mockMvc.perform(post("/api/stores/import").param("format", "xml").content("<stores/>"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unsupported import format: xml"));
+    }
+
     @Test
     void testGetStoreById_Found() throws Exception {
         when(storeService.getStoreById(storeId)).thenReturn(Optional.of(sampleStore));
@@ -76,6 +167,33 @@ class StoreControllerTest {
                 .andExpect(jsonPath("$.name").value(sampleStore.getName()));
     }
 
+    @Test
+    void testGetStoresByIds() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        when(storeService.getStoresByIds(List.of(storeId, missingId))).thenReturn(List.of(
+                new StoreLookup(storeId, true, sampleStore), new StoreLookup(missingId, false, null)));
+
+        mockMvc.perform(get("/api/stores").param("ids", storeId + "," + missingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].found").value(true))
+                .andExpect(jsonPath("$[0].store.name").value(sampleStore.getName()))
+                .andExpect(jsonPath("$[1].storeId").value(missingId.toString()))
+                .andExpect(jsonPath("$[1].found").value(false))
+                .andExpect(jsonPath("$[1].store").doesNotExist());
+        Mockito.verify(storeService, Mockito.never()).getAllStores(any(), Mockito.anyInt());
+    }
+
+    @Test
+    void testLookupStores() throws Exception {
+        when(storeService.getStoresByIds(List.of(storeId))).thenReturn(List.of(new StoreLookup(storeId, true, sampleStore)));
+
+        mockMvc.perform(post("/api/stores/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"" + storeId + "\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].store.name").value(sampleStore.getName()));
+    }
+
     @Test
     void testGetStoreById_NotFound() throws Exception {
         when(storeService.getStoreById(storeId)).thenReturn(Optional.empty());
@@ -112,6 +230,34 @@ class StoreControllerTest {
                 .andExpect(jsonPath("$.name").value(sampleStore.getName()));
     }
 
+    @Test
+    void testCreateStores_Batch() throws Exception {
+        when(storeBatchService.createStores(any())).thenReturn(List.of(
+                new BatchItemResult(0, storeId, BatchItemResult.Status.CREATED, null),
+                new BatchItemResult(1, null, BatchItemResult.Status.INVALID, "Name is mandatory")));
+
+        mockMvc.perform(post("/api/stores/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(sampleStore, new Store()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].storeId").value(storeId.toString()))
+                .andExpect(jsonPath("$[1].status").value("INVALID"))
+                .andExpect(jsonPath("$[1].error").value("Name is mandatory"));
+    }
+
+    @Test
+    void testUpdateStores_Batch() throws Exception {
+        when(storeBatchService.updateStores(any())).thenReturn(List.of(
+                new BatchItemResult(0, storeId, BatchItemResult.Status.UPDATED, null)));
+
+        mockMvc.perform(put("/api/stores/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(sampleStore))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("UPDATED"));
+    }
+
     @Test
     void testUpdateStore() throws Exception {
         when(storeService.updateStore(any(UUID.class), any(Store.class))).thenReturn(sampleStore);
@@ -140,6 +286,17 @@ class StoreControllerTest {
                 .andExpect(jsonPath("$.name").value(sampleStore.getName()));
     }
 
+    @Test
+    void testUpdateStore_ConcurrentChange() throws Exception {
+        when(storeService.updateStore(any(UUID.class), any(Store.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Store.class, storeId));
+
+        mockMvc.perform(put("/api/stores/{id}", storeId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleStore)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void testRemoveOwnerFromStore() throws Exception {
         when(storeService.removeOwnerFromStore(storeId, ownerId)).thenReturn(sampleStore);
@@ -166,13 +323,32 @@ class StoreControllerTest {
         locationRequest.setLongitude(-5.1);
 
         when(storeService.findStoresByLatLng(any(LocationRequest.class)))
-                .thenReturn(Collections.singletonList(sampleStore));
+                .thenReturn(Collections.singletonList(new NearbyStore<>(sampleStore, 4.2)));
 
         mockMvc.perform(post("/api/stores/nearby")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(locationRequest)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()").value(1));
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(jsonPath("$[0].name").value(sampleStore.getName()))
+                .andExpect(jsonPath("$[0].distance").value(4.2));
+    }
+
+    @Test
+    void testGetNearbyStores_SummaryView() throws Exception {
+        LocationRequest locationRequest = new LocationRequest(55.1, -5.1);
+
+        when(storeService.findStoreSummariesByLatLng(any(LocationRequest.class)))
+                .thenReturn(Collections.singletonList(new NearbyStore<>(StoreSummary.of(sampleStore), 4.2)));
+
+        mockMvc.perform(post("/api/stores/nearby")
+                        .param("view", "summary")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(locationRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].storeId").value(storeId.toString()))
+                .andExpect(jsonPath("$[0].distance").value(4.2))
+                .andExpect(jsonPath("$[0].phoneNumber").doesNotExist());
     }
 
     @Test
@@ -189,4 +365,72 @@ class StoreControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Sorry, there are no stores in your area."));
     }
+
+    @Test
+    void testGetNearbyStores_Batch() throws Exception {
+        List<LocationRequest> locationRequests = List.of(new LocationRequest(55.1, -5.1), new LocationRequest(60.0, -10.0));
+
+        when(storeService.findStoresByLatLngBatch(any())).thenReturn(List.of(
+                new NearbyBatchResult<>(0, 55.1, -5.1, List.of(new NearbyStore<>(sampleStore, 4.2))),
+                new NearbyBatchResult<>(1, 60.0, -10.0, List.of())));
+
+        mockMvc.perform(post("/api/stores/nearby/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(locationRequests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].stores[0].name").value(sampleStore.getName()))
+                .andExpect(jsonPath("$[0].stores[0].distance").value(4.2))
+                .andExpect(jsonPath("$[1].latitude").value(60.0))
+                .andExpect(jsonPath("$[1].stores.size()").value(0));
+    }
+
+    @Test
+    void testGetNearbyStores_InvalidRadius() throws Exception {
+        LocationRequest locationRequest = new LocationRequest(55.1, -5.1, 500.0, null);
+
+        when(storeService.findStoresByLatLng(any(LocationRequest.class)))
+                .thenThrow(new InvalidRequestException("Radius must be greater than 0 and at most 100.0 miles"));
+
+        mockMvc.perform(post("/api/stores/nearby")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(locationRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Radius must be greater than 0 and at most 100.0 miles"));
+    }
+
+    @Test
+    void testGetNearbyStores_InternalIllegalArgumentIsNotBadRequest() {
+        when(storeService.findStoresByLatLng(any(LocationRequest.class)))
+                .thenThrow(new IllegalArgumentException("Internal detail"));
+
+        assertThrows(ServletException.class, () -> mockMvc.perform(post("/api/stores/nearby")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LocationRequest(55.1, -5.1)))));
+    }
+
+    @Test
+    void testExportStores_Ndjson() throws Exception {
+        when(storeExportService.exportNdjson(any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write((objectMapper.writeValueAsString(sampleStore) + "\n").getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/stores/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"name\":\"Test Store\"")));
+    }
+
+    @Test
+    void testExportStores_UnsupportedFormat() throws Exception {
+        mockMvc.perform(get("/api/stores/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -3,6 +3,8 @@ package com.siopa.siopa_stores.helpers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class DistanceHelperTest {
@@ -49,4 +51,88 @@ class DistanceHelperTest {
         double distance = distanceHelper.distanceCalculation(40.7128, 41.7128, -74.0060, -74.0060);
         assertTrue(distance > 50, "Distance should be greater than 50 miles for 1-degree latitude difference.");
     }
+
+    @Test
+    void testBoundingBox_ContainsRadius() {
+        BoundingBox box = distanceHelper.boundingBox(54.5973, -5.9301, 10);
+        assertFalse(box.crossesAntimeridian());
+        assertEquals(10.0, distanceHelper.distanceCalculation(54.5973, box.getMaxLatitude(), -5.9301, -5.9301), 0.001,
+                "Northern edge should be exactly one radius away.");
+        assertTrue(distanceHelper.distanceCalculation(54.5973, 54.5973, -5.9301, box.getMaxLongitude()) >= 10.0,
+                "Eastern edge should be at least one radius away.");
+    }
+
+    @Test
+    void testBoundingBox_Antimeridian() {
+        BoundingBox box = distanceHelper.boundingBox(-17.0, 179.95, 10);
+        assertTrue(box.crossesAntimeridian(), "Box near 180 degrees should wrap.");
+        assertTrue(box.getMinLongitude() > 179 && box.getMaxLongitude() < -179);
+    }
+
+    @Test
+    void testBoundingBox_NearPole() {
+        BoundingBox box = distanceHelper.boundingBox(89.99, 0, 10);
+        assertEquals(-180, box.getMinLongitude());
+        assertEquals(180, box.getMaxLongitude());
+    }
+
+    @Test
+    void testBatchDistanceCalculation_MatchesSinglePair() {
+        double[][] stores = {{40.7128, -74.0060}, {34.0522, -118.2437}, {-33.8688, 151.2093}, {40.7138, -74.0070}};
+        GeoPoints points = new GeoPoints(stores.length);
+        for (int i = 0; i < stores.length; i++) {
+            points.set(i, stores[i][0], stores[i][1]);
+        }
+
+        double[] distances = new double[stores.length];
+        distanceHelper.distanceCalculation(51.5074, -0.1278, points, distances);
+
+        for (int i = 0; i < stores.length; i++) {
+            double expected = distanceHelper.distanceCalculation(stores[i][0], 51.5074, stores[i][1], -0.1278);
+            assertEquals(expected, distances[i], 1e-6, "Batch distance should match the single pair calculation.");
+        }
+
+        long[] matches = new long[1];
+        int found = distanceHelper.withinRadius(40.7128, -74.0060, 10, points, matches);
+        assertEquals(2, found);
+        assertEquals(0b1001L, matches[0], "Only the two New York points should be within 10 miles.");
+    }
+
+    @Test
+    void testWithinRadiusFast_MatchesHaversineAtBoundary() {
+        double latitude = 54.5973;
+        double longitude = -5.9301;
+        double radius = 10;
+        Random random = new Random(42);
+
+        // Points scattered around the query, many of them within a hair of the 10-mile boundary.
+        int size = 20_000;
+        GeoPoints points = new GeoPoints(size);
+        for (int i = 0; i < size; i++) {
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            double miles = i % 2 == 0 ? radius + (random.nextDouble() - 0.5) * 1e-6 : random.nextDouble() * 2 * radius;
+            double angle = miles / DistanceHelper.EARTH_RADIUS_MILES;
+            double lat1 = Math.toRadians(latitude);
+            double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angle) + Math.cos(lat1) * Math.sin(angle) * Math.cos(bearing));
+            double lon2 = Math.toRadians(longitude) + Math.atan2(Math.sin(bearing) * Math.sin(angle) * Math.cos(lat1),
+                    Math.cos(angle) - Math.sin(lat1) * Math.sin(lat2));
+            points.set(i, Math.toDegrees(lat2), Math.toDegrees(lon2));
+        }
+
+        double[] exact = new double[size];
+        distanceHelper.distanceCalculation(latitude, longitude, points, exact);
+        int[] matches = new int[size];
+        double[] distances = new double[size];
+        int found = distanceHelper.withinRadiusFast(latitude, longitude, radius, points, matches, distances);
+
+        int expected = 0;
+        for (int i = 0; i < size; i++) {
+            if (exact[i] < radius) {
+                assertEquals(i, matches[expected], "Fast path should match the same stores as haversine.");
+                assertEquals(exact[i], distances[expected], 1e-9);
+                expected++;
+            }
+        }
+        assertEquals(expected, found);
+    }
 }
@@ -0,0 +1,89 @@
+package com.siopa.siopa_stores.helpers;
+
+import com.siopa.siopa_stores.models.Store;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link StoreCatalogGenerator}.
+ */
+class StoreCatalogGeneratorTest {
+
+    private final DistanceHelper distanceHelper = new DistanceHelper();
+
+    /**
+     * Tests that the same seed always generates the same catalog, and another seed a different one.
+     */
+    @Test
+    void next_ShouldBeDeterministicForSeed() {
+        List<String> first = rows(new StoreCatalogGenerator(42, 1000));
+        List<String> again = rows(new StoreCatalogGenerator(42, 1000));
+        List<String> other = rows(new StoreCatalogGenerator(43, 1000));
+
+        assertEquals(first, again);
+        assertNotEquals(first, other);
+    }
+
+    /**
+     * Tests that exactly the requested number of stores is generated, each valid and with a unique ID and email.
+     */
+    @Test
+    void next_ShouldGenerateValidUniqueStores() {
+        StoreCatalogGenerator generator = new StoreCatalogGenerator(7, 10_000);
+        List<Store> stores = new ArrayList<>();
+        generator.forEachRemaining(stores::add);
+
+        assertEquals(10_000, stores.size());
+        assertThrows(NoSuchElementException.class, generator::next);
+        assertTrue(stores.stream().allMatch(store -> StoreValidation.validate(store).isEmpty()));
+        assertEquals(10_000, stores.stream().map(Store::getStoreId).distinct().count());
+        assertEquals(10_000, stores.stream().map(Store::getEmail).distinct().count());
+        assertTrue(stores.stream().allMatch(store -> store.getOwnerIds().size() >= 1 && store.getOwnerIds().size() <= 3));
+        assertTrue(stores.stream().allMatch(store -> store.getDeliveryFee().signum() >= 0
+                && store.getDeliveryFee().doubleValue() < 5));
+        assertTrue(stores.stream().map(Store::getStoreType).distinct().count() > 5);
+    }
+
+    /**
+     * Tests that most stores cluster around cities, and that owners follow a skewed spread:
+     * the largest owner has many stores while most owners have one or two.
+     */
+    @Test
+    void next_ShouldClusterStoresAndSkewOwners() {
+        List<Store> stores = new ArrayList<>();
+        new StoreCatalogGenerator(11, 30_000).forEachRemaining(stores::add);
+
+        long nearLondon = stores.stream()
+                .filter(store -> distanceHelper.distanceCalculation(store.getLatitude(), 51.507,
+                        store.getLongitude(), -0.128) < 30)
+                .count();
+        assertTrue(nearLondon > stores.size() / 5, "London should hold a large share of stores: " + nearLondon);
+
+        Map<UUID, Long> storesPerOwner = stores.stream()
+                .flatMap(store -> store.getOwnerIds().stream())
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        long largest = Collections.max(storesPerOwner.values());
+        long small = storesPerOwner.values().stream().filter(count -> count <= 2).count();
+        assertTrue(largest > 100, "The largest owner should own many stores: " + largest);
+        assertTrue(small > storesPerOwner.size() / 2, "Most owners should own one or two stores");
+    }
+
+    /**
+     * Tests that a negative size is rejected.
+     */
+    @Test
+    void constructor_ShouldRejectNegativeSize() {
+        assertThrows(IllegalArgumentException.class, () -> new StoreCatalogGenerator(1, -1));
+    }
+
+    private static List<String> rows(Iterator<Store> stores) {
+        List<String> rows = new ArrayList<>();
+        stores.forEachRemaining(store -> rows.add(StoreCsv.toRow(store)));
+        return rows;
+    }
+}
@@ -0,0 +1,90 @@
+package com.siopa.siopa_stores.helpers;
+
+import com.siopa.siopa_stores.models.Store;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link StoreCsv}.
+ */
+class StoreCsvTest {
+
+    /**
+     * Tests that exported rows, including quoted fields with delimiters, quotes and line breaks, read back unchanged.
+     */
+    @Test
+    void read_ShouldReadExportedRowsBack() throws Exception {
+        Store store = Store.builder()
+                .storeId(UUID.randomUUID())
+                .name("Say \"Cheese\", Ltd")
+                .region("Antrim")
+                .address("1 Main Street\nBelfast")
+                .isActive(false)
+                .email("cheese@store.com")
+                .ownerIds(new LinkedHashSet<>(List.of(UUID.randomUUID(), UUID.randomUUID())))
+                .latitude(54.5973)
+                .longitude(-5.9301)
+                .storeType("Deli")
+                .rating(4)
+                .deliveryFee(new BigDecimal("2.50"))
+                .build();
+        String csv = StoreCsv.HEADER + "\r\n" + StoreCsv.toRow(store) + "\r\n";
+
+        Iterator<Store> stores = StoreCsv.read(new StringReader(csv));
+        Store read = stores.next();
+
+        assertFalse(stores.hasNext());
+        assertEquals(store.getStoreId(), read.getStoreId());
+        assertEquals(store.getName(), read.getName());
+        assertEquals(store.getAddress(), read.getAddress());
+        assertFalse(read.isActive());
+        assertNull(read.getPhoneNumber());
+        assertEquals(store.getOwnerIds(), read.getOwnerIds());
+        assertEquals(store.getLatitude(), read.getLatitude());
+        assertEquals(store.getDeliveryFee(), read.getDeliveryFee());
+        assertEquals(StoreCsv.toRow(store), StoreCsv.toRow(read));
+    }
+
+    /**
+     * Tests that optional columns may be left out, in any column order, and blank lines are ignored.
+     */
+    @Test
+    void read_ShouldAcceptMinimalColumnsInAnyOrder() throws Exception {
+        String csv = "email,latitude,longitude,name,address\n"
+                + "corner@store.com,54.6,-5.9,Corner Shop,1 Main Street\n"
+                + "\n";
+
+        List<Store> stores = new ArrayList<>();
+        StoreCsv.read(new StringReader(csv)).forEachRemaining(stores::add);
+
+        assertEquals(1, stores.size());
+        Store store = stores.get(0);
+        assertNull(store.getStoreId());
+        assertEquals("Corner Shop", store.getName());
+        assertTrue(store.isActive());
+        assertTrue(store.getOwnerIds().isEmpty());
+    }
+
+    /**
+     * Tests that a missing mandatory column and an unparseable record are rejected.
+     */
+    @Test
+    void read_ShouldRejectInvalidInput() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> StoreCsv.read(new StringReader("name,address,email,latitude\n")));
+
+        Iterator<Store> stores = StoreCsv.read(new StringReader(
+                "name,address,email,latitude,longitude\nShop,Street,shop@store.com,north,-5.9\n"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, stores::next);
+        assertTrue(e.getMessage().startsWith("Invalid CSV record 2"));
+    }
+}
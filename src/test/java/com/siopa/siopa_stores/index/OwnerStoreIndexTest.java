@@ -0,0 +1,205 @@
+package com.siopa.siopa_stores.index;
+
+import com.siopa.siopa_stores.models.StoreOwnership;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link OwnerStoreIndex}.
+ */
+class OwnerStoreIndexTest {
+
+    private StoreRepository storeRepository;
+    private OwnerStoreIndex ownerStoreIndex;
+    private UUID ownerId;
+    private UUID firstStoreId;
+    private UUID secondStoreId;
+
+    /**
+     * Builds an index holding one owner of two stores before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        storeRepository = mock(StoreRepository.class);
+        ownerStoreIndex = new OwnerStoreIndex(storeRepository);
+        ownerId = UUID.randomUUID();
+        firstStoreId = UUID.randomUUID();
+        secondStoreId = UUID.randomUUID();
+
+        ownerStoreIndex.rebuild(List.of(
+                new StoreOwnership(firstStoreId, ownerId),
+                new StoreOwnership(secondStoreId, ownerId)));
+    }
+
+    /**
+     * Clears any transaction synchronization left behind by a test.
+     */
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Tests that a rebuild indexes every store of an owner.
+     */
+    @Test
+    void findStoreIds_ShouldReturnIndexedStores() {
+        assertTrue(ownerStoreIndex.isReady());
+        assertEquals(Optional.of(List.of(firstStoreId, secondStoreId)), ownerStoreIndex.findStoreIds(ownerId));
+    }
+
+    /**
+     * Tests that owners unknown to a loaded index own no stores, without being added to it.
+     */
+    @Test
+    void findStoreIds_ShouldReturnNoStores_WhenOwnerIsUnknown() {
+        assertEquals(Optional.of(List.of()), ownerStoreIndex.findStoreIds(UUID.randomUUID()));
+    }
+
+    /**
+     * Tests that every lookup is reported as a miss until the index has loaded.
+     */
+    @Test
+    void findStoreIds_ShouldReturnEmpty_WhenIndexIsNotLoaded() {
+        OwnerStoreIndex unloaded = new OwnerStoreIndex(storeRepository);
+        unloaded.add(ownerId, firstStoreId);
+
+        assertFalse(unloaded.isReady());
+        assertEquals(Optional.empty(), unloaded.findStoreIds(ownerId));
+    }
+
+    /**
+     * Tests that stores can be added and removed incrementally, and that adding twice has no effect.
+     */
+    @Test
+    void addAndRemove_ShouldUpdateOwnerIncrementally() {
+        UUID thirdStoreId = UUID.randomUUID();
+
+        ownerStoreIndex.add(ownerId, thirdStoreId);
+        ownerStoreIndex.add(ownerId, thirdStoreId);
+        ownerStoreIndex.remove(ownerId, firstStoreId);
+
+        assertEquals(Optional.of(List.of(secondStoreId, thirdStoreId)), ownerStoreIndex.findStoreIds(ownerId));
+    }
+
+    /**
+     * Tests that removing an owner's last store leaves the owner with no stores.
+     */
+    @Test
+    void remove_ShouldLeaveOwnerWithNoStores() {
+        ownerStoreIndex.remove(ownerId, firstStoreId);
+        ownerStoreIndex.remove(ownerId, secondStoreId);
+
+        assertEquals(Optional.of(List.of()), ownerStoreIndex.findStoreIds(ownerId));
+    }
+
+    /**
+     * Tests that changes made inside a transaction only show once it commits.
+     */
+    @Test
+    void addAndRemove_ShouldWaitForCommit_WhenTransactionIsActive() {
+        UUID thirdStoreId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        ownerStoreIndex.add(ownerId, thirdStoreId);
+        ownerStoreIndex.remove(ownerId, firstStoreId);
+
+        assertEquals(Optional.of(List.of(firstStoreId, secondStoreId)), ownerStoreIndex.findStoreIds(ownerId));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(Optional.of(List.of(secondStoreId, thirdStoreId)), ownerStoreIndex.findStoreIds(ownerId));
+    }
+
+    /**
+     * Tests that changes committed while the index is loading are kept in the loaded index.
+     */
+    @Test
+    void load_ShouldKeepChangesMadeDuringLoad() {
+        UUID newOwnerId = UUID.randomUUID();
+        UUID newStoreId = UUID.randomUUID();
+        OwnerStoreIndex loading = new OwnerStoreIndex(storeRepository);
+        when(storeRepository.streamAllOwnerships()).thenReturn(Stream.of(
+                new StoreOwnership(firstStoreId, ownerId),
+                new StoreOwnership(secondStoreId, ownerId)
+        ).peek(ownership -> {
+            // Committed after the database snapshot was taken, so the load does not see them.
+            if (ownership.getStoreId().equals(secondStoreId)) {
+                loading.add(newOwnerId, newStoreId);
+                loading.remove(ownerId, firstStoreId);
+            }
+        }));
+
+        loading.load();
+
+        assertEquals(Optional.of(List.of(secondStoreId)), loading.findStoreIds(ownerId));
+        assertEquals(Optional.of(List.of(newStoreId)), loading.findStoreIds(newOwnerId));
+    }
+
+    /**
+     * Tests that replacing a store's owners takes it off the owners it lost and adds it to the new ones.
+     */
+    @Test
+    void setOwners_ShouldMoveStoreBetweenOwners() {
+        UUID newOwnerId = UUID.randomUUID();
+
+        ownerStoreIndex.setOwners(firstStoreId, Set.of(newOwnerId));
+
+        assertEquals(Optional.of(List.of(secondStoreId)), ownerStoreIndex.findStoreIds(ownerId));
+        assertEquals(Optional.of(List.of(firstStoreId)), ownerStoreIndex.findStoreIds(newOwnerId));
+
+        ownerStoreIndex.setOwners(firstStoreId, Set.of());
+
+        assertEquals(Optional.of(List.of()), ownerStoreIndex.findStoreIds(newOwnerId));
+    }
+
+    /**
+     * Tests that removing a store takes it off every owner, whichever way the ownership was recorded.
+     */
+    @Test
+    void removeStore_ShouldRemoveStoreFromAllOwners() {
+        UUID otherOwnerId = UUID.randomUUID();
+        ownerStoreIndex.add(otherOwnerId, secondStoreId);
+
+        ownerStoreIndex.removeStore(secondStoreId);
+
+        assertEquals(Optional.of(List.of(firstStoreId)), ownerStoreIndex.findStoreIds(ownerId));
+        assertEquals(Optional.of(List.of()), ownerStoreIndex.findStoreIds(otherOwnerId));
+    }
+
+    /**
+     * Tests that a refresh replaces the contents with the ownerships in the database, and waits for the initial load.
+     */
+    @Test
+    void refresh_ShouldReloadFromDatabase_OnceLoaded() {
+        UUID newOwnerId = UUID.randomUUID();
+        when(storeRepository.streamAllOwnerships()).thenAnswer(invocation -> Stream.of(
+                new StoreOwnership(secondStoreId, ownerId),
+                new StoreOwnership(firstStoreId, newOwnerId)));
+
+        OwnerStoreIndex notLoaded = new OwnerStoreIndex(storeRepository);
+        notLoaded.refresh();
+        assertFalse(notLoaded.isReady());
+
+        ownerStoreIndex.refresh();
+
+        assertEquals(Optional.of(List.of(secondStoreId)), ownerStoreIndex.findStoreIds(ownerId));
+        assertEquals(Optional.of(List.of(firstStoreId)), ownerStoreIndex.findStoreIds(newOwnerId));
+    }
+}
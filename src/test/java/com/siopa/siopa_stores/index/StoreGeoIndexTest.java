@@ -0,0 +1,193 @@
+package com.siopa.siopa_stores.index;
+
+import com.siopa.siopa_stores.helpers.DistanceHelper;
+import com.siopa.siopa_stores.models.StoreLocation;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link StoreGeoIndex}.
+ */
+class StoreGeoIndexTest {
+
+    private final DistanceHelper distanceHelper = new DistanceHelper();
+
+    private StoreRepository storeRepository;
+    private StoreGeoIndex storeGeoIndex;
+    private UUID belfastId;
+    private UUID lisburnId;
+    private UUID dublinId;
+
+    /**
+     * Builds an index over a handful of known locations before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        storeRepository = mock(StoreRepository.class);
+        storeGeoIndex = new StoreGeoIndex(storeRepository, distanceHelper, 0.1);
+        belfastId = UUID.randomUUID();
+        lisburnId = UUID.randomUUID();
+        dublinId = UUID.randomUUID();
+
+        storeGeoIndex.rebuild(List.of(
+                new StoreLocation(belfastId, 54.5973, -5.9301),
+                new StoreLocation(lisburnId, 54.5162, -6.0580),
+                new StoreLocation(dublinId, 53.3498, -6.2603)));
+    }
+
+    /**
+     * Clears any transaction synchronization left behind by a test.
+     */
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Tests that only stores inside the radius are returned, with their exact distance.
+     */
+    @Test
+    void findNearest_ShouldReturnStoresInsideRadius() {
+        List<GeoHit> hits = storeGeoIndex.findNearest(54.5973, -5.9301, 10, null);
+
+        assertTrue(storeGeoIndex.isReady());
+        assertEquals(Set.of(belfastId, lisburnId), ids(hits));
+        GeoHit lisburn = hits.stream().filter(hit -> hit.getStoreId().equals(lisburnId)).findFirst().orElseThrow();
+        assertEquals(distanceHelper.distanceCalculation(54.5162, 54.5973, -6.0580, -5.9301), lisburn.getDistance(), 1e-9);
+    }
+
+    /**
+     * Tests that the index agrees with a brute-force scan for a large radius.
+     */
+    @Test
+    void findNearest_ShouldMatchBruteForce_ForLargeRadius() {
+        assertEquals(Set.of(belfastId, lisburnId, dublinId), ids(storeGeoIndex.findNearest(54.0, -6.0, 120, null)));
+        assertEquals(Set.of(), ids(storeGeoIndex.findNearest(40.7128, -74.0060, 120, null)));
+    }
+
+    /**
+     * Tests that stores can be added, moved and removed after the initial load.
+     */
+    @Test
+    void putAndRemove_ShouldKeepIndexCurrent() {
+        UUID newId = UUID.randomUUID();
+        storeGeoIndex.put(newId, 54.6, -5.93);
+        assertTrue(ids(storeGeoIndex.findNearest(54.5973, -5.9301, 1, null)).contains(newId));
+
+        storeGeoIndex.put(newId, 53.35, -6.26);
+        assertFalse(ids(storeGeoIndex.findNearest(54.5973, -5.9301, 1, null)).contains(newId));
+        assertTrue(ids(storeGeoIndex.findNearest(53.3498, -6.2603, 1, null)).contains(newId));
+
+        storeGeoIndex.remove(newId);
+        storeGeoIndex.remove(dublinId);
+        assertEquals(Set.of(), ids(storeGeoIndex.findNearest(53.3498, -6.2603, 1, null)));
+        assertEquals(2, storeGeoIndex.size());
+    }
+
+    /**
+     * Tests that searches spanning the antimeridian find stores on both sides.
+     */
+    @Test
+    void findNearest_ShouldHandleAntimeridian() {
+        UUID eastId = UUID.randomUUID();
+        UUID westId = UUID.randomUUID();
+        storeGeoIndex.put(eastId, -17.0, 179.95);
+        storeGeoIndex.put(westId, -17.0, -179.95);
+
+        assertEquals(Set.of(eastId, westId), ids(storeGeoIndex.findNearest(-17.0, 180.0, 10, null)));
+    }
+
+    /**
+     * Tests that a limited search keeps only the nearest stores, ordered by distance.
+     */
+    @Test
+    void findNearest_ShouldReturnNearestFirst_WithLimit() {
+        List<GeoHit> hits = storeGeoIndex.findNearest(54.55, -6.0, 120, 2);
+
+        assertEquals(List.of(lisburnId, belfastId), hits.stream().map(GeoHit::getStoreId).toList());
+        assertTrue(hits.get(0).getDistance() <= hits.get(1).getDistance());
+    }
+
+    /**
+     * Tests that changes made inside a transaction only show once it commits.
+     */
+    @Test
+    void putAndRemove_ShouldWaitForCommit_WhenTransactionIsActive() {
+        UUID newId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        storeGeoIndex.put(newId, 54.6, -5.93);
+        storeGeoIndex.remove(belfastId);
+
+        assertEquals(Set.of(belfastId), ids(storeGeoIndex.findNearest(54.5973, -5.9301, 1, null)));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(Set.of(newId), ids(storeGeoIndex.findNearest(54.5973, -5.9301, 1, null)));
+    }
+
+    /**
+     * Tests that changes committed while the index is loading are kept in the loaded grid.
+     */
+    @Test
+    void load_ShouldKeepChangesMadeDuringLoad() {
+        UUID newId = UUID.randomUUID();
+        StoreGeoIndex loading = new StoreGeoIndex(storeRepository, distanceHelper, 0.1);
+        when(storeRepository.streamAllLocations()).thenReturn(Stream.of(
+                new StoreLocation(belfastId, 54.5973, -5.9301),
+                new StoreLocation(lisburnId, 54.5162, -6.0580)
+        ).peek(location -> {
+            // Committed after the database snapshot was taken, so the load does not see them.
+            if (location.getStoreId().equals(lisburnId)) {
+                loading.put(newId, 54.6, -5.93);
+                loading.remove(belfastId);
+            }
+        }));
+
+        loading.load();
+
+        assertEquals(Set.of(lisburnId, newId), ids(loading.findNearest(54.5973, -5.9301, 10, null)));
+        assertEquals(2, loading.size());
+    }
+
+    /**
+     * Tests that a refresh replaces the contents with the stores in the database, dropping stores deleted elsewhere,
+     * and that it waits for the initial load.
+     */
+    @Test
+    void refresh_ShouldReloadFromDatabase_OnceLoaded() {
+        UUID addedElsewhere = UUID.randomUUID();
+        when(storeRepository.streamAllLocations()).thenAnswer(invocation -> Stream.of(
+                new StoreLocation(lisburnId, 54.5162, -6.0580),
+                new StoreLocation(addedElsewhere, 54.6, -5.93)));
+
+        StoreGeoIndex notLoaded = new StoreGeoIndex(storeRepository, distanceHelper, 0.1);
+        notLoaded.refresh();
+        assertFalse(notLoaded.isReady());
+
+        storeGeoIndex.refresh();
+
+        assertEquals(Set.of(lisburnId, addedElsewhere), ids(storeGeoIndex.findNearest(54.5973, -5.9301, 10, null)));
+        assertEquals(2, storeGeoIndex.size());
+    }
+
+    private static Set<UUID> ids(List<GeoHit> hits) {
+        return hits.stream().map(GeoHit::getStoreId).collect(Collectors.toSet());
+    }
+}
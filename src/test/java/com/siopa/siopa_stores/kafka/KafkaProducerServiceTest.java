@@ -0,0 +1,75 @@
+package com.siopa.siopa_stores.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link KafkaProducerService}, against a mock producer that completes sends on demand.
+ */
+class KafkaProducerServiceTest {
+
+    private MockProducer<String, Object> producer;
+    private SimpleMeterRegistry meterRegistry;
+    private KafkaProducerService kafkaProducerService;
+
+    /**
+     * Sets up the service over a mock producer whose sends stay in flight until completed by the test.
+     */
+    @BeforeEach
+    void setUp() {
+        producer = new MockProducer<>(false, new StringSerializer(), new JsonSerializer<>());
+        meterRegistry = new SimpleMeterRegistry();
+        KafkaTemplate<String, Object> kafkaTemplate = new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+        kafkaProducerService = new KafkaProducerService(kafkaTemplate, meterRegistry);
+    }
+
+    /**
+     * Tests that a send returns immediately, is keyed, and is reported in flight until acknowledged.
+     */
+    @Test
+    void send_ShouldReportSuccessWhenAcknowledged() {
+        UUID ownerId = UUID.randomUUID();
+
+        CompletableFuture<SendResult<String, Object>> result = kafkaProducerService.send(OwnerRoleUpdateEvent.TOPIC,
+                ownerId.toString(), new OwnerRoleUpdateEvent(ownerId, "OWNER"));
+
+        assertFalse(result.isDone());
+        assertEquals(1, meterRegistry.get("stores.kafka.send.in-flight").gauge().value());
+        assertEquals(ownerId.toString(), producer.history().get(0).key());
+
+        producer.completeNext();
+
+        assertTrue(result.isDone());
+        assertFalse(result.isCompletedExceptionally());
+        assertEquals(0, meterRegistry.get("stores.kafka.send.in-flight").gauge().value());
+        assertEquals(1, meterRegistry.get("stores.kafka.send").tag("outcome", "success").timer().count());
+    }
+
+    /**
+     * Tests that a failed send completes the future exceptionally and is counted as a failure.
+     */
+    @Test
+    void send_ShouldReportFailure() {
+        CompletableFuture<SendResult<String, Object>> result = kafkaProducerService.send(OwnerRoleUpdateEvent.TOPIC,
+                "key", new OwnerRoleUpdateEvent(UUID.randomUUID(), "OWNER"));
+
+        producer.errorNext(new RuntimeException("broker unavailable"));
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, kafkaProducerService.getInFlight());
+        assertEquals(1, meterRegistry.get("stores.kafka.send").tag("outcome", "failure")
+                .tag("topic", OwnerRoleUpdateEvent.TOPIC).timer().count());
+    }
+}
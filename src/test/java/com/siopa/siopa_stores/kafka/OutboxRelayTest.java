@@ -0,0 +1,243 @@
+package com.siopa.siopa_stores.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.siopa_stores.models.OutboxEvent;
+import com.siopa.siopa_stores.repositories.OutboxEventRepository;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.NotEnoughReplicasException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link OutboxRelay}.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OutboxRelay outboxRelay;
+
+    /**
+     * Sets up a relay reading batches of up to ten events.
+     */
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaProducerService, objectMapper, transactionManager,
+                10, Duration.ofSeconds(1), Duration.ofMinutes(2));
+    }
+
+    /**
+     * Tests that acknowledged events are published with their keys and deleted from the outbox,
+     * with the batch claimed in one transaction and cleared in another, and nothing sent inside a transaction.
+     */
+    @Test
+    void relayBatch_ShouldPublishAndDeleteEvents() throws Exception {
+        UUID ownerId = UUID.randomUUID();
+        OutboxEvent event = event(1L, ownerId);
+        givenBatch(event);
+        when(kafkaProducerService.send(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(1, outboxRelay.relayBatch());
+
+        InOrder inOrder = inOrder(outboxEventRepository, transactionManager, kafkaProducerService);
+        inOrder.verify(outboxEventRepository).claim(eq(List.of(1L)), any());
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(kafkaProducerService).send(OwnerRoleUpdateEvent.TOPIC, ownerId.toString(),
+                new OwnerRoleUpdateEvent(ownerId, "OWNER"));
+        inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        inOrder.verify(transactionManager).commit(any());
+        verify(outboxEventRepository, never()).incrementAttempts(any());
+        verify(outboxEventRepository, never()).release(any());
+    }
+
+    /**
+     * Tests that an owner's next event is only sent once the previous one is acknowledged.
+     */
+    @Test
+    void relayBatch_ShouldSendEventsOfOneKeyInTurn() throws Exception {
+        UUID ownerId = UUID.randomUUID();
+        givenBatch(event(1L, ownerId), event(2L, ownerId));
+        CompletableFuture<SendResult<String, Object>> firstAck = new CompletableFuture<>();
+        when(kafkaProducerService.send(any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    // The second event must not be sent while the first is unacknowledged.
+                    assertFalse(firstAck.isDone());
+                    firstAck.complete(null);
+                    return firstAck;
+                })
+                .thenAnswer(invocation -> {
+                    assertTrue(firstAck.isDone());
+                    return CompletableFuture.completedFuture(null);
+                });
+
+        assertEquals(2, outboxRelay.relayBatch());
+
+        verify(kafkaProducerService, times(2)).send(any(), eq(ownerId.toString()), any());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    /**
+     * Tests that when an owner's event fails, the owner's later events are not sent but kept for retry,
+     * while other owners' events are still published.
+     */
+    @Test
+    void relayBatch_ShouldKeepLaterEventsOfFailedKey() throws Exception {
+        UUID failingOwner = UUID.randomUUID();
+        UUID otherOwner = UUID.randomUUID();
+        givenBatch(event(1L, failingOwner), event(2L, otherOwner), event(3L, failingOwner));
+        when(kafkaProducerService.send(any(), eq(failingOwner.toString()), any()))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker unavailable")));
+        when(kafkaProducerService.send(any(), eq(otherOwner.toString()), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(1, outboxRelay.relayBatch());
+
+        verify(kafkaProducerService, times(1)).send(any(), eq(failingOwner.toString()), any());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(2L));
+        verify(outboxEventRepository).incrementAttempts(List.of(1L));
+        verify(outboxEventRepository).release(argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 3L))));
+        verify(outboxEventRepository, never()).park(any(), any());
+    }
+
+    /**
+     * Tests that a tombstone is published with a null value.
+     */
+    @Test
+    void relayBatch_ShouldPublishTombstoneWithNullValue() {
+        OutboxEvent tombstone = OutboxEvent.builder()
+                .id(1L)
+                .topic(StoreChangedEvent.TOPIC)
+                .eventKey("store-id")
+                .createdAt(Instant.now())
+                .build();
+        givenBatch(tombstone);
+        when(kafkaProducerService.send(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(1, outboxRelay.relayBatch());
+
+        verify(kafkaProducerService).send(StoreChangedEvent.TOPIC, "store-id", null);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxEventRepository, never()).park(any(), any());
+    }
+
+    /**
+     * Tests that an event whose payload cannot be read is parked at once, so it no longer blocks its owner.
+     */
+    @Test
+    void relayBatch_ShouldParkUnreadableEvent() throws Exception {
+        UUID ownerId = UUID.randomUUID();
+        OutboxEvent unreadable = OutboxEvent.builder()
+                .id(1L)
+                .topic(OwnerRoleUpdateEvent.TOPIC)
+                .eventKey(ownerId.toString())
+                .eventType(OwnerRoleUpdateEvent.class.getName())
+                .payload("{not json")
+                .createdAt(Instant.now())
+                .build();
+        givenBatch(unreadable, event(2L, ownerId));
+
+        assertEquals(1, outboxRelay.relayBatch());
+
+        verifyNoInteractions(kafkaProducerService);
+        verify(outboxEventRepository).park(eq(List.of(1L)), any());
+        verify(outboxEventRepository).release(List.of(2L));
+    }
+
+    /**
+     * Tests that an event Kafka keeps rejecting is parked after the last allowed attempt,
+     * while transient failures are retried however often they occur.
+     */
+    @Test
+    void relayBatch_ShouldParkRejectedEvent_AfterLastAttempt() throws Exception {
+        UUID rejectedOwner = UUID.randomUUID();
+        UUID unavailableOwner = UUID.randomUUID();
+        givenBatch(event(1L, rejectedOwner, OutboxRelay.PARK_ATTEMPTS - 1),
+                event(2L, unavailableOwner, OutboxRelay.PARK_ATTEMPTS * 10));
+        when(kafkaProducerService.send(any(), eq(rejectedOwner.toString()), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RecordTooLargeException("too large")));
+        when(kafkaProducerService.send(any(), eq(unavailableOwner.toString()), any()))
+                .thenReturn(CompletableFuture.failedFuture(new NotEnoughReplicasException("not enough replicas")));
+
+        assertEquals(1, outboxRelay.relayBatch());
+
+        verify(outboxEventRepository).park(eq(List.of(1L)), any());
+        verify(outboxEventRepository).incrementAttempts(List.of(2L));
+    }
+
+    /**
+     * Tests that nothing is read or sent while another relay holds the lock.
+     */
+    @Test
+    void relayBatch_ShouldDoNothing_WhenLockIsHeld() {
+        when(outboxEventRepository.tryLock(OutboxRelay.RELAY_LOCK_ID)).thenReturn(false);
+
+        assertEquals(0, outboxRelay.relayBatch());
+
+        verify(outboxEventRepository, never()).findAllByParkedAtIsNullOrderByIdAsc(any());
+        verifyNoInteractions(kafkaProducerService);
+    }
+
+    /**
+     * Tests that nothing is read or sent while another relay is still publishing the batch it claimed.
+     */
+    @Test
+    void relayBatch_ShouldDoNothing_WhenBatchIsClaimed() {
+        when(outboxEventRepository.tryLock(OutboxRelay.RELAY_LOCK_ID)).thenReturn(true);
+        when(outboxEventRepository.existsByClaimedUntilAfter(any())).thenReturn(true);
+
+        assertEquals(0, outboxRelay.relayBatch());
+
+        verify(outboxEventRepository, never()).findAllByParkedAtIsNullOrderByIdAsc(any());
+        verifyNoInteractions(kafkaProducerService);
+    }
+
+    private void givenBatch(OutboxEvent... events) {
+        when(outboxEventRepository.tryLock(OutboxRelay.RELAY_LOCK_ID)).thenReturn(true);
+        when(outboxEventRepository.findAllByParkedAtIsNullOrderByIdAsc(Limit.of(10))).thenReturn(List.of(events));
+    }
+
+    private OutboxEvent event(long id, UUID ownerId) throws Exception {
+        return event(id, ownerId, 0);
+    }
+
+    private OutboxEvent event(long id, UUID ownerId, int attempts) throws Exception {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(OwnerRoleUpdateEvent.TOPIC)
+                .eventKey(ownerId.toString())
+                .eventType(OwnerRoleUpdateEvent.class.getName())
+                .payload(objectMapper.writeValueAsString(new OwnerRoleUpdateEvent(ownerId, "OWNER")))
+                .createdAt(Instant.now())
+                .attempts(attempts)
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.siopa.siopa_stores.kafka;
+
+import com.siopa.siopa_stores.exceptions.InvalidRequestException;
+import com.siopa.siopa_stores.service.OwnerRevocationService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link OwnerRoleEventListener}.
+ */
+@ExtendWith(MockitoExtension.class)
+class OwnerRoleEventListenerTest {
+
+    @Mock
+    private OwnerRevocationService ownerRevocationService;
+
+    private OwnerRoleEventListener ownerRoleEventListener;
+
+    @BeforeEach
+    void setUp() {
+        ownerRoleEventListener = new OwnerRoleEventListener(ownerRevocationService, Set.of("CUSTOMER", "ROLE_USER"));
+    }
+
+    /**
+     * Tests that every user moved to a revoking role in a batch is revoked in a single call.
+     */
+    @Test
+    void onRoleChanges_ShouldRevokeNonOwnersInOneCall() {
+        UUID revoked = UUID.randomUUID();
+        UUID demoted = UUID.randomUUID();
+        UUID owner = UUID.randomUUID();
+
+        ownerRoleEventListener.onRoleChanges(List.of(
+                record(0, new OwnerRoleUpdateEvent(revoked, "CUSTOMER")),
+                record(1, new OwnerRoleUpdateEvent(owner, "OWNER")),
+                record(2, new OwnerRoleUpdateEvent(demoted, "ROLE_USER")),
+                record(3, new OwnerRoleUpdateEvent(revoked, "CUSTOMER"))));
+
+        verify(ownerRevocationService).revokeOwners(Set.of(revoked, demoted));
+    }
+
+    /**
+     * Tests that roles other than the owner role and the revoking roles, including case variants, revoke nothing.
+     */
+    @Test
+    void onRoleChanges_ShouldIgnoreUnknownRoles() {
+        ownerRoleEventListener.onRoleChanges(List.of(
+                record(0, new OwnerRoleUpdateEvent(UUID.randomUUID(), "ADMIN")),
+                record(1, new OwnerRoleUpdateEvent(UUID.randomUUID(), "owner")),
+                record(2, new OwnerRoleUpdateEvent(UUID.randomUUID(), "customer"))));
+
+        verify(ownerRevocationService).revokeOwners(Set.of());
+    }
+
+    /**
+     * Tests that an unreadable message is reported by index after the messages before it are applied.
+     */
+    @Test
+    void onRoleChanges_ShouldApplyPrefixAndReportPoisonMessage() {
+        UUID revoked = UUID.randomUUID();
+
+        BatchListenerFailedException e = assertThrows(BatchListenerFailedException.class,
+                () -> ownerRoleEventListener.onRoleChanges(List.of(
+                        record(0, new OwnerRoleUpdateEvent(revoked, "CUSTOMER")),
+                        record(1, null),
+                        record(2, new OwnerRoleUpdateEvent(UUID.randomUUID(), "CUSTOMER")))));
+
+        assertEquals(1, e.getIndex());
+        assertInstanceOf(InvalidRequestException.class, e.getCause());
+        verify(ownerRevocationService).revokeOwners(Set.of(revoked));
+        verifyNoMoreInteractions(ownerRevocationService);
+    }
+
+    private static ConsumerRecord<String, OwnerRoleUpdateEvent> record(long offset, OwnerRoleUpdateEvent event) {
+        return new ConsumerRecord<>("user-role-changes", 0, offset, null, event);
+    }
+}
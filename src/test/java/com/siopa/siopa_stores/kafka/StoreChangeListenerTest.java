@@ -0,0 +1,118 @@
+package com.siopa.siopa_stores.kafka;
+
+import com.siopa.siopa_stores.cache.StoreCache;
+import com.siopa.siopa_stores.index.OwnerStoreIndex;
+import com.siopa.siopa_stores.index.StoreGeoIndex;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent.ChangeType;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent.StoreState;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link StoreChangeListener}.
+ */
+@ExtendWith(MockitoExtension.class)
+class StoreChangeListenerTest {
+
+    @Mock
+    private StoreGeoIndex storeGeoIndex;
+
+    @Mock
+    private OwnerStoreIndex ownerStoreIndex;
+
+    @Mock
+    private StoreCache storeCache;
+
+    private StoreChangeListener storeChangeListener;
+
+    /**
+     * Creates the listener before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        storeChangeListener = new StoreChangeListener(storeGeoIndex, ownerStoreIndex, storeCache, Duration.ofMinutes(5));
+    }
+
+    /**
+     * Tests that created and updated stores are indexed at their new location with their owners,
+     * deleted stores are removed from both indexes, and all of them are evicted from the cache.
+     */
+    @Test
+    void onStoreChanges_ShouldApplyChangesToIndexes() {
+        UUID created = UUID.randomUUID();
+        UUID moved = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        UUID ownerId = UUID.randomUUID();
+
+        storeChangeListener.onStoreChanges(List.of(
+                record(0, created, new StoreChangedEvent(created, ChangeType.CREATED, 0, state(54.6, -5.9, ownerId))),
+                record(1, moved, new StoreChangedEvent(moved, ChangeType.UPDATED, 3, state(53.3, -6.2))),
+                record(2, deleted, new StoreChangedEvent(deleted, ChangeType.DELETED, 5, null))));
+
+        verify(storeGeoIndex).put(created, 54.6, -5.9);
+        verify(storeGeoIndex).put(moved, 53.3, -6.2);
+        verify(storeGeoIndex).remove(deleted);
+        verify(ownerStoreIndex).setOwners(created, Set.of(ownerId));
+        verify(ownerStoreIndex).setOwners(moved, Set.of());
+        verify(ownerStoreIndex).removeStore(deleted);
+        verify(storeCache).evictStores(Set.of(created, moved, deleted));
+        verifyNoMoreInteractions(storeGeoIndex, ownerStoreIndex);
+    }
+
+    /**
+     * Tests that a change older than one already applied to the store is skipped, in the same batch or a later one,
+     * while a newer change is still applied.
+     */
+    @Test
+    void onStoreChanges_ShouldSkipStaleChanges() {
+        UUID storeId = UUID.randomUUID();
+        UUID ownerId = UUID.randomUUID();
+
+        storeChangeListener.onStoreChanges(List.of(
+                record(0, storeId, new StoreChangedEvent(storeId, ChangeType.UPDATED, 4, state(53.3, -6.2, ownerId))),
+                record(1, storeId, new StoreChangedEvent(storeId, ChangeType.UPDATED, 2, state(54.6, -5.9)))));
+        storeChangeListener.onStoreChanges(List.of(
+                record(2, storeId, new StoreChangedEvent(storeId, ChangeType.UPDATED, 3, state(54.6, -5.9)))));
+        storeChangeListener.onStoreChanges(List.of(
+                record(3, storeId, new StoreChangedEvent(storeId, ChangeType.DELETED, 5, null))));
+
+        verify(storeGeoIndex).put(storeId, 53.3, -6.2);
+        verify(ownerStoreIndex).setOwners(storeId, Set.of(ownerId));
+        verify(storeGeoIndex).remove(storeId);
+        verify(ownerStoreIndex).removeStore(storeId);
+        verifyNoMoreInteractions(storeGeoIndex, ownerStoreIndex);
+    }
+
+    /**
+     * Tests that tombstones and unreadable messages are skipped.
+     */
+    @Test
+    void onStoreChanges_ShouldSkipTombstones() {
+        UUID storeId = UUID.randomUUID();
+
+        storeChangeListener.onStoreChanges(List.of(record(0, storeId, null)));
+
+        verifyNoInteractions(storeGeoIndex, ownerStoreIndex);
+    }
+
+    private static StoreState state(double latitude, double longitude, UUID... ownerIds) {
+        return new StoreState("Store", "Antrim", "1 Test Street", true, null, "store@store.com",
+                latitude, longitude, "grocery", 4, BigDecimal.ONE, Set.of(ownerIds));
+    }
+
+    private static ConsumerRecord<String, StoreChangedEvent> record(long offset, UUID storeId, StoreChangedEvent event) {
+        return new ConsumerRecord<>(StoreChangedEvent.TOPIC, 0, offset, storeId.toString(), event);
+    }
+}
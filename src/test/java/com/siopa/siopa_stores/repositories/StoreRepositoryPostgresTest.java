@@ -0,0 +1,97 @@
+package com.siopa.siopa_stores.repositories;
+
+import com.siopa.siopa_stores.models.Store;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link StoreRepository} statements that only PostgreSQL runs, against a PostgreSQL container.
+ * Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class StoreRepositoryPostgresTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    /**
+     * Tests that revoked owners are unlinked from all of their stores in one statement, which returns each removed
+     * link as a store ID and an owner ID, and leaves the other owners' links in place.
+     */
+    @Test
+    void deleteOwnersReturningLinks_ShouldReturnRemovedLinks() {
+        UUID revoked = UUID.randomUUID();
+        UUID otherRevoked = UUID.randomUUID();
+        UUID kept = UUID.randomUUID();
+        Store first = persistStore("first@store.com", revoked, kept);
+        Store second = persistStore("second@store.com", revoked, otherRevoked);
+        Store untouched = persistStore("third@store.com", kept);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        List<Object[]> rows = storeRepository.deleteOwnersReturningLinks(List.of(revoked, otherRevoked));
+
+        Set<List<UUID>> links = new HashSet<>();
+        for (Object[] row : rows) {
+            links.add(List.of((UUID) row[0], (UUID) row[1]));
+        }
+        assertEquals(Set.of(
+                List.of(first.getStoreId(), revoked),
+                List.of(second.getStoreId(), revoked),
+                List.of(second.getStoreId(), otherRevoked)), links);
+        testEntityManager.clear();
+
+        assertEquals(Set.of(kept), storeRepository.findById(first.getStoreId()).orElseThrow().getOwnerIds());
+        assertTrue(storeRepository.findById(second.getStoreId()).orElseThrow().getOwnerIds().isEmpty());
+        assertEquals(Set.of(kept), storeRepository.findById(untouched.getStoreId()).orElseThrow().getOwnerIds());
+        assertTrue(storeRepository.deleteOwnersReturningLinks(List.of(revoked)).isEmpty());
+    }
+
+    private Store persistStore(String email, UUID... ownerIds) {
+        return testEntityManager.persist(Store.builder()
+                .name("Store " + email)
+                .address("1 Test Street")
+                .isActive(true)
+                .email(email)
+                .ownerIds(new HashSet<>(List.of(ownerIds)))
+                .latitude(54.5)
+                .longitude(-5.9)
+                .rating(4)
+                .deliveryFee(BigDecimal.ONE)
+                .build());
+    }
+}
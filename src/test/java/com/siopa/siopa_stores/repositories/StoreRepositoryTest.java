@@ -0,0 +1,207 @@
+package com.siopa.siopa_stores.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.models.StoreSummary;
+import com.siopa.siopa_stores.service.StoreExportService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link StoreRepository} against an embedded database, counting the SQL statements each
+ * listing needs once its stores are serialized with their owner IDs.
+ * The database runs in PostgreSQL mode, for the native owner statements.
+ */
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:stores;MODE=PostgreSQL",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class StoreRepositoryTest {
+
+    private static final int STORE_COUNT = 500;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    /**
+     * Persists a catalog of active stores with two owners each, and starts counting statements from a cold session.
+     */
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < STORE_COUNT; i++) {
+            testEntityManager.persist(Store.builder()
+                    .name("Store " + i)
+                    .address(i + " Test Street")
+                    .isActive(true)
+                    .email("store" + i + "@store.com")
+                    .ownerIds(new HashSet<>(List.of(UUID.randomUUID(), UUID.randomUUID())))
+                    .latitude(54.5 + i * 0.0001)
+                    .longitude(-5.9)
+                    .rating(4)
+                    .deliveryFee(BigDecimal.ONE)
+                    .build());
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Tests that a full page of stores and all of their owners are loaded in two statements.
+     */
+    @Test
+    void findAllByOrderByStoreIdAsc_ShouldLoadOwnersInBulk() throws Exception {
+        List<Store> stores = storeRepository.findAllByOrderByStoreIdAsc(Limit.of(STORE_COUNT));
+
+        assertSerializedWithOwners(stores);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that the active store listing loads owners in bulk.
+     */
+    @Test
+    void findByIsActiveTrue_ShouldLoadOwnersInBulk() throws Exception {
+        List<Store> stores = storeRepository.findByIsActiveTrue();
+
+        assertSerializedWithOwners(stores);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that the stores loaded for nearby results, by ID, load owners in bulk.
+     */
+    @Test
+    void findAllById_ShouldLoadOwnersInBulk() throws Exception {
+        List<UUID> storeIds = storeRepository.findWithinBoundingBox(54, 55, -6, -5).stream()
+                .map(Store::getStoreId)
+                .toList();
+        testEntityManager.clear();
+        statistics.clear();
+
+        List<Store> stores = storeRepository.findAllById(storeIds);
+
+        assertSerializedWithOwners(stores);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that stores looked up by ID come with their owners in a single statement,
+     * so they can be cached and served after the session closes.
+     */
+    @Test
+    void findAllByStoreIdIn_ShouldFetchOwnersWithStores() throws Exception {
+        List<UUID> storeIds = storeRepository.findWithinBoundingBox(54, 55, -6, -5).stream()
+                .map(Store::getStoreId)
+                .toList();
+        testEntityManager.clear();
+        statistics.clear();
+
+        List<Store> stores = storeRepository.findAllByStoreIdIn(storeIds);
+        testEntityManager.clear();
+
+        assertSerializedWithOwners(stores);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that owners are linked and unlinked one row at a time, that repeating either is a no-op,
+     * and that the store's version is bumped.
+     */
+    @Test
+    void insertOwner_ShouldChangeOneRowAtATime() {
+        Store store = storeRepository.findAllByOrderByStoreIdAsc(Limit.of(1)).get(0);
+        UUID storeId = store.getStoreId();
+        long version = store.getVersion();
+        UUID ownerId = UUID.randomUUID();
+        testEntityManager.clear();
+        statistics.clear();
+
+        assertEquals(1, storeRepository.insertOwner(storeId, ownerId));
+        assertEquals(0, storeRepository.insertOwner(storeId, ownerId));
+        assertEquals(1, storeRepository.incrementVersion(storeId));
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        Store updated = storeRepository.findById(storeId).orElseThrow();
+        assertEquals(3, updated.getOwnerIds().size());
+        assertTrue(updated.getOwnerIds().contains(ownerId));
+        assertEquals(version + 1, updated.getVersion());
+        testEntityManager.clear();
+
+        assertEquals(1, storeRepository.deleteOwner(storeId, ownerId));
+        assertEquals(0, storeRepository.deleteOwner(storeId, ownerId));
+        assertEquals(2, storeRepository.findById(storeId).orElseThrow().getOwnerIds().size());
+    }
+
+    /**
+     * Tests that each summary page is read in a single statement, without loading entities or owners.
+     */
+    @Test
+    void findSummaries_ShouldReadEachPageInOneStatement() {
+        List<StoreSummary> firstPage = storeRepository.findSummaries(Limit.of(300));
+        List<StoreSummary> secondPage = storeRepository.findActiveSummariesAfter(
+                firstPage.get(firstPage.size() - 1).getStoreId(), Limit.of(300));
+
+        assertEquals(300, firstPage.size());
+        assertEquals(STORE_COUNT - 300, secondPage.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    /**
+     * Tests that the full export streams every store with its owners in two statements, however many stores there are.
+     */
+    @Test
+    void streamAll_ShouldExportStoresWithOwnersInTwoStatements() throws Exception {
+        StoreExportService storeExportService =
+                new StoreExportService(storeRepository, testEntityManager.getEntityManager(), objectMapper);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(STORE_COUNT, storeExportService.exportNdjson(out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(STORE_COUNT, lines.length);
+        for (String line : lines) {
+            assertEquals(2, objectMapper.readTree(line).get("ownerIds").size());
+        }
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private void assertSerializedWithOwners(List<Store> stores) throws Exception {
+        assertEquals(STORE_COUNT, stores.size());
+        String json = objectMapper.writeValueAsString(stores);
+        assertTrue(stores.stream().allMatch(store -> store.getOwnerIds().size() == 2));
+        assertFalse(json.isEmpty());
+    }
+}
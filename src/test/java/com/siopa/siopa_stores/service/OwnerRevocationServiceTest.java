@@ -0,0 +1,75 @@
+package com.siopa.siopa_stores.service;
+
+import com.siopa.siopa_stores.cache.StoreCache;
+import com.siopa.siopa_stores.index.OwnerStoreIndex;
+import com.siopa.siopa_stores.kafka.EventOutbox;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link OwnerRevocationService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class OwnerRevocationServiceTest {
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    @Mock
+    private StoreCache storeCache;
+
+    @Mock
+    private OwnerStoreIndex ownerStoreIndex;
+
+    @Mock
+    private EventOutbox eventOutbox;
+
+    @InjectMocks
+    private OwnerRevocationService ownerRevocationService;
+
+    /**
+     * Tests that owners are unlinked in one statement and each affected store is versioned, evicted and published once.
+     */
+    @Test
+    void revokeOwners_ShouldUnlinkInBulkAndRefreshAffectedStores() {
+        UUID firstOwner = UUID.randomUUID();
+        UUID secondOwner = UUID.randomUUID();
+        Store store = Store.builder().storeId(UUID.randomUUID()).email("shared@store.com").version(3L).build();
+        when(storeRepository.deleteOwnersReturningLinks(Set.of(firstOwner, secondOwner))).thenReturn(List.of(
+                new Object[]{store.getStoreId(), firstOwner}, new Object[]{store.getStoreId(), secondOwner}));
+        when(storeRepository.findAllByStoreIdIn(List.of(store.getStoreId()))).thenReturn(List.of(store));
+
+        int removed = ownerRevocationService.revokeOwners(Set.of(firstOwner, secondOwner));
+
+        assertEquals(2, removed);
+        verify(storeRepository).incrementVersions(List.of(store.getStoreId()));
+        verify(storeCache).evict(store.getStoreId(), "shared@store.com");
+        verify(eventOutbox, times(1)).enqueue(eq(StoreChangedEvent.TOPIC), eq(store.getStoreId().toString()), any());
+        verify(ownerStoreIndex).remove(firstOwner, store.getStoreId());
+        verify(ownerStoreIndex).remove(secondOwner, store.getStoreId());
+    }
+
+    /**
+     * Tests that an empty batch does not reach the database.
+     */
+    @Test
+    void revokeOwners_ShouldDoNothing_WhenNoOwners() {
+        assertEquals(0, ownerRevocationService.revokeOwners(Set.of()));
+
+        verifyNoInteractions(storeRepository, storeCache, ownerStoreIndex, eventOutbox);
+    }
+}
@@ -0,0 +1,113 @@
+package com.siopa.siopa_stores.service;
+
+import com.siopa.siopa_stores.exceptions.InvalidRequestException;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.requests.LocationRequest;
+import com.siopa.siopa_stores.responses.NearbyStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ReactiveStoreService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactiveStoreServiceTest {
+
+    @Mock
+    private StoreService storeService;
+
+    private Scheduler scheduler;
+    private ReactiveStoreService reactiveStoreService;
+    private Store store;
+
+    /**
+     * Wires the service to a single-threaded lookup scheduler.
+     */
+    @BeforeEach
+    void setUp() {
+        scheduler = Schedulers.newBoundedElastic(1, 10, "test-lookup");
+        reactiveStoreService = new ReactiveStoreService(storeService, scheduler);
+        store = new Store();
+        store.setStoreId(UUID.randomUUID());
+        store.setName("Test Store");
+    }
+
+    /**
+     * Disposes of the lookup scheduler.
+     */
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    /**
+     * Tests that lookups are deferred until subscription and then run on the lookup scheduler.
+     */
+    @Test
+    void getStoreById_ShouldRunOnLookupScheduler() {
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(storeService.getStoreById(store.getStoreId())).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return Optional.of(store);
+        });
+
+        var result = reactiveStoreService.getStoreById(store.getStoreId());
+        verifyNoInteractions(storeService);
+
+        assertSame(store, result.block());
+        assertTrue(thread.get().startsWith("test-lookup"));
+    }
+
+    /**
+     * Tests that a missing store completes empty.
+     */
+    @Test
+    void getStoreById_ShouldCompleteEmpty_WhenNotFound() {
+        UUID storeId = UUID.randomUUID();
+        when(storeService.getStoreById(storeId)).thenReturn(Optional.empty());
+
+        assertNull(reactiveStoreService.getStoreById(storeId).block());
+    }
+
+    /**
+     * Tests that nearby stores are emitted one by one, in distance order.
+     */
+    @Test
+    void findStoresByLatLng_ShouldEmitNearbyStores() {
+        LocationRequest request = new LocationRequest(54.6, -5.9);
+        Store further = new Store();
+        further.setName("Further Store");
+        when(storeService.findStoresByLatLng(request))
+                .thenReturn(List.of(new NearbyStore<>(store, 0.5), new NearbyStore<>(further, 2.0)));
+
+        List<NearbyStore<Store>> result = reactiveStoreService.findStoresByLatLng(request).collectList().block();
+
+        assertEquals(List.of(0.5, 2.0), result.stream().map(NearbyStore::getDistance).toList());
+    }
+
+    /**
+     * Tests that an invalid request is reported as an error signal.
+     */
+    @Test
+    void findStoresByLatLng_ShouldFail_WhenRequestInvalid() {
+        LocationRequest request = new LocationRequest(91, 0);
+        when(storeService.findStoresByLatLng(request)).thenThrow(new InvalidRequestException("Invalid latitude"));
+
+        assertThrows(InvalidRequestException.class,
+                () -> reactiveStoreService.findStoresByLatLng(request).collectList().block());
+    }
+}
@@ -0,0 +1,236 @@
+package com.siopa.siopa_stores.service;
+
+import com.siopa.siopa_stores.cache.StoreCache;
+import com.siopa.siopa_stores.index.OwnerStoreIndex;
+import com.siopa.siopa_stores.index.StoreGeoIndex;
+import com.siopa.siopa_stores.kafka.EventOutbox;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent.ChangeType;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.repositories.OutboxEventRepository;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+import com.siopa.siopa_stores.responses.BatchItemResult;
+import com.siopa.siopa_stores.responses.BatchItemResult.Status;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link StoreBatchService} against an embedded database, with the same JDBC batching settings
+ * as the application and the real {@link EventOutbox}, so the outbox rows count towards the statements.
+ * Each chunk commits on its own, so the tests run outside a test transaction.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true",
+        "stores.batch.chunk-size=50"
+})
+@Import({StoreBatchService.class, EventOutbox.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StoreBatchServiceTest {
+
+    @Autowired
+    private StoreBatchService storeBatchService;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private StoreGeoIndex storeGeoIndex;
+
+    @MockBean
+    private OwnerStoreIndex ownerStoreIndex;
+
+    @MockBean
+    private StoreCache storeCache;
+
+    @SpyBean
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private Statistics statistics;
+
+    /**
+     * Starts counting statements before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Removes the stores and outbox events each test case committed.
+     */
+    @AfterEach
+    void tearDown() {
+        storeRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+    }
+
+    /**
+     * Tests that stores and their outbox events are inserted in JDBC batches: one statement per table per chunk,
+     * not per store. Outbox IDs come from the sequence a block at a time, so the 100 events take between one
+     * and three sequence calls, depending on how much of a block earlier test cases left.
+     */
+    @Test
+    void createStores_ShouldInsertInBatches() {
+        List<Store> stores = IntStream.range(0, 100).mapToObj(i -> store("batch" + i + "@store.com")).toList();
+
+        List<BatchItemResult> results = storeBatchService.createStores(stores);
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements >= 7 && statements <= 9, "Expected 6 inserts and 1 to 3 sequence calls, got "
+                + statements + " statements");
+        assertEquals(100, outboxEventRepository.count());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == Status.CREATED));
+        assertEquals(100, storeRepository.count());
+        verify(storeGeoIndex, times(100)).put(any(), anyDouble(), anyDouble());
+        verify(ownerStoreIndex, times(100)).add(any(), any());
+        verify(eventOutbox, times(100)).enqueue(eq(StoreChangedEvent.TOPIC), any(), any(StoreChangedEvent.class));
+    }
+
+    /**
+     * Tests that invalid stores are reported without preventing the valid ones from being created.
+     */
+    @Test
+    void createStores_ShouldReportInvalidStores() {
+        Store missingName = store("nameless@store.com");
+        missingName.setName(" ");
+
+        List<BatchItemResult> results = storeBatchService.createStores(List.of(
+                store("first@store.com"), missingName, store("first@store.com")));
+
+        assertEquals(List.of(Status.CREATED, Status.INVALID, Status.INVALID),
+                results.stream().map(BatchItemResult::getStatus).toList());
+        assertEquals("Name is mandatory", results.get(1).getError());
+        assertEquals("Email appears more than once in the request", results.get(2).getError());
+        assertNotNull(results.get(0).getStoreId());
+        assertEquals(1, storeRepository.count());
+    }
+
+    /**
+     * Tests that a chunk the database rejects is retried store by store, so only the offending store fails.
+     */
+    @Test
+    void createStores_ShouldRetryRejectedChunkOneByOne() {
+        storeBatchService.createStores(List.of(store("taken@store.com")));
+
+        List<BatchItemResult> results = storeBatchService.createStores(List.of(
+                store("fresh@store.com"), store("taken@store.com"), store("other@store.com")));
+
+        assertEquals(List.of(Status.CREATED, Status.FAILED, Status.CREATED),
+                results.stream().map(BatchItemResult::getStatus).toList());
+        assertEquals(3, storeRepository.count());
+    }
+
+    /**
+     * Tests that existing stores are updated, unknown IDs are reported and cached lookups are evicted.
+     */
+    @Test
+    void updateStores_ShouldUpdateExistingStores() {
+        UUID storeId = storeBatchService.createStores(List.of(store("before@store.com"))).get(0).getStoreId();
+        Store updated = store("after@store.com");
+        updated.setStoreId(storeId);
+        updated.setName("Renamed Store");
+        Store unknown = store("unknown@store.com");
+        unknown.setStoreId(UUID.randomUUID());
+
+        List<BatchItemResult> results = storeBatchService.updateStores(List.of(updated, unknown));
+
+        assertEquals(List.of(Status.UPDATED, Status.NOT_FOUND), results.stream().map(BatchItemResult::getStatus).toList());
+        assertEquals("Renamed Store", storeRepository.findById(storeId).orElseThrow().getName());
+        verify(storeCache).evict(storeId, "before@store.com", "after@store.com");
+        verify(eventOutbox).enqueue(eq(StoreChangedEvent.TOPIC), eq(storeId.toString()),
+                argThat(event -> event instanceof StoreChangedEvent changed && changed.getType() == ChangeType.UPDATED
+                        && changed.getVersion() == 1 && changed.getStore().getName().equals("Renamed Store")));
+    }
+
+    /**
+     * Tests that an update based on an older version fails without changing the store,
+     * while the other stores in the chunk are still updated.
+     */
+    @Test
+    void updateStores_ShouldFailStaleUpdate() {
+        UUID staleId = storeBatchService.createStores(List.of(store("stale@store.com"))).get(0).getStoreId();
+        UUID currentId = storeBatchService.createStores(List.of(store("current@store.com"))).get(0).getStoreId();
+        Store concurrent = storeRepository.findById(staleId).orElseThrow();
+        concurrent.setName("Concurrent Rename");
+        storeRepository.save(concurrent);
+        Store stale = store("stale@store.com");
+        stale.setStoreId(staleId);
+        stale.setName("Stale Rename");
+        stale.setVersion(0L);
+        Store current = store("current@store.com");
+        current.setStoreId(currentId);
+        current.setName("Current Rename");
+
+        List<BatchItemResult> results = storeBatchService.updateStores(List.of(stale, current));
+
+        assertEquals(List.of(Status.FAILED, Status.UPDATED), results.stream().map(BatchItemResult::getStatus).toList());
+        assertEquals("Concurrent Rename", storeRepository.findById(staleId).orElseThrow().getName());
+        assertEquals("Current Rename", storeRepository.findById(currentId).orElseThrow().getName());
+    }
+
+    /**
+     * Tests that empty and oversized payloads are rejected outright.
+     */
+    @Test
+    void createStores_ShouldRejectInvalidPayloadSize() {
+        List<Store> tooMany = IntStream.range(0, StoreBatchService.MAX_BATCH_SIZE + 1)
+                .mapToObj(i -> store(i + "@store.com"))
+                .toList();
+
+        assertThrows(IllegalArgumentException.class, () -> storeBatchService.createStores(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> storeBatchService.updateStores(tooMany));
+    }
+
+    private static Store store(String email) {
+        return Store.builder()
+                .name("Batch Store")
+                .address("1 Batch Street")
+                .isActive(true)
+                .email(email)
+                .ownerIds(new HashSet<>(Set.of(UUID.randomUUID())))
+                .latitude(54.6)
+                .longitude(-5.9)
+                .rating(3)
+                .deliveryFee(BigDecimal.ONE)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.siopa.siopa_stores.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.siopa_stores.helpers.StoreCatalogGenerator;
+import com.siopa.siopa_stores.helpers.StoreCsv;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+import com.siopa.siopa_stores.responses.ImportResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link StoreCatalogSeeder}.
+ */
+@ExtendWith(MockitoExtension.class)
+class StoreCatalogSeederTest {
+
+    @Mock
+    private StoreImportService storeImportService;
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Tests that without an output file the catalog is imported into the database.
+     */
+    @Test
+    void run_ShouldImportCatalog_WhenNoOutput() throws Exception {
+        when(storeImportService.importStores(any())).thenReturn(new ImportResult(100, 130, 0));
+
+        new StoreCatalogSeeder(storeImportService, storeRepository, objectMapper, 100, 42, "").run(null);
+
+        verify(storeImportService).importStores(any(StoreCatalogGenerator.class));
+    }
+
+    /**
+     * Tests that nothing is imported when the database already holds stores, so a restart does not fail.
+     */
+    @Test
+    void run_ShouldSkipImport_WhenStoresExist() throws Exception {
+        when(storeRepository.count()).thenReturn(100L);
+
+        new StoreCatalogSeeder(storeImportService, storeRepository, objectMapper, 100, 42, "").run(null);
+
+        verifyNoInteractions(storeImportService);
+    }
+
+    /**
+     * Tests that an unsupported output file is rejected without being opened, leaving an existing file intact.
+     */
+    @Test
+    void run_ShouldRejectUnsupportedOutput_BeforeOpeningIt(@TempDir Path directory) throws Exception {
+        Path output = Files.writeString(directory.resolve("stores.xml"), "<stores/>");
+        StoreCatalogSeeder seeder =
+                new StoreCatalogSeeder(storeImportService, storeRepository, objectMapper, 10, 42, output.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> seeder.run(null));
+
+        assertEquals("<stores/>", Files.readString(output));
+    }
+
+    /**
+     * Tests that a CSV catalog is written in the export layout and reads back as the generated stores.
+     */
+    @Test
+    void run_ShouldWriteCsvCatalog(@TempDir Path directory) throws Exception {
+        Path output = directory.resolve("stores.csv");
+
+        new StoreCatalogSeeder(storeImportService, storeRepository, objectMapper, 500, 42, output.toString()).run(null);
+
+        List<String> expected = new ArrayList<>();
+        new StoreCatalogGenerator(42, 500).forEachRemaining(store -> expected.add(StoreCsv.toRow(store)));
+        List<String> actual = new ArrayList<>();
+        StoreCsv.read(new StringReader(Files.readString(output))).forEachRemaining(store -> actual.add(StoreCsv.toRow(store)));
+        assertEquals(expected, actual);
+        verifyNoInteractions(storeImportService, storeRepository);
+    }
+
+    /**
+     * Tests that NDJSON is written one store per line, and unknown extensions are rejected.
+     */
+    @Test
+    void write_ShouldWriteNdjson() throws Exception {
+        StoreCatalogSeeder seeder = new StoreCatalogSeeder(storeImportService, storeRepository, objectMapper, 10, 42, "");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(10, seeder.write(new StoreCatalogGenerator(42, 10), "stores.ndjson", out));
+
+        Iterator<Store> stores = objectMapper.readerFor(Store.class).readValues(out.toByteArray());
+        List<Store> read = new ArrayList<>();
+        stores.forEachRemaining(read::add);
+        assertEquals(10, read.size());
+        assertEquals(10, out.toString(StandardCharsets.UTF_8).lines().count());
+        assertThrows(IllegalArgumentException.class,
+                () -> seeder.write(new StoreCatalogGenerator(42, 1), "stores.xml", new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,136 @@
+package com.siopa.siopa_stores.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.siopa_stores.helpers.StoreCsv;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.models.StoreOwnership;
+import com.siopa.siopa_stores.repositories.StoreRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link StoreExportService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class StoreExportServiceTest {
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StoreExportService storeExportService;
+    private Store first;
+    private Store second;
+    private UUID ownerId;
+
+    /**
+     * Sets up test data before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        storeExportService = new StoreExportService(storeRepository, entityManager, objectMapper);
+        ownerId = UUID.randomUUID();
+        first = Store.builder()
+                .storeId(UUID.randomUUID())
+                .name("Corner Shop")
+                .address("1 Main Street, Belfast")
+                .email("corner@store.com")
+                .latitude(54.5973)
+                .longitude(-5.9301)
+                .deliveryFee(BigDecimal.valueOf(2.50))
+                .build();
+        second = Store.builder()
+                .storeId(UUID.randomUUID())
+                .name("Say \"Cheese\"")
+                .address("2 Main Street")
+                .email("cheese@store.com")
+                .build();
+    }
+
+    /**
+     * Tests that each store is written as one JSON line, detached and with the owners read alongside it.
+     */
+    @Test
+    void exportNdjson_ShouldWriteOneLinePerStore() throws Exception {
+        when(storeRepository.streamAll()).thenReturn(Stream.of(first, second));
+        when(storeRepository.streamAllOwnershipsOrderByStoreId())
+                .thenReturn(Stream.of(new StoreOwnership(first.getStoreId(), ownerId)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = storeExportService.exportNdjson(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertEquals("Corner Shop", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals("Say \"Cheese\"", objectMapper.readTree(lines[1]).get("name").asText());
+        assertEquals(ownerId.toString(), objectMapper.readTree(lines[0]).get("ownerIds").get(0).asText());
+        assertTrue(objectMapper.readTree(lines[1]).get("ownerIds").isEmpty());
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    /**
+     * Tests that the CSV export writes a header and escapes fields containing delimiters or quotes.
+     */
+    @Test
+    void exportCsv_ShouldWriteHeaderAndEscapedRows() throws Exception {
+        when(storeRepository.streamAll()).thenReturn(Stream.of(first, second));
+        when(storeRepository.streamAllOwnershipsOrderByStoreId())
+                .thenReturn(Stream.of(new StoreOwnership(first.getStoreId(), ownerId)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = storeExportService.exportCsv(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(StoreCsv.HEADER, lines[0]);
+        assertTrue(lines[1].contains(",\"1 Main Street, Belfast\","));
+        assertTrue(lines[2].contains(",\"Say \"\"Cheese\"\"\","));
+        verify(entityManager, times(2)).detach(any(Store.class));
+    }
+
+    /**
+     * Tests that owner links of stores the store cursor did not return are skipped, so they are neither exported
+     * nor hold back the owners of the stores that follow them in database order.
+     */
+    @Test
+    void exportNdjson_ShouldSkipOwnersOfStoresNotExported() throws Exception {
+        first.setStoreId(UUID.fromString("10000000-0000-0000-0000-000000000001"));
+        second.setStoreId(UUID.fromString("c0000000-0000-0000-0000-000000000002"));
+        UUID secondOwnerId = UUID.randomUUID();
+        when(storeRepository.streamAll()).thenReturn(Stream.of(first, second));
+        when(storeRepository.streamAllOwnershipsOrderByStoreId()).thenReturn(Stream.of(
+                new StoreOwnership(UUID.fromString("00000000-0000-0000-0000-000000000001"), UUID.randomUUID()),
+                new StoreOwnership(first.getStoreId(), ownerId),
+                new StoreOwnership(UUID.fromString("20000000-0000-0000-0000-000000000001"), UUID.randomUUID()),
+                new StoreOwnership(second.getStoreId(), secondOwnerId)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        storeExportService.exportNdjson(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, objectMapper.readTree(lines[0]).get("ownerIds").size());
+        assertEquals(ownerId.toString(), objectMapper.readTree(lines[0]).get("ownerIds").get(0).asText());
+        assertEquals(1, objectMapper.readTree(lines[1]).get("ownerIds").size());
+        assertEquals(secondOwnerId.toString(), objectMapper.readTree(lines[1]).get("ownerIds").get(0).asText());
+    }
+}
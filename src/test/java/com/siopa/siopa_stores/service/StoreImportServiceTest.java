@@ -0,0 +1,178 @@
+package com.siopa.siopa_stores.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.siopa_stores.cache.StoreCache;
+import com.siopa.siopa_stores.index.OwnerStoreIndex;
+import com.siopa.siopa_stores.index.StoreGeoIndex;
+import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.responses.ImportResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link StoreImportService}, against a mocked PostgreSQL copy API.
+ */
+@ExtendWith(MockitoExtension.class)
+class StoreImportServiceTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private CopyManager copyManager;
+
+    @Mock
+    private CopyIn copyIn;
+
+    @Mock
+    private StoreGeoIndex storeGeoIndex;
+
+    @Mock
+    private OwnerStoreIndex ownerStoreIndex;
+
+    @Mock
+    private StoreCache storeCache;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ByteArrayOutputStream copiedStores = new ByteArrayOutputStream();
+    private final StringWriter copiedOwners = new StringWriter();
+
+    private StoreImportService storeImportService;
+    private UUID ownerId;
+
+    /**
+     * Wires the service to a connection whose copy commands record what they are sent.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        storeImportService = new StoreImportService(dataSource, objectMapper, storeGeoIndex, ownerStoreIndex, storeCache);
+        ownerId = UUID.randomUUID();
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(StoreImportService.COPY_STORES)).thenReturn(copyIn);
+        lenient().doAnswer(invocation -> {
+            copiedStores.write(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        lenient().when(copyManager.copyIn(eq(StoreImportService.COPY_OWNERS), any(Reader.class))).thenAnswer(invocation -> {
+            ((Reader) invocation.getArgument(1)).transferTo(copiedOwners);
+            return copiedOwners.toString().lines().count();
+        });
+    }
+
+    /**
+     * Tests that valid stores and their owners are copied in one transaction, and derived data is refreshed after.
+     */
+    @Test
+    void importStores_ShouldCopyStoresAndOwners() throws Exception {
+        UUID storeId = UUID.randomUUID();
+        Store existing = store("Say \"Cheese\"", "cheese@store.com");
+        existing.setStoreId(storeId);
+        Store fresh = store("Corner Shop", "corner@store.com");
+        fresh.setOwnerIds(Set.of());
+        Store invalid = store(null, "invalid@store.com");
+
+        ImportResult result = storeImportService.importStores(List.of(existing, invalid, fresh).iterator());
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getOwners());
+        assertEquals(1, result.getSkipped());
+
+        List<String> rows = copiedStores.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, rows.size());
+        assertEquals(storeId + ",\"Say \"\"Cheese\"\"\",,\"1 Main Street\",true,,\"cheese@store.com\",54.6,-5.9,,3,2.50,0",
+                rows.get(0));
+        assertEquals(storeId + "," + ownerId + "\n", copiedOwners.toString());
+
+        verify(copyIn).endCopy();
+        verify(connection).commit();
+        verify(connection, never()).rollback();
+        verify(connection).setAutoCommit(true);
+        verify(storeGeoIndex).refresh();
+        verify(ownerStoreIndex).refresh();
+        verify(storeGeoIndex, never()).load();
+        verify(ownerStoreIndex, never()).load();
+        verify(storeCache).evictAll();
+    }
+
+    /**
+     * Tests that a rejected copy rolls the whole import back and leaves derived data untouched.
+     */
+    @Test
+    void importStores_ShouldRollBack_WhenCopyFails() throws Exception {
+        when(copyIn.endCopy()).thenThrow(new SQLException("duplicate key value violates unique constraint"));
+        when(copyIn.isActive()).thenReturn(true);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> storeImportService.importStores(List.of(store("Corner Shop", "corner@store.com")).iterator()));
+
+        assertTrue(e.getMessage().contains("nothing was imported"));
+        verify(copyIn).cancelCopy();
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        verifyNoInteractions(storeGeoIndex, ownerStoreIndex, storeCache);
+    }
+
+    /**
+     * Tests that NDJSON in the export layout is imported, and malformed NDJSON is rejected.
+     */
+    @Test
+    void importNdjson_ShouldImportExportedStores() throws Exception {
+        String ndjson = objectMapper.writeValueAsString(store("Corner Shop", "corner@store.com")) + "\n"
+                + objectMapper.writeValueAsString(store("Deli", "deli@store.com")) + "\n";
+
+        ImportResult result = storeImportService.importNdjson(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getOwners());
+        assertThrows(IllegalArgumentException.class, () -> storeImportService.importNdjson(
+                new ByteArrayInputStream("{\"name\": ".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private Store store(String name, String email) {
+        return Store.builder()
+                .name(name)
+                .address("1 Main Street")
+                .isActive(true)
+                .email(email)
+                .ownerIds(Set.of(ownerId))
+                .latitude(54.6)
+                .longitude(-5.9)
+                .rating(3)
+                .deliveryFee(new BigDecimal("2.50"))
+                .build();
+    }
+}
@@ -1,16 +1,32 @@
 package com.siopa.siopa_stores.service;
 
+import com.siopa.siopa_stores.cache.StoreCache;
+import com.siopa.siopa_stores.helpers.BoundingBox;
 import com.siopa.siopa_stores.helpers.DistanceHelper;
-import com.siopa.siopa_stores.kafka.KafkaProducerService;
+import com.siopa.siopa_stores.index.GeoHit;
+import com.siopa.siopa_stores.index.OwnerStoreIndex;
+import com.siopa.siopa_stores.index.StoreGeoIndex;
+import com.siopa.siopa_stores.kafka.EventOutbox;
+import com.siopa.siopa_stores.kafka.OwnerRoleUpdateEvent;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent;
+import com.siopa.siopa_stores.kafka.StoreChangedEvent.ChangeType;
 import com.siopa.siopa_stores.models.Store;
+import com.siopa.siopa_stores.models.StoreSummary;
 import com.siopa.siopa_stores.repositories.StoreRepository;
 import com.siopa.siopa_stores.requests.LocationRequest;
+import com.siopa.siopa_stores.responses.NearbyBatchResult;
+import com.siopa.siopa_stores.responses.NearbyStore;
+import com.siopa.siopa_stores.responses.StoreLookup;
+import com.siopa.siopa_stores.responses.StorePage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -28,11 +44,20 @@ class StoreServiceTest {
     private StoreRepository storeRepository;
 
     @Mock
-    private KafkaProducerService kafkaProducerService;
+    private EventOutbox eventOutbox;
 
     @Mock
     private DistanceHelper distanceHelper;
 
+    @Mock
+    private StoreGeoIndex storeGeoIndex;
+
+    @Mock
+    private StoreCache storeCache;
+
+    @Mock
+    private OwnerStoreIndex ownerStoreIndex;
+
     @InjectMocks
     private StoreService storeService;
 
@@ -56,27 +81,70 @@ class StoreServiceTest {
                 .isActive(true)
                 .phoneNumber("1234567890")
                 .email("test@store.com")
-                .ownerIds(new ArrayList<>(List.of(ownerId)))
+                .ownerIds(new HashSet<>(Set.of(ownerId)))
                 .latitude(40.7128)
                 .longitude(-74.0060)
                 .storeType("Grocery")
                 .rating(5)
                 .deliveryFee(BigDecimal.valueOf(5.99))
+                .version(0L)
                 .build();
     }
 
     /**
-     * Tests retrieval of all stores.
+     * Tests retrieval of the first page of stores.
      */
     @Test
     void getAllStores_ShouldReturnListOfStores() {
-        when(storeRepository.findAll()).thenReturn(List.of(store));
+        when(storeRepository.findAllByOrderByStoreIdAsc(Limit.of(101))).thenReturn(List.of(store));
 
-        List<Store> result = storeService.getAllStores();
+        StorePage<Store> result = storeService.getAllStores(null, 100);
 
-        assertEquals(1, result.size());
-        assertEquals("Test Store", result.get(0).getName());
-        verify(storeRepository, times(1)).findAll();
+        assertEquals(1, result.getStores().size());
+        assertEquals("Test Store", result.getStores().get(0).getName());
+        assertNull(result.getNextCursor());
+        verify(storeRepository, never()).findAll();
+    }
+
+    /**
+     * Tests that a full page returns a cursor and the next page continues after it.
+     */
+    @Test
+    void getAllStores_ShouldReturnNextCursor_WhenMoreStoresFollow() {
+        Store secondStore = Store.builder().storeId(UUID.randomUUID()).name("Second Store").build();
+        when(storeRepository.findByStoreIdGreaterThanOrderByStoreIdAsc(storeId, Limit.of(2)))
+                .thenReturn(List.of(store, secondStore));
+
+        StorePage<Store> result = storeService.getAllStores(storeId, 1);
+
+        assertEquals(List.of(store), result.getStores());
+        assertEquals(storeId, result.getNextCursor());
+    }
+
+    /**
+     * Tests that summary pages are queried as projections and carry a cursor like full pages.
+     */
+    @Test
+    void getActiveStoreSummaries_ShouldReturnNextCursor_WhenMoreStoresFollow() {
+        StoreSummary first = StoreSummary.of(store);
+        StoreSummary second = new StoreSummary(UUID.randomUUID(), "Second Store", 0, 0, null, 0, null);
+        when(storeRepository.findActiveSummaries(Limit.of(2))).thenReturn(List.of(first, second));
+
+        StorePage<StoreSummary> result = storeService.getActiveStoreSummaries(null, 1);
+
+        assertEquals(List.of(first), result.getStores());
+        assertEquals(storeId, result.getNextCursor());
+        verify(storeRepository, never()).findByIsActiveTrueOrderByStoreIdAsc(any());
+    }
+
+    /**
+     * Tests that out-of-range page sizes are rejected.
+     */
+    @Test
+    void getAllStores_ShouldRejectInvalidPageSize() {
+        assertThrows(IllegalArgumentException.class, () -> storeService.getAllStores(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> storeService.getActiveStores(null, 1001));
+        verifyNoInteractions(storeRepository);
     }
 
     /**
@@ -107,18 +175,67 @@ class StoreServiceTest {
         verify(storeRepository, times(1)).findByEmail(store.getEmail());
     }
 
+    /**
+     * Tests that a multi-store lookup serves cached stores, loads and caches the rest in one query,
+     * and answers in request order with missing IDs marked.
+     */
+    @Test
+    void getStoresByIds_ShouldCombineCachedAndLoadedStores() {
+        Store cached = Store.builder().storeId(UUID.randomUUID()).name("Cached Store").build();
+        UUID missingId = UUID.randomUUID();
+        when(storeCache.getAll(Set.of(cached.getStoreId(), storeId, missingId)))
+                .thenReturn(Map.of(cached.getStoreId(), cached));
+        when(storeRepository.findAllByStoreIdIn(List.of(storeId, missingId))).thenReturn(List.of(store));
+
+        List<StoreLookup> result = storeService.getStoresByIds(List.of(storeId, missingId, cached.getStoreId(), storeId));
+
+        assertEquals(List.of(storeId, missingId, cached.getStoreId(), storeId),
+                result.stream().map(StoreLookup::getStoreId).toList());
+        assertEquals(List.of(true, false, true, true), result.stream().map(StoreLookup::isFound).toList());
+        assertSame(store, result.get(0).getStore());
+        assertNull(result.get(1).getStore());
+        assertSame(cached, result.get(2).getStore());
+        verify(storeCache).putAll(argThat(stores -> List.copyOf(stores).equals(List.of(store))));
+        verify(storeRepository, never()).findById(any());
+    }
+
+    /**
+     * Tests that a lookup of only cached stores does not query the database.
+     */
+    @Test
+    void getStoresByIds_ShouldNotQuery_WhenAllCached() {
+        when(storeCache.getAll(Set.of(storeId))).thenReturn(Map.of(storeId, store));
+
+        List<StoreLookup> result = storeService.getStoresByIds(List.of(storeId));
+
+        assertSame(store, result.get(0).getStore());
+        verifyNoInteractions(storeRepository);
+    }
+
+    /**
+     * Tests that empty and oversized lookups are rejected.
+     */
+    @Test
+    void getStoresByIds_ShouldRejectInvalidSize() {
+        List<UUID> tooMany = Collections.nCopies(StoreService.MAX_LOOKUP_IDS + 1, storeId);
+
+        assertThrows(IllegalArgumentException.class, () -> storeService.getStoresByIds(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> storeService.getStoresByIds(tooMany));
+    }
+
     /**
      * Tests retrieval of active stores.
      */
     @Test
     void getActiveStores_ShouldReturnListOfActiveStores() {
-        when(storeRepository.findByIsActiveTrue()).thenReturn(List.of(store));
+        when(storeRepository.findByIsActiveTrueAndStoreIdGreaterThanOrderByStoreIdAsc(ownerId, Limit.of(101)))
+                .thenReturn(List.of(store));
 
-        List<Store> result = storeService.getActiveStores();
+        StorePage<Store> result = storeService.getActiveStores(ownerId, 100);
 
-        assertEquals(1, result.size());
-        assertTrue(result.get(0).isActive());
-        verify(storeRepository, times(1)).findByIsActiveTrue();
+        assertEquals(1, result.getStores().size());
+        assertTrue(result.getStores().get(0).isActive());
+        verify(storeRepository, never()).findByIsActiveTrue();
     }
 
     /**
@@ -133,6 +250,8 @@ class StoreServiceTest {
         assertNotNull(result);
         assertEquals("Test Store", result.getName());
         verify(storeRepository, times(1)).save(store);
+        verify(eventOutbox).enqueue(StoreChangedEvent.TOPIC, storeId.toString(),
+                StoreChangedEvent.of(ChangeType.CREATED, store));
     }
 
     /**
@@ -140,64 +259,168 @@ class StoreServiceTest {
      */
     @Test
     void updateStore_ShouldUpdateAndReturnStore_WhenStoreExists() {
-        Store updatedStore = store;
-        updatedStore.setName("Updated Store");
+        String oldEmail = store.getEmail();
+        Store updatedStore = Store.builder()
+                .name("Updated Store")
+                .email("updated@example.com")
+                .ownerIds(new HashSet<>())
+                .build();
 
         when(storeRepository.findById(storeId)).thenReturn(Optional.of(store));
-        when(storeRepository.save(any(Store.class))).thenReturn(updatedStore);
+        when(storeRepository.saveAndFlush(any(Store.class))).thenAnswer(invocation -> {
+            Store saved = invocation.getArgument(0);
+            saved.setVersion(saved.getVersion() + 1);
+            return saved;
+        });
 
         Store result = storeService.updateStore(storeId, updatedStore);
 
         assertEquals("Updated Store", result.getName());
-        verify(storeRepository, times(1)).save(store);
+        verify(storeRepository, times(1)).saveAndFlush(store);
+        verify(eventOutbox).enqueue(eq(StoreChangedEvent.TOPIC), eq(storeId.toString()),
+                argThat(event -> event instanceof StoreChangedEvent changed && changed.getVersion() == 1
+                        && changed.getStore().getName().equals("Updated Store")));
+        verify(storeCache, times(1)).evict(storeId, oldEmail, "updated@example.com");
     }
 
     /**
-     * Tests deleting a store by ID.
+     * Tests that an update based on an older version of the store is rejected without saving,
+     * so owners added since are not removed.
+     */
+    @Test
+    void updateStore_ShouldRejectUpdate_WhenVersionIsStale() {
+        UUID addedOwner = UUID.randomUUID();
+        store.getOwnerIds().add(addedOwner);
+        store.setVersion(2L);
+        Store staleStore = Store.builder()
+                .name("Updated Store")
+                .email(store.getEmail())
+                .ownerIds(new HashSet<>(Set.of(ownerId)))
+                .version(1L)
+                .build();
+
+        when(storeRepository.findById(storeId)).thenReturn(Optional.of(store));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> storeService.updateStore(storeId, staleStore));
+
+        assertTrue(store.getOwnerIds().contains(addedOwner));
+        verify(storeRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(eventOutbox);
+    }
+
+    /**
+     * Tests that an update without a version is applied to the current store rather than rejected as stale.
+     */
+    @Test
+    void updateStore_ShouldApplyUpdate_WhenVersionIsOmitted() {
+        store.setVersion(2L);
+        Store updatedStore = Store.builder()
+                .name("Updated Store")
+                .email(store.getEmail())
+                .ownerIds(new HashSet<>(Set.of(ownerId)))
+                .build();
+
+        when(storeRepository.findById(storeId)).thenReturn(Optional.of(store));
+        when(storeRepository.saveAndFlush(store)).thenReturn(store);
+
+        Store result = storeService.updateStore(storeId, updatedStore);
+
+        assertEquals("Updated Store", result.getName());
+        assertEquals(2L, result.getVersion());
+        verify(storeRepository).saveAndFlush(store);
+    }
+
+    /**
+     * Tests deleting a store by ID, queueing the DELETED event followed by a tombstone for the store's key.
      */
     @Test
     void deleteStore_ShouldDeleteStore_WhenStoreExists() {
-        doNothing().when(storeRepository).deleteById(storeId);
+        when(storeRepository.findById(storeId)).thenReturn(Optional.of(store));
 
         storeService.deleteStore(storeId);
 
-        verify(storeRepository, times(1)).deleteById(storeId);
+        verify(storeRepository, times(1)).delete(store);
+        verify(storeCache, times(1)).evict(storeId, store.getEmail());
+        verify(storeGeoIndex, times(1)).remove(storeId);
+        verify(ownerStoreIndex, times(1)).remove(ownerId, storeId);
+        InOrder inOrder = inOrder(eventOutbox);
+        inOrder.verify(eventOutbox).enqueue(StoreChangedEvent.TOPIC, storeId.toString(), StoreChangedEvent.deleted(store));
+        inOrder.verify(eventOutbox).enqueueTombstone(StoreChangedEvent.TOPIC, storeId.toString());
     }
 
     /**
-     * Tests adding an owner to a store.
+     * Tests adding an owner to a store with a single-row insert, without saving the whole store.
      */
     @Test
     void addOwnerToStore_ShouldAddOwnerAndReturnStore() {
         UUID newOwnerId = UUID.randomUUID();
+        when(storeRepository.existsById(storeId)).thenReturn(true);
+        when(storeRepository.insertOwner(storeId, newOwnerId)).thenReturn(1);
         when(storeRepository.findById(storeId)).thenReturn(Optional.of(store));
-        when(storeRepository.save(any(Store.class))).thenReturn(store);
 
         Store result = storeService.addOwnerToStore(storeId, newOwnerId);
 
-        assertTrue(result.getOwnerIds().contains(newOwnerId));
-        verify(storeRepository, times(1)).save(store);
+        assertSame(store, result);
+        verify(storeRepository).incrementVersion(storeId);
+        verify(storeRepository, never()).save(any());
+        verify(storeCache, times(1)).evict(storeId, store.getEmail());
+        verify(ownerStoreIndex, times(1)).add(newOwnerId, storeId);
+        verify(eventOutbox).enqueue(eq(OwnerRoleUpdateEvent.TOPIC), eq(newOwnerId.toString()), any(OwnerRoleUpdateEvent.class));
+        verify(eventOutbox).enqueue(eq(StoreChangedEvent.TOPIC), eq(storeId.toString()), any(StoreChangedEvent.class));
+    }
+
+    /**
+     * Tests that adding an existing owner changes nothing and sends no event.
+     */
+    @Test
+    void addOwnerToStore_ShouldDoNothing_WhenAlreadyOwner() {
+        when(storeRepository.existsById(storeId)).thenReturn(true);
+        when(storeRepository.insertOwner(storeId, ownerId)).thenReturn(0);
+        when(storeRepository.findById(storeId)).thenReturn(Optional.of(store));
+
+        storeService.addOwnerToStore(storeId, ownerId);
+
+        verify(storeRepository, never()).incrementVersion(any());
+        verifyNoInteractions(storeCache, ownerStoreIndex, eventOutbox);
     }
 
     /**
-     * Tests removing an owner from a store.
+     * Tests that adding an owner to a missing store fails without writing.
+     */
+    @Test
+    void addOwnerToStore_ShouldThrow_WhenStoreNotFound() {
+        when(storeRepository.existsById(storeId)).thenReturn(false);
+
+        assertThrows(RuntimeException.class, () -> storeService.addOwnerToStore(storeId, ownerId));
+
+        verify(storeRepository, never()).insertOwner(any(), any());
+    }
+
+    /**
+     * Tests removing an owner from a store with a single-row delete.
      */
     @Test
     void removeOwnerFromStore_ShouldRemoveOwnerAndReturnStore() {
+        when(storeRepository.existsById(storeId)).thenReturn(true);
+        when(storeRepository.deleteOwner(storeId, ownerId)).thenReturn(1);
         when(storeRepository.findById(storeId)).thenReturn(Optional.of(store));
-        when(storeRepository.save(any(Store.class))).thenReturn(store);
 
         Store result = storeService.removeOwnerFromStore(storeId, ownerId);
 
-        assertFalse(result.getOwnerIds().contains(ownerId));
-        verify(storeRepository, times(1)).save(store);
+        assertSame(store, result);
+        verify(storeRepository).incrementVersion(storeId);
+        verify(storeRepository, never()).save(any());
+        verify(storeCache, times(1)).evict(storeId, store.getEmail());
+        verify(ownerStoreIndex, times(1)).remove(ownerId, storeId);
     }
 
     /**
-     * Tests retrieving stores by owner ID.
+     * Tests retrieving stores by owner ID from the database while the owner index is not loaded,
+     * without adding the result to the index.
      */
     @Test
     void getStoresByOwner_ShouldReturnListOfStores() {
+        when(ownerStoreIndex.findStoreIds(ownerId)).thenReturn(Optional.empty());
         when(storeRepository.findByOwnerId(ownerId)).thenReturn(List.of(store));
 
         List<Store> result = storeService.getStoresByOwner(ownerId);
@@ -205,6 +428,21 @@ class StoreServiceTest {
         assertEquals(1, result.size());
         assertEquals(storeId, result.get(0).getStoreId());
         verify(storeRepository, times(1)).findByOwnerId(ownerId);
+        verify(ownerStoreIndex, never()).add(any(), any());
+    }
+
+    /**
+     * Tests that indexed owners are served by store ID without the owner join.
+     */
+    @Test
+    void getStoresByOwner_ShouldUseOwnerIndex_WhenOwnerIsIndexed() {
+        when(ownerStoreIndex.findStoreIds(ownerId)).thenReturn(Optional.of(List.of(storeId)));
+        when(storeRepository.findAllByStoreIdIn(List.of(storeId))).thenReturn(List.of(store));
+
+        List<Store> result = storeService.getStoresByOwner(ownerId);
+
+        assertEquals(List.of(store), result);
+        verify(storeRepository, never()).findByOwnerId(any());
     }
 
     /**
@@ -213,13 +451,166 @@ class StoreServiceTest {
     @Test
     void findStoresByLatLng_ShouldReturnNearbyStores() {
         LocationRequest locationRequest = new LocationRequest(40.7128, -74.0060);
-        when(storeRepository.findAll()).thenReturn(List.of(store));
+        when(distanceHelper.boundingBox(40.7128, -74.0060, 10)).thenReturn(new BoundingBox(40.5, 40.9, -74.2, -73.8));
+        when(storeRepository.findWithinBoundingBox(40.5, 40.9, -74.2, -73.8)).thenReturn(List.of(store));
         when(distanceHelper.distanceCalculation(anyDouble(), anyDouble(), anyDouble(), anyDouble())).thenReturn(5.0);
 
-        List<Store> result = storeService.findStoresByLatLng(locationRequest);
+        List<NearbyStore<Store>> result = storeService.findStoresByLatLng(locationRequest);
 
         assertEquals(1, result.size());
-        verify(storeRepository, times(1)).findAll();
+        verify(storeRepository, never()).findAll();
         verify(distanceHelper, times(1)).distanceCalculation(anyDouble(), anyDouble(), anyDouble(), anyDouble());
     }
+
+    /**
+     * Tests that nearby stores are resolved through the geo index once it is ready.
+     */
+    @Test
+    void findStoresByLatLng_ShouldUseGeoIndex_WhenReady() {
+        LocationRequest locationRequest = new LocationRequest(40.7128, -74.0060);
+        when(storeGeoIndex.isReady()).thenReturn(true);
+        when(storeGeoIndex.findNearest(40.7128, -74.0060, 10, null)).thenReturn(List.of(new GeoHit(storeId, 0.0)));
+        when(storeRepository.findAllByStoreIdIn(List.of(storeId))).thenReturn(List.of(store));
+
+        List<NearbyStore<Store>> result = storeService.findStoresByLatLng(locationRequest);
+
+        assertEquals(1, result.size());
+        verify(storeRepository, never()).findAll();
+        verifyNoInteractions(distanceHelper);
+    }
+
+    /**
+     * Tests that nearby summaries are loaded as projections, in the order of the geo index hits.
+     */
+    @Test
+    void findStoreSummariesByLatLng_ShouldKeepHitOrder() {
+        UUID fartherId = UUID.randomUUID();
+        StoreSummary nearer = StoreSummary.of(store);
+        StoreSummary farther = new StoreSummary(fartherId, "Farther Store", 40.72, -74.0, null, 0, null);
+        LocationRequest locationRequest = new LocationRequest(40.7128, -74.0060);
+        when(storeGeoIndex.isReady()).thenReturn(true);
+        when(storeGeoIndex.findNearest(40.7128, -74.0060, 10, null))
+                .thenReturn(List.of(new GeoHit(storeId, 0.0), new GeoHit(fartherId, 0.5)));
+        when(storeRepository.findSummariesByStoreIdIn(List.of(storeId, fartherId))).thenReturn(List.of(farther, nearer));
+
+        List<NearbyStore<StoreSummary>> result = storeService.findStoreSummariesByLatLng(locationRequest);
+
+        assertEquals(List.of(nearer, farther), result.stream().map(NearbyStore::getStore).toList());
+        verify(storeRepository, never()).findAllByStoreIdIn(any());
+    }
+
+    /**
+     * Tests that a batch queries the geo index per location, with the default batch limit where none is given,
+     * and loads every matched store in one query.
+     */
+    @Test
+    void findStoresByLatLngBatch_ShouldLoadMatchedStoresOnce() {
+        UUID otherId = UUID.randomUUID();
+        Store other = Store.builder().storeId(otherId).name("Other Store").build();
+        List<LocationRequest> locationRequests = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            locationRequests.add(new LocationRequest(40.0 + i, -74.0));
+        }
+        when(storeGeoIndex.isReady()).thenReturn(true);
+        int limit = StoreService.DEFAULT_NEARBY_BATCH_LIMIT;
+        when(storeGeoIndex.findNearest(anyDouble(), anyDouble(), eq(10.0), eq(limit))).thenReturn(List.of());
+        when(storeGeoIndex.findNearest(40.0, -74.0, 10, limit))
+                .thenReturn(List.of(new GeoHit(storeId, 0.5), new GeoHit(otherId, 1.5)));
+        when(storeGeoIndex.findNearest(41.0, -74.0, 10, limit)).thenReturn(List.of(new GeoHit(otherId, 0.2)));
+        when(storeRepository.findAllByStoreIdIn(List.of(storeId, otherId))).thenReturn(List.of(other, store));
+
+        List<NearbyBatchResult<Store>> results = storeService.findStoresByLatLngBatch(locationRequests);
+
+        assertEquals(40, results.size());
+        assertEquals(List.of(store, other), results.get(0).getStores().stream().map(NearbyStore::getStore).toList());
+        assertEquals(List.of(other), results.get(1).getStores().stream().map(NearbyStore::getStore).toList());
+        assertEquals(41.0, results.get(1).getLatitude());
+        assertTrue(results.get(39).getStores().isEmpty());
+        verify(storeRepository, times(1)).findAllByStoreIdIn(any());
+    }
+
+    /**
+     * Tests that a batch whose limits add up to more stores than allowed is rejected before any search.
+     */
+    @Test
+    void findStoresByLatLngBatch_ShouldRejectTooManyStoresInTotal() {
+        List<LocationRequest> locationRequests = new ArrayList<>();
+        for (int i = 0; i <= StoreService.MAX_NEARBY_BATCH_STORES / 500; i++) {
+            locationRequests.add(new LocationRequest(40.0, -74.0, 100.0, 500));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> storeService.findStoresByLatLngBatch(locationRequests));
+        verifyNoInteractions(storeRepository, storeGeoIndex);
+    }
+
+    /**
+     * Tests that an invalid location rejects the whole batch, naming the location.
+     */
+    @Test
+    void findStoresByLatLngBatch_ShouldRejectInvalidLocation() {
+        List<LocationRequest> locationRequests = List.of(
+                new LocationRequest(40.7128, -74.0060), new LocationRequest(40.7128, -74.0060, 500.0, null));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> storeService.findStoresByLatLngBatch(locationRequests));
+
+        assertTrue(e.getMessage().startsWith("Location 1: "));
+        assertThrows(IllegalArgumentException.class, () -> storeService.findStoresByLatLngBatch(List.of()));
+        verifyNoInteractions(storeRepository, storeGeoIndex);
+    }
+
+    /**
+     * Tests that the bounding box query is split in two when the box spans the antimeridian.
+     */
+    @Test
+    void findStoresByLatLng_ShouldSplitBoundingBox_WhenCrossingAntimeridian() {
+        LocationRequest locationRequest = new LocationRequest(-17.0, 179.95);
+        when(distanceHelper.boundingBox(-17.0, 179.95, 10)).thenReturn(new BoundingBox(-17.2, -16.8, 179.8, -179.9));
+        when(storeRepository.findWithinBoundingBox(-17.2, -16.8, 179.8, 180)).thenReturn(List.of(store));
+        when(storeRepository.findWithinBoundingBox(-17.2, -16.8, -180, -179.9)).thenReturn(List.of());
+        when(distanceHelper.distanceCalculation(anyDouble(), anyDouble(), anyDouble(), anyDouble())).thenReturn(5.0);
+
+        List<NearbyStore<Store>> result = storeService.findStoresByLatLng(locationRequest);
+
+        assertEquals(1, result.size());
+        verify(storeRepository, times(2)).findWithinBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    /**
+     * Tests that the radius and limit of the request are applied and results come back nearest first.
+     */
+    @Test
+    void findStoresByLatLng_ShouldApplyRadiusAndLimit_NearestFirst() {
+        Store farStore = Store.builder().storeId(UUID.randomUUID()).name("Far Store").latitude(40.8).longitude(-74.1).build();
+        Store nearStore = Store.builder().storeId(UUID.randomUUID()).name("Near Store").latitude(40.72).longitude(-74.01).build();
+        Store outsideStore = Store.builder().storeId(UUID.randomUUID()).name("Outside Store").latitude(41.0).longitude(-74.5).build();
+        LocationRequest locationRequest = new LocationRequest(40.7128, -74.0060, 25.0, 2);
+
+        when(distanceHelper.boundingBox(40.7128, -74.0060, 25.0)).thenReturn(new BoundingBox(40.3, 41.1, -74.5, -73.5));
+        when(storeRepository.findWithinBoundingBox(40.3, 41.1, -74.5, -73.5))
+                .thenReturn(List.of(farStore, store, outsideStore, nearStore));
+        when(distanceHelper.distanceCalculation(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenAnswer(invocation -> {
+                    double latitude = invocation.getArgument(0);
+                    return latitude == 40.8 ? 8.0 : latitude == 40.72 ? 1.0 : latitude == 41.0 ? 30.0 : 0.0;
+                });
+
+        List<NearbyStore<Store>> result = storeService.findStoresByLatLng(locationRequest);
+
+        assertEquals(List.of("Test Store", "Near Store"), result.stream().map(n -> n.getStore().getName()).toList());
+        assertEquals(0.0, result.get(0).getDistance());
+        assertEquals(1.0, result.get(1).getDistance());
+    }
+
+    /**
+     * Tests that out-of-range radius and limit values are rejected.
+     */
+    @Test
+    void findStoresByLatLng_ShouldRejectInvalidRadiusOrLimit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> storeService.findStoresByLatLng(new LocationRequest(40.7128, -74.0060, -1.0, null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> storeService.findStoresByLatLng(new LocationRequest(40.7128, -74.0060, 10.0, 0)));
+        verifyNoInteractions(storeRepository);
+    }
 }